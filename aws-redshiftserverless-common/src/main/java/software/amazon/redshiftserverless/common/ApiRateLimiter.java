@@ -0,0 +1,166 @@
+package software.amazon.redshiftserverless.common;
+
+import lombok.Value;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Client-side token buckets that cap the rate of service calls made by the handlers in one warm container.
+ *
+ * Every account and region gets one bucket for read-only calls (Get, List and Describe) and one for all other calls,
+ * so that stabilization polls cannot starve the calls that change resources. A call that finds its bucket empty is not
+ * made; it throws {@link Throttled} with the time until the next token, and the handler calls back after that delay
+ * instead of waiting in the Lambda.
+ *
+ * The buckets only see the calls of their own container. Stacks handled by other containers draw on the same account
+ * quota without them knowing, so the buckets do not keep an account under the service's API rate limits; that is left
+ * to the service, whose throttling the call retry policy backs off from. They are sized for one container instead:
+ * enough for the calls of a handler to go out in a burst, while capping a container that keeps polling.
+ */
+public final class ApiRateLimiter {
+    // A container runs one invocation at a time, which makes at most a handful of calls of each kind in a row
+    public static final Budget READ_BUDGET = new Budget(10, 2.0);
+    public static final Budget MUTATING_BUDGET = new Budget(5, 1.0);
+
+    /**
+     * Buckets shared by every invocation in the container, and by none outside it.
+     */
+    public static final ApiRateLimiter SHARED = new ApiRateLimiter(READ_BUDGET, MUTATING_BUDGET, System::nanoTime);
+
+    private final Budget readBudget;
+    private final Budget mutatingBudget;
+    private final LongSupplier nanoTime;
+    private final Map<BucketKey, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param readBudget budget of read-only calls per account and region
+     * @param mutatingBudget budget of all other calls per account and region
+     * @param nanoTime monotonic clock, only replaced by tests
+     */
+    public ApiRateLimiter(final Budget readBudget, final Budget mutatingBudget, final LongSupplier nanoTime) {
+        this.readBudget = readBudget;
+        this.mutatingBudget = mutatingBudget;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @param awsAccountId account the calls are made in
+     * @param region region the calls are made in
+     * @param proxyClient client to limit
+     * @return a client that takes a token before every call made through it
+     */
+    public <ClientT> ProxyClient<ClientT> limit(final String awsAccountId, final String region, final ProxyClient<ClientT> proxyClient) {
+        return new RateLimitedProxyClient<>(this, awsAccountId, region, proxyClient);
+    }
+
+    /**
+     * @param proxyClient a client, possibly rate limited
+     * @return the client the rate limited client delegates to, or proxyClient as is
+     */
+    static ProxyClient<?> unwrap(final ProxyClient<?> proxyClient) {
+        return proxyClient instanceof RateLimitedProxyClient ? ((RateLimitedProxyClient<?>) proxyClient).delegate : proxyClient;
+    }
+
+    private void acquire(final String awsAccountId, final String region, final AwsRequest request) {
+        final boolean readOnly = MemoizingProxyClient.isReadOnly(request);
+        final TokenBucket bucket = buckets.computeIfAbsent(new BucketKey(awsAccountId, region, readOnly),
+                key -> new TokenBucket(readOnly ? readBudget : mutatingBudget, nanoTime.getAsLong()));
+        final long waitNanos = bucket.tryAcquire(nanoTime.getAsLong());
+        if (waitNanos > 0L) {
+            throw new Throttled(request.getClass().getSimpleName(), waitNanos);
+        }
+    }
+
+    /**
+     * Size of a bucket and the rate at which it refills.
+     */
+    @Value
+    public static class Budget {
+        int capacity;
+        double tokensPerSecond;
+    }
+
+    /**
+     * Thrown instead of making a call while its bucket is empty.
+     */
+    public static final class Throttled extends RetryAfterException {
+        private static final long serialVersionUID = 1L;
+
+        private Throttled(final String operation, final long waitNanos) {
+            super(String.format("Rate exceeded for operation '%s'.", operation), null, HandlerErrorCode.Throttling, Duration.ofNanos(waitNanos));
+        }
+    }
+
+    @Value
+    private static class BucketKey {
+        String awsAccountId;
+        String region;
+        boolean readOnly;
+    }
+
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long refilledAt;
+
+        private TokenBucket(final Budget budget, final long now) {
+            this.capacity = budget.getCapacity();
+            this.tokensPerNano = budget.getTokensPerSecond() / TimeUnit.SECONDS.toNanos(1L);
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise the nanoseconds until one is available
+         */
+        private synchronized long tryAcquire(final long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens >= 1.0) {
+                tokens -= 1.0;
+                return 0L;
+            }
+            return (long) Math.ceil((1.0 - tokens) / tokensPerNano);
+        }
+    }
+
+    private static final class RateLimitedProxyClient<ClientT> implements ProxyClient<ClientT> {
+        private final ApiRateLimiter limiter;
+        private final String awsAccountId;
+        private final String region;
+        private final ProxyClient<ClientT> delegate;
+
+        private RateLimitedProxyClient(final ApiRateLimiter limiter,
+                                       final String awsAccountId,
+                                       final String region,
+                                       final ProxyClient<ClientT> delegate) {
+            this.limiter = limiter;
+            this.awsAccountId = awsAccountId;
+            this.region = region;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(
+                final RequestT request,
+                final Function<RequestT, ResponseT> requestFunction) {
+            limiter.acquire(awsAccountId, region, request);
+            return delegate.injectCredentialsAndInvokeV2(request, requestFunction);
+        }
+
+        @Override
+        public ClientT client() {
+            return delegate.client();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package software.amazon.redshiftserverless.common;
+
+import software.amazon.awssdk.core.SdkField;
+import software.amazon.awssdk.core.SdkPojo;
+import software.amazon.awssdk.core.protocol.MarshallingType;
+import software.amazon.awssdk.utils.builder.SdkBuilder;
+import software.amazon.awssdk.utils.builder.ToCopyableBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shrinks the call graph of a callback context before it goes into the callback payload. The proxy only needs the
+ * responses of completed calls to skip them on replay, so the graph keeps:
+ * <ul>
+ *     <li>no requests, the proxy translates them again from the model, which also keeps admin passwords out of the
+ *     payload;</li>
+ *     <li>no responses of reads, which are cheap to repeat and fresher when repeated;</li>
+ *     <li>responses of mutations without their lists and maps, which hold IAM roles, endpoints, parameters and
+ *     other details that no later step reads.</li>
+ * </ul>
+ * Stabilization and attempt markers are kept as they are.
+ */
+public final class CallGraphCompactor {
+    private static final String REQUEST_SUFFIX = ".request";
+    private static final String RESPONSE_SUFFIX = ".response";
+
+    private CallGraphCompactor() {
+    }
+
+    /**
+     * @param callGraphs call graph recorded by the proxy
+     * @return the part of the call graph worth carrying to the next invocation
+     */
+    public static Map<String, Object> compact(final Map<String, Object> callGraphs) {
+        final Map<String, Object> compacted = new LinkedHashMap<>();
+        callGraphs.forEach((key, value) -> {
+            if (key.endsWith(REQUEST_SUFFIX)) {
+                return;
+            }
+            if (key.endsWith(RESPONSE_SUFFIX) && value instanceof SdkPojo) {
+                if (!isRead(value)) {
+                    compacted.put(key, scalarsOf((SdkPojo) value));
+                }
+                return;
+            }
+            compacted.put(key, value);
+        });
+        return compacted;
+    }
+
+    private static boolean isRead(final Object response) {
+        final String name = response.getClass().getSimpleName();
+        return name.startsWith("Get") || name.startsWith("List") || name.startsWith("Describe");
+    }
+
+    /**
+     * @return copy of the object holding only its scalar fields, and those of the structures it nests
+     */
+    static Object scalarsOf(final SdkPojo pojo) {
+        if (!(pojo instanceof ToCopyableBuilder)) {
+            return pojo;
+        }
+        final Object builder = ((ToCopyableBuilder<?, ?>) pojo).toBuilder();
+        for (final SdkField<?> field : pojo.sdkFields()) {
+            final MarshallingType<?> type = field.marshallingType();
+            if (type == MarshallingType.LIST || type == MarshallingType.MAP) {
+                field.set(builder, null);
+            } else if (type == MarshallingType.SDK_POJO) {
+                final Object nested = field.getValueOrDefault(pojo);
+                if (nested instanceof SdkPojo) {
+                    field.set(builder, scalarsOf((SdkPojo) nested));
+                }
+            }
+        }
+        return ((SdkBuilder<?, ?>) builder).build();
+    }
+}
@@ -0,0 +1,52 @@
+package software.amazon.redshiftserverless.common;
+
+import software.amazon.awssdk.core.SdkClient;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Container scoped cache of SDK clients keyed by service.
+ *
+ * Building an SDK client resolves endpoint rules, credentials and interceptors, which is wasted work when the
+ * same warm Lambda container serves many handler invocations. Clients are built for the region of the container,
+ * which the SDK takes from its environment and which does not change over its lifetime, so the region is not part
+ * of the key. Entries are evicted in least-recently-used order once the cache is full. Evicted clients are not closed
+ * since an in-flight invocation may still hold them; they share {@code LambdaWrapper.HTTP_CLIENT}, so dropping the
+ * reference is enough.
+ */
+public class ClientCache {
+    private final Map<String, SdkClient> clients;
+
+    public ClientCache(final int maxSize) {
+        this.clients = new LinkedHashMap<String, SdkClient>(maxSize, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, SdkClient> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public <T extends SdkClient> T getOrCreate(final String serviceName,
+                                        final Class<T> clientType,
+                                        final Supplier<T> clientFactory) {
+        synchronized (clients) {
+            return clientType.cast(clients.computeIfAbsent(serviceName, k -> clientFactory.get()));
+        }
+    }
+
+    public int size() {
+        synchronized (clients) {
+            return clients.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (clients) {
+            clients.clear();
+        }
+    }
+}
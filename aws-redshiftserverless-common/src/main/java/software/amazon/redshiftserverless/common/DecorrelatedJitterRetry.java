@@ -0,0 +1,163 @@
+package software.amazon.redshiftserverless.common;
+
+import lombok.Builder;
+import software.amazon.cloudformation.proxy.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Retries service calls that were throttled or failed on the service side (5xx), with decorrelated jitter: every delay
+ * is drawn uniformly between the base delay and three times the previous delay, and capped. Unlike plain exponential
+ * backoff this spreads out handlers that were throttled at the same moment. Which failures are retried, and the
+ * shortest delay for each, come from the {@link ExceptionClassifier} of the resource type.
+ *
+ * Short delays are waited out in the Lambda as long as the time budget of the invocation allows; a longer one puts the
+ * call off to a later invocation by throwing {@link RetryAfterException}, or gives up if the handler cannot call back. The number of retries and the previous
+ * delay are kept in the callback context, so the schedule carries on across invocations, and are reset once a call
+ * succeeds.
+ */
+public final class DecorrelatedJitterRetry {
+    private static final int DEFAULT_MAX_ATTEMPTS = 8;
+    private static final Consumer<Duration> THREAD_SLEEP = delay -> {
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    };
+
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final int maxAttempts;
+    private final Duration maxInProcessDelay;
+    private final ExceptionClassifier classifier;
+    private final DoubleSupplier random;
+    private final Consumer<Duration> sleeper;
+
+    /**
+     * @param baseDelay         shortest delay, also the first one
+     * @param maxDelay          ceiling of every delay
+     * @param maxAttempts       attempts of one call including the first, 8 unless set
+     * @param maxInProcessDelay longest delay waited out in the Lambda instead of calling back
+     * @param classifier        classifier of the exceptions of the resource type
+     * @param random            source of uniformly distributed values in [0, 1), only set by tests
+     * @param sleeper           waits in the Lambda, only set by tests
+     */
+    @Builder(builderMethodName = "of")
+    private DecorrelatedJitterRetry(final Duration baseDelay,
+                                    final Duration maxDelay,
+                                    final Integer maxAttempts,
+                                    final Duration maxInProcessDelay,
+                                    final ExceptionClassifier classifier,
+                                    final DoubleSupplier random,
+                                    final Consumer<Duration> sleeper) {
+        if (baseDelay == null || baseDelay.isNegative() || baseDelay.isZero()) {
+            throw new IllegalArgumentException("baseDelay must be > 0");
+        }
+        if (maxDelay == null || maxDelay.compareTo(baseDelay) < 0) {
+            throw new IllegalArgumentException("maxDelay must not be shorter than baseDelay");
+        }
+        if (maxAttempts != null && maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be >= 1");
+        }
+        if (maxInProcessDelay == null || maxInProcessDelay.isNegative()) {
+            throw new IllegalArgumentException("maxInProcessDelay must be >= 0");
+        }
+        if (classifier == null) {
+            throw new IllegalArgumentException("classifier must be set");
+        }
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.maxAttempts = maxAttempts != null ? maxAttempts : DEFAULT_MAX_ATTEMPTS;
+        this.maxInProcessDelay = maxInProcessDelay;
+        this.classifier = classifier;
+        this.random = random != null ? random : () -> ThreadLocalRandom.current().nextDouble();
+        this.sleeper = sleeper != null ? sleeper : THREAD_SLEEP;
+    }
+
+    /**
+     * @param exception exception thrown by a service call
+     * @return true if the call was throttled or failed on the service side
+     */
+    boolean isRetryable(final Exception exception) {
+        return classifier.classify(exception).isTransient();
+    }
+
+    /**
+     * @param previousDelay delay before the previous retry, zero before the first one
+     * @return delay before the next retry
+     */
+    Duration nextDelay(final Duration previousDelay) {
+        final long baseMillis = baseDelay.toMillis();
+        final long upperMillis = Math.min(maxDelay.toMillis(), Math.max(baseMillis, previousDelay.toMillis() * 3L));
+        return Duration.ofMillis(baseMillis + Math.round((upperMillis - baseMillis) * random.getAsDouble()));
+    }
+
+    /**
+     * Makes a service call, retrying it while it is throttled or fails on the service side.
+     *
+     * @param context callback context that keeps the retries of the current call
+     * @param canCallBack whether a long delay may be turned into a callback
+     * @param timeBudget time left in the invocation
+     * @param logger handler logger
+     * @param serviceCall the service call
+     * @return the response of the call
+     */
+    public <ResponseT> ResponseT call(final State context,
+                               final boolean canCallBack,
+                               final TimeBudget timeBudget,
+                               final Logger logger,
+                               final Supplier<ResponseT> serviceCall) {
+        while (true) {
+            try {
+                final ResponseT response = serviceCall.get();
+                reset(context);
+                return response;
+            } catch (final RuntimeException e) {
+                final ExceptionClassifier.Rule rule = classifier.classify(e);
+                if (!rule.isTransient() || context.getServiceCallRetries() + 1 >= maxAttempts) {
+                    // The call is given up, so the next call, in this invocation or a later one, starts without retries
+                    reset(context);
+                    throw e;
+                }
+                final Duration drawn = nextDelay(Duration.ofMillis(context.getServiceCallRetryDelayMillis()));
+                final Duration delay = drawn.compareTo(rule.getRetryDelay()) < 0 ? rule.getRetryDelay() : drawn;
+                context.setServiceCallRetries(context.getServiceCallRetries() + 1);
+                context.setServiceCallRetryDelayMillis(delay.toMillis());
+                final String message = String.format("%s, retry %d of %d in %d ms.",
+                        e.getClass().getSimpleName(), context.getServiceCallRetries(), maxAttempts - 1, delay.toMillis());
+                if (delay.compareTo(maxInProcessDelay) <= 0 && timeBudget.allows(delay)) {
+                    logger.log(message);
+                    sleeper.accept(delay);
+                } else if (canCallBack) {
+                    throw new RetryAfterException(message, e, rule.getErrorCode(), delay);
+                } else {
+                    reset(context);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static void reset(final State context) {
+        context.setServiceCallRetries(0);
+        context.setServiceCallRetryDelayMillis(0L);
+    }
+
+    /**
+     * Retries of the current service call, kept in the callback context of the resource type.
+     */
+    public interface State {
+        int getServiceCallRetries();
+
+        void setServiceCallRetries(int serviceCallRetries);
+
+        long getServiceCallRetryDelayMillis();
+
+        void setServiceCallRetryDelayMillis(long serviceCallRetryDelayMillis);
+    }
+}
@@ -0,0 +1,186 @@
+package software.amazon.redshiftserverless.common;
+
+import lombok.Value;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Classifies the exceptions of service calls from a table built once per container: the class of an exception selects
+ * its rule, and a few rules are refined by precompiled patterns on the message. Error handlers take the error code of
+ * the rule, while the call retry policy and the stabilizers read whether and how soon the call can be retried.
+ *
+ * Each resource type builds its own table, since the same service exception maps to different error codes for
+ * different resources. Service exceptions missing from the table are classified by their HTTP status, everything else
+ * is a general service error.
+ */
+public final class ExceptionClassifier {
+    public static final Rule THROTTLED = new Rule(HandlerErrorCode.Throttling, Retryability.TRANSIENT, Duration.ofSeconds(1L));
+    public static final Rule GENERAL = fails(HandlerErrorCode.GeneralServiceException);
+
+    private final Map<Class<? extends Throwable>, Entry> table;
+    private final Rule serverError;
+    private final boolean throttlingOnly;
+
+    private ExceptionClassifier(final Map<Class<? extends Throwable>, Entry> table,
+                                final Rule serverError,
+                                final boolean throttlingOnly) {
+        this.table = table;
+        this.serverError = serverError;
+        this.throttlingOnly = throttlingOnly;
+    }
+
+    /**
+     * @param serverError rule of service exceptions that failed on the service side (5xx) and are missing from the table
+     * @return builder of a classifier
+     */
+    public static Builder builder(final Rule serverError) {
+        return new Builder(serverError);
+    }
+
+    /**
+     * @param errorCode error code of the failure
+     * @return rule of a failure that is not retried
+     */
+    public static Rule fails(final HandlerErrorCode errorCode) {
+        return new Rule(errorCode, Retryability.NONE, Duration.ZERO);
+    }
+
+    /**
+     * Classifier for calls that are not idempotent, such as creates: a call that failed on the service side may have
+     * been applied before it failed, so only throttled calls, which the service rejected, are retried. Error codes are
+     * the same as those of this classifier.
+     *
+     * @return classifier with the same table, under which only throttling is transient
+     */
+    public ExceptionClassifier throttlingOnly() {
+        return new ExceptionClassifier(table, serverError, true);
+    }
+
+    /**
+     * @param exception exception of a service call, or of the code around it
+     * @return the rule of the exception
+     */
+    public Rule classify(final Throwable exception) {
+        final Rule rule = lookUp(exception);
+        if (throttlingOnly && rule.isTransient() && rule.getErrorCode() != HandlerErrorCode.Throttling) {
+            return fails(rule.getErrorCode());
+        }
+        return rule;
+    }
+
+    private Rule lookUp(final Throwable exception) {
+        for (Class<?> type = exception.getClass(); type != null; type = type.getSuperclass()) {
+            final Entry entry = table.get(type);
+            if (entry != null) {
+                return entry.match(exception.getMessage());
+            }
+        }
+        if (exception instanceof AwsServiceException) {
+            final AwsServiceException serviceException = (AwsServiceException) exception;
+            if (serviceException.isThrottlingException()) {
+                return THROTTLED;
+            }
+            if (serviceException.statusCode() >= 500) {
+                return serverError;
+            }
+        }
+        return GENERAL;
+    }
+
+    /**
+     * How a failed call can be made again.
+     */
+    public enum Retryability {
+        /**
+         * Fails again unless the request changes.
+         */
+        NONE,
+        /**
+         * Throttled or failed on the service side, the same call can be retried after a short delay.
+         */
+        TRANSIENT,
+        /**
+         * Another operation keeps the resource busy, the step can call back once it may have finished.
+         */
+        RESOURCE_BUSY
+    }
+
+    /**
+     * Error code reported for an exception, and whether and after which delay the call can be retried.
+     */
+    @Value
+    public static class Rule {
+        HandlerErrorCode errorCode;
+        Retryability retryability;
+        Duration retryDelay;
+
+        public boolean isTransient() {
+            return retryability == Retryability.TRANSIENT;
+        }
+    }
+
+    public static final class Builder {
+        private final Map<Class<? extends Throwable>, Entry> table = new HashMap<>();
+        private final Rule serverError;
+
+        private Builder(final Rule serverError) {
+            this.serverError = serverError;
+        }
+
+        /**
+         * @param type exception class, which also covers its subclasses that have no rule of their own
+         * @param rule rule of the exception
+         */
+        public Builder rule(final Class<? extends Throwable> type, final Rule rule) {
+            table.put(type, new Entry(rule));
+            return this;
+        }
+
+        /**
+         * Refines the rule of an exception class for messages that match the pattern. Patterns are tried in the order
+         * they were added.
+         */
+        public Builder when(final Class<? extends Throwable> type, final Pattern pattern, final Rule rule) {
+            final Entry entry = table.get(type);
+            if (entry == null) {
+                throw new IllegalStateException(type.getSimpleName() + " has no rule to refine");
+            }
+            entry.patterns.add(pattern);
+            entry.patternRules.add(rule);
+            return this;
+        }
+
+        public ExceptionClassifier build() {
+            return new ExceptionClassifier(Collections.unmodifiableMap(new HashMap<>(table)), serverError, false);
+        }
+    }
+
+    private static final class Entry {
+        private final Rule rule;
+        private final List<Pattern> patterns = new ArrayList<>();
+        private final List<Rule> patternRules = new ArrayList<>();
+
+        private Entry(final Rule rule) {
+            this.rule = rule;
+        }
+
+        private Rule match(final String message) {
+            if (message != null) {
+                for (int i = 0; i < patterns.size(); i++) {
+                    if (patterns.get(i).matcher(message).find()) {
+                        return patternRules.get(i);
+                    }
+                }
+            }
+            return rule;
+        }
+    }
+}
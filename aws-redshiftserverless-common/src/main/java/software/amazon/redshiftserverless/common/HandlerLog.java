@@ -0,0 +1,169 @@
+package software.amazon.redshiftserverless.common;
+
+import software.amazon.awssdk.core.SdkField;
+import software.amazon.awssdk.core.SdkPojo;
+import software.amazon.awssdk.core.protocol.MarshallingType;
+import software.amazon.cloudformation.proxy.Logger;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Structured handler log. Every line is a level and an event name followed by key=value pairs, which CloudWatch Logs
+ * Insights parses without patterns, e.g.
+ * <pre>INFO WorkgroupPolled workgroup=analytics status=MODIFYING</pre>
+ *
+ * Lines below the threshold cost no formatting: the level is checked first, and values that are {@link Supplier}s are
+ * only evaluated for lines that are written. SDK objects are written as a summary of their scalar fields, lists by
+ * their size, rather than as the full dump of their toString. Values of keys and fields that name a password are
+ * redacted.
+ *
+ * Lines written through {@link #log(String)}, such as metrics, bypass all of this and are always written.
+ */
+public final class HandlerLog implements Logger {
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR
+    }
+
+    /**
+     * Threshold of handler logs, which LOG_LEVEL in the environment of the handler overrides, e.g. for local runs.
+     */
+    public static final Level DEFAULT_THRESHOLD = threshold(System.getenv("LOG_LEVEL"), Level.INFO);
+
+    private static final String REDACTED = "***";
+
+    private final Logger logger;
+    private final Level threshold;
+
+    public HandlerLog(final Logger logger, final Level threshold) {
+        this.logger = logger;
+        this.threshold = threshold;
+    }
+
+    /**
+     * @param logger logger of the invocation
+     * @return structured log writing to the logger at the default threshold
+     */
+    public static HandlerLog of(final Logger logger) {
+        return logger instanceof HandlerLog ? (HandlerLog) logger : new HandlerLog(logger, DEFAULT_THRESHOLD);
+    }
+
+    public static Level threshold(final String name, final Level defaultLevel) {
+        if (name == null) {
+            return defaultLevel;
+        }
+        try {
+            return Level.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            return defaultLevel;
+        }
+    }
+
+    public boolean isEnabled(final Level level) {
+        return level.compareTo(threshold) >= 0;
+    }
+
+    /**
+     * @param event name of the event, without spaces
+     * @param keyValues alternating keys and values; values may be {@link Supplier}s
+     */
+    public void debug(final String event, final Object... keyValues) {
+        write(Level.DEBUG, event, keyValues);
+    }
+
+    public void info(final String event, final Object... keyValues) {
+        write(Level.INFO, event, keyValues);
+    }
+
+    public void warn(final String event, final Object... keyValues) {
+        write(Level.WARN, event, keyValues);
+    }
+
+    public void error(final String event, final Object... keyValues) {
+        write(Level.ERROR, event, keyValues);
+    }
+
+    @Override
+    public void log(final String message) {
+        logger.log(message);
+    }
+
+    private void write(final Level level, final String event, final Object[] keyValues) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        final StringBuilder line = new StringBuilder(64).append(level).append(' ').append(event);
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            final String key = String.valueOf(keyValues[i]);
+            line.append(' ').append(key).append('=');
+            appendValue(line, isSecret(key) ? REDACTED : resolve(keyValues[i + 1]));
+        }
+        logger.log(line.toString());
+    }
+
+    private static Object resolve(final Object value) {
+        return value instanceof Supplier ? ((Supplier<?>) value).get() : value;
+    }
+
+    private static void appendValue(final StringBuilder line, final Object value) {
+        final String text = value instanceof SdkPojo ? summary((SdkPojo) value) : String.valueOf(value);
+        if (!text.isEmpty() && text.indexOf(' ') < 0 && text.indexOf('"') < 0 && text.indexOf('=') < 0) {
+            line.append(text);
+        } else {
+            line.append('"').append(text.replace("\"", "\\\"")).append('"');
+        }
+    }
+
+    /**
+     * @return whether values under the given key or field name must not be logged
+     */
+    static boolean isSecret(final String name) {
+        return name.toLowerCase(Locale.ROOT).endsWith("password");
+    }
+
+    /**
+     * @return the scalar fields of the object and of the structures it nests, e.g.
+     * {@code {workgroupName=analytics,status=AVAILABLE,subnetIds=[3]}}; lists and maps are written as their size and
+     * left out when empty
+     */
+    public static String summary(final SdkPojo pojo) {
+        final StringBuilder summary = new StringBuilder(128);
+        appendSummary(summary, pojo);
+        return summary.toString();
+    }
+
+    private static void appendSummary(final StringBuilder summary, final SdkPojo pojo) {
+        summary.append('{');
+        boolean first = true;
+        for (final SdkField<?> field : pojo.sdkFields()) {
+            final Object value = field.getValueOrDefault(pojo);
+            if (value == null || isEmpty(value)) {
+                continue;
+            }
+            if (!first) {
+                summary.append(',');
+            }
+            first = false;
+            summary.append(field.memberName()).append('=');
+            final MarshallingType<?> type = field.marshallingType();
+            if (type == MarshallingType.LIST) {
+                summary.append('[').append(((Collection<?>) value).size()).append(']');
+            } else if (type == MarshallingType.MAP) {
+                summary.append('[').append(((Map<?, ?>) value).size()).append(']');
+            } else if (value instanceof SdkPojo) {
+                appendSummary(summary, (SdkPojo) value);
+            } else if (isSecret(field.memberName()) && !(value instanceof Boolean)) {
+                summary.append(REDACTED);
+            } else {
+                summary.append(value);
+            }
+        }
+        summary.append('}');
+    }
+
+    private static boolean isEmpty(final Object value) {
+        return value instanceof Collection ? ((Collection<?>) value).isEmpty() : value instanceof Map && ((Map<?, ?>) value).isEmpty();
+    }
+}
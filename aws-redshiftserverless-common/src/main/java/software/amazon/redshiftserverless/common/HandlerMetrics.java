@@ -0,0 +1,245 @@
+package software.amazon.redshiftserverless.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.cloudformation.proxy.CallChain;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import software.amazon.cloudformation.proxy.StdCallbackContext;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Service call and stabilization metrics written to the handler log in CloudWatch Embedded Metric Format.
+ *
+ * Every call made through an instrumented {@link ProxyClient} logs one line with its latency, outcome, exception type
+ * and the number of retries the SDK made. Every stabilization stage logs one line with its poll count and the time
+ * spent from the first poll until it stabilized, failed or the invocation ended. CloudWatch extracts the metrics from
+ * the log lines, so nothing is published over the network.
+ */
+public final class HandlerMetrics {
+    public static final String METRIC_NAMESPACE = "RedshiftServerless/ResourceHandlers";
+
+    /**
+     * Counts HTTP attempts of the SDK call running on the current thread. Registered on the clients built by the
+     * client builder of each resource type; calls through clients without it report no retries.
+     */
+    public static final ExecutionInterceptor ATTEMPT_COUNTER = new ExecutionInterceptor() {
+        @Override
+        public void beforeTransmission(final Context.BeforeTransmission context, final ExecutionAttributes executionAttributes) {
+            ATTEMPTS.get()[0]++;
+        }
+    };
+
+    private static final ThreadLocal<int[]> ATTEMPTS = ThreadLocal.withInitial(() -> new int[1]);
+    private static final ObjectWriter WRITER = new ObjectMapper().writer();
+    private static final String SUCCESS = "Success";
+    private static final String FAILURE = "Failure";
+
+    private final Logger logger;
+    private final String resourceType;
+    private final LongSupplier currentTimeMillis;
+    private final Map<String, Stage> stages = new ConcurrentHashMap<>();
+
+    public HandlerMetrics(final Logger logger, final String resourceType) {
+        this(logger, resourceType, System::currentTimeMillis);
+    }
+
+    public HandlerMetrics(final Logger logger, final String resourceType, final LongSupplier currentTimeMillis) {
+        this.logger = logger;
+        this.resourceType = resourceType;
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    /**
+     * @param proxyClient client to measure
+     * @return a client that records a metric line for every service call made through it
+     */
+    public <ClientT> ProxyClient<ClientT> instrument(final ProxyClient<ClientT> proxyClient) {
+        return new InstrumentedProxyClient<>(this, proxyClient);
+    }
+
+    /**
+     * Instruments a client created inside a handler with the metrics of a client the handler was given, which may be
+     * memoizing.
+     *
+     * @param instrumented client passed to the handler, possibly instrumented
+     * @param proxyClient client to measure
+     * @return proxyClient instrumented like instrumented, or proxyClient as is
+     */
+    public static <ClientT> ProxyClient<ClientT> instrumentLike(final ProxyClient<?> instrumented, final ProxyClient<ClientT> proxyClient) {
+        final HandlerMetrics metrics = metricsOf(instrumented);
+        return metrics != null ? metrics.instrument(proxyClient) : proxyClient;
+    }
+
+    /**
+     * Wraps a stabilizer so that its polls are counted under the given stage name. Polls through a client that is
+     * not instrumented, directly or under a {@link MemoizingProxyClient} or rate limited client, are not measured.
+     *
+     * @param stage name of the stabilization stage, e.g. CreateWorkgroup
+     * @param stabilizer stabilizer to measure
+     * @return the measured stabilizer
+     */
+    public static <RequestT, ResponseT, ClientT, ModelT, CallbackT extends StdCallbackContext>
+    CallChain.Callback<RequestT, ResponseT, ClientT, ModelT, CallbackT, Boolean> stabilization(
+            final String stage,
+            final CallChain.Callback<RequestT, ResponseT, ClientT, ModelT, CallbackT, Boolean> stabilizer) {
+        return (request, response, client, model, context) -> {
+            final HandlerMetrics metrics = metricsOf(client);
+            if (metrics == null) {
+                return stabilizer.invoke(request, response, client, model, context);
+            }
+            return metrics.poll(stage, () -> stabilizer.invoke(request, response, client, model, context));
+        };
+    }
+
+    private static HandlerMetrics metricsOf(final ProxyClient<?> proxyClient) {
+        final ProxyClient<?> unwrapped = ApiRateLimiter.unwrap(MemoizingProxyClient.unwrap(proxyClient));
+        return unwrapped instanceof InstrumentedProxyClient ? ((InstrumentedProxyClient<?>) unwrapped).metrics : null;
+    }
+
+    /**
+     * Logs the stages that have not stabilized in this invocation.
+     */
+    public void flush() {
+        for (final String stage : stages.keySet()) {
+            final Stage pending = stages.remove(stage);
+            if (pending != null) {
+                emitStabilization(stage, pending, "Pending");
+            }
+        }
+    }
+
+    private <ResponseT> ResponseT measureCall(final AwsRequest request, final Supplier<ResponseT> call) {
+        final long start = currentTimeMillis.getAsLong();
+        ATTEMPTS.get()[0] = 0;
+        String exceptionType = null;
+        try {
+            return call.get();
+        } catch (final RuntimeException e) {
+            exceptionType = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            emitServiceCall(operationName(request), currentTimeMillis.getAsLong() - start, exceptionType,
+                    Math.max(0, ATTEMPTS.get()[0] - 1));
+        }
+    }
+
+    private boolean poll(final String stage, final BooleanSupplier check) {
+        final Stage current = stages.computeIfAbsent(stage, name -> new Stage(currentTimeMillis.getAsLong()));
+        current.polls++;
+        boolean stabilized = false;
+        boolean failed = true;
+        try {
+            stabilized = check.getAsBoolean();
+            failed = false;
+            return stabilized;
+        } finally {
+            if (stabilized || failed) {
+                stages.remove(stage);
+                emitStabilization(stage, current, stabilized ? "Stabilized" : FAILURE);
+            }
+        }
+    }
+
+    private void emitServiceCall(final String operation, final long latency, final String exceptionType, final int retries) {
+        final Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("Operation", operation);
+        fields.put("Outcome", exceptionType == null ? SUCCESS : FAILURE);
+        if (exceptionType != null) {
+            fields.put("ExceptionType", exceptionType);
+        }
+        fields.put("Latency", latency);
+        fields.put("Retries", retries);
+        fields.put("Errors", exceptionType == null ? 0 : 1);
+        emit("Operation", fields, metric("Latency", "Milliseconds"), metric("Retries", "Count"), metric("Errors", "Count"));
+    }
+
+    private void emitStabilization(final String stage, final Stage state, final String outcome) {
+        final Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("Stage", stage);
+        fields.put("Outcome", outcome);
+        fields.put("Polls", state.polls);
+        fields.put("WaitTime", currentTimeMillis.getAsLong() - state.startMillis);
+        emit("Stage", fields, metric("Polls", "Count"), metric("WaitTime", "Milliseconds"));
+    }
+
+    @SafeVarargs
+    private final void emit(final String dimension, final Map<String, Object> fields, final Map<String, String>... metrics) {
+        final Map<String, Object> directive = new LinkedHashMap<>();
+        directive.put("Namespace", METRIC_NAMESPACE);
+        directive.put("Dimensions", Collections.singletonList(Arrays.asList("ResourceType", dimension)));
+        directive.put("Metrics", Arrays.asList(metrics));
+
+        final Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("Timestamp", currentTimeMillis.getAsLong());
+        metadata.put("CloudWatchMetrics", Collections.singletonList(directive));
+
+        final Map<String, Object> line = new LinkedHashMap<>();
+        line.put("_aws", metadata);
+        line.put("ResourceType", resourceType);
+        line.putAll(fields);
+        try {
+            logger.log(WRITER.writeValueAsString(line));
+        } catch (final JsonProcessingException e) {
+            logger.log(String.format("Unable to write metrics for %s: %s", fields.get(dimension), e.getOriginalMessage()));
+        }
+    }
+
+    private static Map<String, String> metric(final String name, final String unit) {
+        final Map<String, String> metric = new LinkedHashMap<>();
+        metric.put("Name", name);
+        metric.put("Unit", unit);
+        return metric;
+    }
+
+    private static String operationName(final AwsRequest request) {
+        final String name = request.getClass().getSimpleName();
+        return name.endsWith("Request") ? name.substring(0, name.length() - "Request".length()) : name;
+    }
+
+    private static final class Stage {
+        private final long startMillis;
+        private int polls;
+
+        private Stage(final long startMillis) {
+            this.startMillis = startMillis;
+        }
+    }
+
+    private static final class InstrumentedProxyClient<ClientT> implements ProxyClient<ClientT> {
+        private final HandlerMetrics metrics;
+        private final ProxyClient<ClientT> delegate;
+
+        private InstrumentedProxyClient(final HandlerMetrics metrics, final ProxyClient<ClientT> delegate) {
+            this.metrics = metrics;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(
+                final RequestT request,
+                final Function<RequestT, ResponseT> requestFunction) {
+            return metrics.measureCall(request, () -> delegate.injectCredentialsAndInvokeV2(request, requestFunction));
+        }
+
+        @Override
+        public ClientT client() {
+            return delegate.client();
+        }
+    }
+}
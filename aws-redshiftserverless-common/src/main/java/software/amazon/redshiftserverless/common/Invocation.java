@@ -0,0 +1,22 @@
+package software.amazon.redshiftserverless.common;
+
+import lombok.Value;
+import software.amazon.cloudformation.proxy.Logger;
+
+/**
+ * What belongs to one invocation of a handler rather than to the resource operation: its log and its time budget.
+ * Handlers pass it alongside the callback context, which only holds what is carried from one invocation to the next.
+ */
+@Value
+public class Invocation {
+    HandlerLog log;
+    TimeBudget timeBudget;
+
+    /**
+     * @param logger logger of the invocation
+     * @return an invocation without a deadline, such as that of a handler called by another one in unit tests
+     */
+    public static Invocation of(final Logger logger) {
+        return new Invocation(HandlerLog.of(logger), TimeBudget.UNLIMITED);
+    }
+}
@@ -0,0 +1,94 @@
+package software.amazon.redshiftserverless.common;
+
+import lombok.Builder;
+import software.amazon.cloudformation.proxy.Delay;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Stabilization delay that polls quickly at first, to catch transitions that finish almost immediately, then backs off
+ * exponentially up to a ceiling. Each delay is spread by a random jitter so that stacks stabilizing at the same time
+ * do not poll in lockstep.
+ *
+ * Like the delays shipped with the plugin it keeps no state between attempts: the time spent so far is derived from the
+ * attempt number on the schedule without jitter, and {@link Duration#ZERO} is returned once that exceeds the timeout.
+ */
+public final class JitteredExponentialDelay implements Delay {
+    private static final double DEFAULT_MULTIPLIER = 1.5;
+    private static final double DEFAULT_JITTER = 0.2;
+    private static final long MIN_DELAY_MILLIS = Duration.ofSeconds(1L).toMillis();
+
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+    private final double multiplier;
+    private final double jitter;
+    private final Duration timeout;
+    private final DoubleSupplier random;
+
+    /**
+     * @param initialDelay delay before the second poll
+     * @param maxDelay     ceiling of the delay between two polls, before jitter
+     * @param multiplier   growth of the delay from one poll to the next, 1.5 unless set
+     * @param jitter       fraction by which each delay is randomly stretched or shortened, 0.2 unless set
+     * @param timeout      time after which polling stops
+     * @param random       source of uniformly distributed values in [0, 1), only set by tests
+     */
+    @Builder(builderMethodName = "of")
+    private JitteredExponentialDelay(final Duration initialDelay,
+                                     final Duration maxDelay,
+                                     final Double multiplier,
+                                     final Double jitter,
+                                     final Duration timeout,
+                                     final DoubleSupplier random) {
+        if (initialDelay == null || initialDelay.toMillis() < MIN_DELAY_MILLIS) {
+            throw new IllegalArgumentException("initialDelay must be at least one second");
+        }
+        if (maxDelay == null || maxDelay.compareTo(initialDelay) < 0) {
+            throw new IllegalArgumentException("maxDelay must not be shorter than initialDelay");
+        }
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("timeout must be > 0");
+        }
+        if (multiplier != null && multiplier < 1.0) {
+            throw new IllegalArgumentException("multiplier must be >= 1");
+        }
+        if (jitter != null && (jitter < 0.0 || jitter >= 1.0)) {
+            throw new IllegalArgumentException("jitter must be in [0, 1)");
+        }
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.multiplier = multiplier != null ? multiplier : DEFAULT_MULTIPLIER;
+        this.jitter = jitter != null ? jitter : DEFAULT_JITTER;
+        this.timeout = timeout;
+        this.random = random != null ? random : () -> ThreadLocalRandom.current().nextDouble();
+    }
+
+    @Override
+    public Duration nextDelay(final int attempt) {
+        final int currentAttempt = Math.max(attempt, 1);
+
+        long elapsedMillis = 0L;
+        for (int previousAttempt = 1; previousAttempt <= currentAttempt; previousAttempt++) {
+            elapsedMillis += baseDelayMillis(previousAttempt);
+        }
+        if (elapsedMillis > timeout.toMillis()) {
+            return Duration.ZERO;
+        }
+
+        final double spread = 1.0 - jitter + 2.0 * jitter * random.getAsDouble();
+        return Duration.ofMillis(Math.max(MIN_DELAY_MILLIS, Math.round(baseDelayMillis(currentAttempt) * spread)));
+    }
+
+    private long baseDelayMillis(final int attempt) {
+        final double delayMillis = initialDelay.toMillis() * Math.pow(multiplier, attempt - 1);
+        return (long) Math.min(maxDelay.toMillis(), delayMillis);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("JitteredExponentialDelay{initialDelay=%s, maxDelay=%s, multiplier=%s, jitter=%s, timeout=%s}",
+                initialDelay, maxDelay, multiplier, jitter, timeout);
+    }
+}
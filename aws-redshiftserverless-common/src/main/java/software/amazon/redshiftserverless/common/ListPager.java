@@ -0,0 +1,48 @@
+package software.amazon.redshiftserverless.common;
+
+import lombok.Getter;
+
+/**
+ * Pagination of list handlers: the page size of list calls.
+ *
+ * Pages are not fetched ahead of the request for them. A prefetch would call the service with the credentials of the
+ * invocation that started it, and those must not be used once that invocation returns, while a prefetch that the
+ * invocation waits for costs the list call it was meant to save.
+ */
+public final class ListPager {
+    /**
+     * Largest page the list calls of the service return.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    @Getter
+    private final int pageSize;
+
+    /**
+     * @param pageSize number of resources per list call
+     */
+    public ListPager(final int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Pager configured by LIST_PAGE_SIZE (the full page of the service by default) in the environment of the handler.
+     */
+    public static ListPager fromEnvironment() {
+        return new ListPager(pageSize(System.getenv("LIST_PAGE_SIZE"), MAX_PAGE_SIZE));
+    }
+
+    /**
+     * @return the page size, within what the service accepts, or the default if it is missing or not a number
+     */
+    public static int pageSize(final String value, final int defaultSize) {
+        if (value == null) {
+            return defaultSize;
+        }
+        try {
+            return Math.min(Math.max(Integer.parseInt(value.trim()), 1), MAX_PAGE_SIZE);
+        } catch (final NumberFormatException e) {
+            return defaultSize;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package software.amazon.redshiftserverless.common;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.cloudformation.proxy.CallChain;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import software.amazon.cloudformation.proxy.StdCallbackContext;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * {@link ProxyClient} that remembers the responses of read-only calls for the rest of one handler invocation.
+ *
+ * A handler often reads the workgroup right after a stabilizer has read it, and the read handler that ends Create and
+ * Update reads it again. Responses to Get, List and Describe calls are kept by request and returned for equal requests;
+ * any other call may change the resource, so it drops everything that was kept. Stabilizer polls wrapped with
+ * {@link #polling} always reach the service, and their responses replace the kept ones. Failed calls are not kept.
+ *
+ * A new instance must be used for every invocation, since nothing tells it what changed in between.
+ */
+public final class MemoizingProxyClient<ClientT> implements ProxyClient<ClientT> {
+    private static final String[] READ_ONLY_PREFIXES = {"Get", "List", "Describe"};
+
+    private final ProxyClient<ClientT> delegate;
+    private final Map<AwsRequest, AwsResponse> responses = new ConcurrentHashMap<>();
+    private final AtomicInteger activePolls = new AtomicInteger();
+
+    private MemoizingProxyClient(final ProxyClient<ClientT> delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @param proxyClient client to memoize
+     * @return a client that serves repeated read-only calls from memory
+     */
+    public static <ClientT> ProxyClient<ClientT> memoize(final ProxyClient<ClientT> proxyClient) {
+        return new MemoizingProxyClient<>(proxyClient);
+    }
+
+    /**
+     * Wraps a stabilizer so that the calls it makes through a memoizing client always reach the service.
+     *
+     * @param stabilizer stabilizer that polls the service
+     * @return the wrapped stabilizer
+     */
+    public static <RequestT, ResponseT, ClientT, ModelT, CallbackT extends StdCallbackContext>
+    CallChain.Callback<RequestT, ResponseT, ClientT, ModelT, CallbackT, Boolean> polling(
+            final CallChain.Callback<RequestT, ResponseT, ClientT, ModelT, CallbackT, Boolean> stabilizer) {
+        return (request, response, client, model, context) -> {
+            if (!(client instanceof MemoizingProxyClient)) {
+                return stabilizer.invoke(request, response, client, model, context);
+            }
+            final MemoizingProxyClient<?> memoizing = (MemoizingProxyClient<?>) client;
+            memoizing.activePolls.incrementAndGet();
+            try {
+                return stabilizer.invoke(request, response, client, model, context);
+            } finally {
+                memoizing.activePolls.decrementAndGet();
+            }
+        };
+    }
+
+    /**
+     * @param proxyClient a client, possibly memoizing
+     * @return the client the memoizing client delegates to, or proxyClient as is
+     */
+    static ProxyClient<?> unwrap(final ProxyClient<?> proxyClient) {
+        return proxyClient instanceof MemoizingProxyClient ? ((MemoizingProxyClient<?>) proxyClient).delegate : proxyClient;
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(
+            final RequestT request,
+            final Function<RequestT, ResponseT> requestFunction) {
+        final Supplier<ResponseT> call = () -> delegate.injectCredentialsAndInvokeV2(request, requestFunction);
+        if (!isReadOnly(request)) {
+            responses.clear();
+            return call.get();
+        }
+        if (activePolls.get() == 0) {
+            @SuppressWarnings("unchecked")
+            final ResponseT kept = (ResponseT) responses.get(request);
+            if (kept != null) {
+                return kept;
+            }
+        }
+        final ResponseT response = call.get();
+        if (response != null) {
+            responses.put(request, response);
+        }
+        return response;
+    }
+
+    @Override
+    public ClientT client() {
+        return delegate.client();
+    }
+
+    /**
+     * @return true for Get, List and Describe calls
+     */
+    static boolean isReadOnly(final AwsRequest request) {
+        final String name = request.getClass().getSimpleName();
+        for (final String prefix : READ_ONLY_PREFIXES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
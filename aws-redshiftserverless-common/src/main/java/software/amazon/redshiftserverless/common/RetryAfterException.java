@@ -0,0 +1,34 @@
+package software.amazon.redshiftserverless.common;
+
+import lombok.Getter;
+import software.amazon.cloudformation.exceptions.BaseHandlerException;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thrown from a service call that should be made again in a later invocation. The base handler of each resource type
+ * turns it into an IN_PROGRESS event that calls back after {@link #getRetryAfterSeconds()}.
+ *
+ * It extends {@link BaseHandlerException} so that the call chain of the proxy rethrows it instead of passing it to the
+ * error handler of the step.
+ */
+public class RetryAfterException extends BaseHandlerException {
+    private static final long serialVersionUID = 1L;
+
+    @Getter
+    private final int retryAfterSeconds;
+
+    /**
+     * @param message why the call is put off
+     * @param cause exception of the call, if it was made
+     * @param errorCode error code reported if the exception is not turned into a callback
+     * @param retryAfter time until the call should be made again, rounded up to whole seconds
+     */
+    public RetryAfterException(final String message, final Throwable cause, final HandlerErrorCode errorCode, final Duration retryAfter) {
+        super(message, cause, errorCode);
+        final long nanosPerSecond = TimeUnit.SECONDS.toNanos(1L);
+        this.retryAfterSeconds = (int) Math.max(1L, (retryAfter.toNanos() + nanosPerSecond - 1L) / nanosPerSecond);
+    }
+}
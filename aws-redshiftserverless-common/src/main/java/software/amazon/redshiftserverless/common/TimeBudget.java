@@ -0,0 +1,77 @@
+package software.amazon.redshiftserverless.common;
+
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Time left in the current handler invocation. CloudFormation does not hand the Lambda context to handlers, so the
+ * budget is measured from the start of the invocation.
+ *
+ * Once less than the safety margin is left, the next service call or stabilization poll throws {@link Exhausted}
+ * instead of running and the handler calls back. Steps that completed are not repeated in the next invocation: the
+ * proxy keeps their responses in the callback context and replays them.
+ */
+public final class TimeBudget {
+    /**
+     * Budget of handlers that are invoked without a deadline, such as in unit tests.
+     */
+    public static final TimeBudget UNLIMITED = new TimeBudget(Duration.ofNanos(Long.MAX_VALUE), Duration.ZERO, () -> 0L);
+
+    private final long deadlineNanos;
+    private final long safetyMarginNanos;
+    private final LongSupplier nanoTime;
+
+    /**
+     * @param budget time the invocation may take from now
+     * @param safetyMargin time kept back for returning the progress event
+     * @param nanoTime monotonic clock, only replaced by tests
+     */
+    public TimeBudget(final Duration budget, final Duration safetyMargin, final LongSupplier nanoTime) {
+        this.deadlineNanos = nanoTime.getAsLong() + budget.toNanos();
+        this.safetyMarginNanos = safetyMargin.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    public static TimeBudget startingNow(final Duration budget, final Duration safetyMargin) {
+        return new TimeBudget(budget, safetyMargin, System::nanoTime);
+    }
+
+    /**
+     * @return time left until the deadline of the invocation, negative once it has passed
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(deadlineNanos - nanoTime.getAsLong());
+    }
+
+    /**
+     * @param work time some work in the Lambda would take
+     * @return true if the work fits before the safety margin
+     */
+    public boolean allows(final Duration work) {
+        return deadlineNanos - nanoTime.getAsLong() - safetyMarginNanos >= work.toNanos();
+    }
+
+    /**
+     * @param step step that is about to run
+     * @throws Exhausted if the step should run in the next invocation
+     */
+    public void check(final String step) {
+        if (!allows(Duration.ZERO)) {
+            throw new Exhausted(step, remaining());
+        }
+    }
+
+    /**
+     * Thrown instead of running a step once the invocation is about to run out of time.
+     */
+    public static final class Exhausted extends RetryAfterException {
+        private static final long serialVersionUID = 1L;
+
+        private Exhausted(final String step, final Duration remaining) {
+            super(String.format("%s put off to the next invocation, %d ms of this one left.", step, remaining.toMillis()),
+                    null, HandlerErrorCode.InternalFailure, Duration.ZERO);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package software.amazon.redshiftserverless.common;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.services.redshiftserverless.RedshiftServerlessClient;
+import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.UpdateWorkgroupRequest;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ApiRateLimiterTest {
+    private static final String ACCOUNT = "123456789012";
+    private static final String REGION = "us-east-1";
+
+    private long now;
+    private int calls;
+    private ApiRateLimiter limiter;
+    private ProxyClient<RedshiftServerlessClient> service;
+
+    @BeforeEach
+    public void setup() {
+        now = 0L;
+        calls = 0;
+        limiter = new ApiRateLimiter(new ApiRateLimiter.Budget(3, 1.0), new ApiRateLimiter.Budget(1, 0.1), () -> now);
+        service = new ProxyClient<RedshiftServerlessClient>() {
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(
+                    final RequestT request, final Function<RequestT, ResponseT> requestFunction) {
+                calls++;
+                return null;
+            }
+
+            @Override
+            public RedshiftServerlessClient client() {
+                return null;
+            }
+        };
+    }
+
+    @Test
+    public void emptyBucket_ThrowsWithTimeUntilNextTokenWithoutCallingTheService() {
+        final ProxyClient<RedshiftServerlessClient> limited = limiter.limit(ACCOUNT, REGION, service);
+        for (int call = 0; call < 3; call++) {
+            read(limited);
+        }
+
+        assertThatThrownBy(() -> read(limited))
+                .isInstanceOf(RetryAfterException.class)
+                .satisfies(e -> assertThat(((RetryAfterException) e).getErrorCode()).isEqualTo(HandlerErrorCode.Throttling))
+                .satisfies(e -> assertThat(((ApiRateLimiter.Throttled) e).getRetryAfterSeconds()).isEqualTo(1));
+        assertThat(calls).isEqualTo(3);
+    }
+
+    @Test
+    public void emptyBucket_RefillsAsTheClockAdvances() {
+        final ProxyClient<RedshiftServerlessClient> limited = limiter.limit(ACCOUNT, REGION, service);
+        update(limited);
+
+        now += TimeUnit.SECONDS.toNanos(4L);
+        assertThatThrownBy(() -> update(limited))
+                .satisfies(e -> assertThat(((ApiRateLimiter.Throttled) e).getRetryAfterSeconds()).isEqualTo(6));
+
+        now += TimeUnit.SECONDS.toNanos(6L);
+        update(limited);
+        assertThat(calls).isEqualTo(2);
+    }
+
+    @Test
+    public void refill_NeverExceedsCapacity() {
+        final ProxyClient<RedshiftServerlessClient> limited = limiter.limit(ACCOUNT, REGION, service);
+        now += TimeUnit.HOURS.toNanos(1L);
+        for (int call = 0; call < 3; call++) {
+            read(limited);
+        }
+
+        assertThatThrownBy(() -> read(limited)).isInstanceOf(ApiRateLimiter.Throttled.class);
+    }
+
+    @Test
+    public void readAndMutatingCalls_HaveSeparateBudgets() {
+        final ProxyClient<RedshiftServerlessClient> limited = limiter.limit(ACCOUNT, REGION, service);
+        update(limited);
+        assertThatThrownBy(() -> update(limited)).isInstanceOf(ApiRateLimiter.Throttled.class);
+
+        read(limited);
+        assertThat(calls).isEqualTo(2);
+    }
+
+    @Test
+    public void accountsAndRegions_HaveSeparateBudgets() {
+        update(limiter.limit(ACCOUNT, REGION, service));
+        update(limiter.limit(ACCOUNT, "eu-west-1", service));
+        update(limiter.limit("210987654321", REGION, service));
+
+        assertThatThrownBy(() -> update(limiter.limit(ACCOUNT, REGION, service))).isInstanceOf(ApiRateLimiter.Throttled.class);
+        assertThat(calls).isEqualTo(3);
+        assertThat(ApiRateLimiter.unwrap(limiter.limit(ACCOUNT, REGION, service))).isSameAs(service);
+    }
+
+    private static void read(final ProxyClient<RedshiftServerlessClient> proxyClient) {
+        proxyClient.injectCredentialsAndInvokeV2(GetWorkgroupRequest.builder().build(), request -> null);
+    }
+
+    private static void update(final ProxyClient<RedshiftServerlessClient> proxyClient) {
+        proxyClient.injectCredentialsAndInvokeV2(UpdateWorkgroupRequest.builder().build(), request -> null);
+    }
+}
@@ -0,0 +1,48 @@
+package software.amazon.redshiftserverless.common;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.redshiftserverless.model.CreateWorkgroupRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.CreateWorkgroupResponse;
+import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupResponse;
+import software.amazon.awssdk.services.redshiftserverless.model.Workgroup;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CallGraphCompactorTest {
+    private static final Workgroup WORKGROUP = Workgroup.builder()
+            .workgroupName("analytics")
+            .status("CREATING")
+            .subnetIds("subnet-1", "subnet-2")
+            .securityGroupIds("sg-1")
+            .build();
+
+    @Test
+    public void compact_KeepsScalarsOfMutationResponsesAndMarkers() {
+        final Map<String, Object> callGraphs = new LinkedHashMap<>();
+        callGraphs.put("workgroup::create.request", CreateWorkgroupRequest.builder().workgroupName("analytics").build());
+        callGraphs.put("workgroup::create.response", CreateWorkgroupResponse.builder().workgroup(WORKGROUP).build());
+        callGraphs.put("workgroup::read.response", GetWorkgroupResponse.builder().workgroup(WORKGROUP).build());
+        callGraphs.put("workgroup::create.stabilize", true);
+
+        final Map<String, Object> compacted = CallGraphCompactor.compact(callGraphs);
+
+        assertThat(compacted).containsOnlyKeys("workgroup::create.response", "workgroup::create.stabilize");
+        final Workgroup workgroup = ((CreateWorkgroupResponse) compacted.get("workgroup::create.response")).workgroup();
+        assertThat(workgroup.workgroupName()).isEqualTo("analytics");
+        assertThat(workgroup.status()).isEqualTo(WORKGROUP.status());
+        assertThat(workgroup.hasSubnetIds()).isFalse();
+        assertThat(workgroup.hasSecurityGroupIds()).isFalse();
+        assertThat(compacted.get("workgroup::create.stabilize")).isEqualTo(true);
+    }
+
+    @Test
+    public void compact_KeepsResponsesThatAreNotSdkObjects() {
+        final Map<String, Object> callGraphs = Collections.singletonMap("workgroup::create.response", "recorded");
+
+        assertThat(CallGraphCompactor.compact(callGraphs)).isEqualTo(callGraphs);
+    }
+}
@@ -0,0 +1,59 @@
+package software.amazon.redshiftserverless.common;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.redshiftserverless.RedshiftServerlessClient;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class ClientCacheTest {
+    private static final String SERVICE_NAME = RedshiftServerlessClient.SERVICE_NAME;
+
+    private final AtomicInteger clientsBuilt = new AtomicInteger();
+
+    @Test
+    public void getOrCreate_ReusesClientOfTheService() {
+        final ClientCache cache = new ClientCache(2);
+
+        final RedshiftServerlessClient first = cache.getOrCreate(SERVICE_NAME, RedshiftServerlessClient.class, this::newClient);
+        final RedshiftServerlessClient second = cache.getOrCreate(SERVICE_NAME, RedshiftServerlessClient.class, this::newClient);
+
+        assertThat(second).isSameAs(first);
+        assertThat(clientsBuilt.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void getOrCreate_KeysByService() {
+        final ClientCache cache = new ClientCache(2);
+
+        final RedshiftServerlessClient serverless = cache.getOrCreate(SERVICE_NAME, RedshiftServerlessClient.class, this::newClient);
+        final RedshiftServerlessClient other = cache.getOrCreate("Redshift", RedshiftServerlessClient.class, this::newClient);
+
+        assertThat(other).isNotSameAs(serverless);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void getOrCreate_EvictsLeastRecentlyUsed() {
+        final ClientCache cache = new ClientCache(2);
+
+        final RedshiftServerlessClient serverless = cache.getOrCreate(SERVICE_NAME, RedshiftServerlessClient.class, this::newClient);
+        cache.getOrCreate("Redshift", RedshiftServerlessClient.class, this::newClient);
+        cache.getOrCreate("SecretsManager", RedshiftServerlessClient.class, this::newClient);
+        final RedshiftServerlessClient serverlessAgain = cache.getOrCreate(SERVICE_NAME, RedshiftServerlessClient.class, this::newClient);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(serverlessAgain).isNotSameAs(serverless);
+        assertThat(clientsBuilt.get()).isEqualTo(4);
+
+        cache.clear();
+        assertThat(cache.size()).isZero();
+    }
+
+    private RedshiftServerlessClient newClient() {
+        clientsBuilt.incrementAndGet();
+        return mock(RedshiftServerlessClient.class);
+    }
+}
@@ -0,0 +1,174 @@
+package software.amazon.redshiftserverless.common;
+
+import lombok.Data;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.redshiftserverless.model.InternalServerException;
+import software.amazon.awssdk.services.redshiftserverless.model.ThrottlingException;
+import software.amazon.awssdk.services.redshiftserverless.model.ValidationException;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DecorrelatedJitterRetryTest {
+    private static final Duration BASE_DELAY = Duration.ofSeconds(1L);
+    private static final Duration MAX_DELAY = Duration.ofSeconds(20L);
+    private static final ExceptionClassifier.Rule SERVER_ERROR =
+            new ExceptionClassifier.Rule(HandlerErrorCode.InternalFailure, ExceptionClassifier.Retryability.TRANSIENT, BASE_DELAY);
+    private static final ExceptionClassifier CLASSIFIER = ExceptionClassifier.builder(SERVER_ERROR)
+            .rule(ValidationException.class, ExceptionClassifier.fails(HandlerErrorCode.InvalidRequest))
+            .rule(ThrottlingException.class, ExceptionClassifier.THROTTLED)
+            .rule(InternalServerException.class, SERVER_ERROR)
+            .build();
+
+    private final LoggerProxy logger = new LoggerProxy();
+    private List<Duration> sleeps;
+    private RetryState context;
+    private int calls;
+
+    @BeforeEach
+    public void setup() {
+        sleeps = new ArrayList<>();
+        context = new RetryState();
+        calls = 0;
+    }
+
+    @Test
+    public void nextDelay_IsDrawnBetweenBaseAndThreeTimesThePreviousDelayUpToMaxDelay() {
+        final DecorrelatedJitterRetry lowest = retry(0.0, Duration.ofSeconds(3L), 8);
+        final DecorrelatedJitterRetry highest = retry(1.0, Duration.ofSeconds(3L), 8);
+
+        assertThat(lowest.nextDelay(Duration.ZERO)).isEqualTo(BASE_DELAY);
+        assertThat(highest.nextDelay(Duration.ZERO)).isEqualTo(BASE_DELAY);
+        assertThat(lowest.nextDelay(Duration.ofSeconds(4L))).isEqualTo(BASE_DELAY);
+        assertThat(highest.nextDelay(Duration.ofSeconds(4L))).isEqualTo(Duration.ofSeconds(12L));
+        assertThat(highest.nextDelay(Duration.ofSeconds(12L))).isEqualTo(MAX_DELAY);
+    }
+
+    @Test
+    public void isRetryable_OnlyThrottlingAndServerErrors() {
+        final DecorrelatedJitterRetry retry = retry(0.0, Duration.ZERO, 8);
+
+        assertThat(retry.isRetryable(ThrottlingException.builder().build())).isTrue();
+        assertThat(retry.isRetryable(InternalServerException.builder().build())).isTrue();
+        assertThat(retry.isRetryable(AwsServiceException.builder().statusCode(503).build())).isTrue();
+        assertThat(retry.isRetryable(ValidationException.builder().statusCode(400).build())).isFalse();
+        assertThat(retry.isRetryable(new IllegalStateException())).isFalse();
+    }
+
+    @Test
+    public void call_WaitsOutShortDelaysAndResetsTheContextOnSuccess() {
+        final String response = retry(0.5, Duration.ofSeconds(3L), 8)
+                .call(context, true, TimeBudget.UNLIMITED, logger, failing(2, ThrottlingException.builder().build()));
+
+        assertThat(response).isEqualTo("response");
+        assertThat(calls).isEqualTo(3);
+        assertThat(sleeps).containsExactly(Duration.ofSeconds(1L), Duration.ofSeconds(2L));
+        assertThat(context.getServiceCallRetries()).isZero();
+        assertThat(context.getServiceCallRetryDelayMillis()).isZero();
+    }
+
+    @Test
+    public void call_CallsBackForLongDelaysAndContinuesTheScheduleInTheNextInvocation() {
+        final DecorrelatedJitterRetry retry = retry(1.0, Duration.ofSeconds(2L), 8);
+
+        assertThatThrownBy(() -> retry.call(context, true, TimeBudget.UNLIMITED, logger, failing(3, InternalServerException.builder().build())))
+                .isInstanceOf(RetryAfterException.class)
+                .satisfies(e -> {
+                    assertThat(((RetryAfterException) e).getRetryAfterSeconds()).isEqualTo(3);
+                    assertThat(((RetryAfterException) e).getErrorCode()).isEqualTo(HandlerErrorCode.InternalFailure);
+                });
+        assertThat(calls).isEqualTo(2);
+        assertThat(sleeps).containsExactly(BASE_DELAY);
+        assertThat(context.getServiceCallRetries()).isEqualTo(2);
+        assertThat(context.getServiceCallRetryDelayMillis()).isEqualTo(3000L);
+
+        assertThatThrownBy(() -> retry.call(context, true, TimeBudget.UNLIMITED, logger, failing(3, InternalServerException.builder().build())))
+                .satisfies(e -> assertThat(((RetryAfterException) e).getRetryAfterSeconds()).isEqualTo(9));
+        assertThat(context.getServiceCallRetries()).isEqualTo(3);
+    }
+
+    @Test
+    public void call_CallsBackInsteadOfWaitingPastTheTimeBudget() {
+        final TimeBudget almostUsedUp = new TimeBudget(Duration.ofMillis(1500L), Duration.ofMillis(1000L), () -> 0L);
+
+        assertThatThrownBy(() -> retry(0.0, Duration.ofSeconds(3L), 8)
+                .call(context, true, almostUsedUp, logger, failing(1, ThrottlingException.builder().build())))
+                .isInstanceOf(RetryAfterException.class)
+                .satisfies(e -> assertThat(((RetryAfterException) e).getRetryAfterSeconds()).isEqualTo(1));
+        assertThat(sleeps).isEmpty();
+        assertThat(context.getServiceCallRetries()).isEqualTo(1);
+    }
+
+    @Test
+    public void call_RethrowsWhenTheHandlerCannotCallBack() {
+        final InternalServerException failure = InternalServerException.builder().build();
+
+        assertThatThrownBy(() -> retry(1.0, Duration.ZERO, 8).call(context, false, TimeBudget.UNLIMITED, logger, failing(1, failure)))
+                .isSameAs(failure);
+        assertThat(calls).isEqualTo(1);
+        assertThat(context.getServiceCallRetries()).isZero();
+    }
+
+    @Test
+    public void call_RethrowsOnceAttemptsAreUsedUp() {
+        final ThrottlingException failure = ThrottlingException.builder().build();
+
+        assertThatThrownBy(() -> retry(0.0, Duration.ofSeconds(3L), 3).call(context, true, TimeBudget.UNLIMITED, logger, failing(5, failure)))
+                .isSameAs(failure);
+        assertThat(calls).isEqualTo(3);
+        assertThat(sleeps).hasSize(2);
+        assertThat(context.getServiceCallRetries()).isZero();
+        assertThat(context.getServiceCallRetryDelayMillis()).isZero();
+    }
+
+    @Test
+    public void call_RethrowsNonRetryableExceptionsRightAway() {
+        final ValidationException failure = ValidationException.builder().build();
+        // Retries an earlier invocation made of the same call
+        context.setServiceCallRetries(2);
+        context.setServiceCallRetryDelayMillis(3000L);
+
+        assertThatThrownBy(() -> retry(0.0, Duration.ofSeconds(3L), 8).call(context, true, TimeBudget.UNLIMITED, logger, failing(1, failure)))
+                .isSameAs(failure);
+        assertThat(calls).isEqualTo(1);
+        assertThat(sleeps).isEmpty();
+        assertThat(context.getServiceCallRetries()).isZero();
+        assertThat(context.getServiceCallRetryDelayMillis()).isZero();
+    }
+
+    private DecorrelatedJitterRetry retry(final double random, final Duration maxInProcessDelay, final int maxAttempts) {
+        return DecorrelatedJitterRetry.of()
+                .baseDelay(BASE_DELAY)
+                .maxDelay(MAX_DELAY)
+                .maxAttempts(maxAttempts)
+                .maxInProcessDelay(maxInProcessDelay)
+                .classifier(CLASSIFIER)
+                .random(() -> random)
+                .sleeper(sleeps::add)
+                .build();
+    }
+
+    private Supplier<String> failing(final int failures, final RuntimeException failure) {
+        return () -> {
+            if (calls++ < failures) {
+                throw failure;
+            }
+            return "response";
+        };
+    }
+
+    @Data
+    private static class RetryState implements DecorrelatedJitterRetry.State {
+        private int serviceCallRetries;
+        private long serviceCallRetryDelayMillis;
+    }
+}
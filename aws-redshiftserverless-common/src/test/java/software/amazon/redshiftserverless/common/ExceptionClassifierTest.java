@@ -0,0 +1,92 @@
+package software.amazon.redshiftserverless.common;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.redshiftserverless.model.ConflictException;
+import software.amazon.awssdk.services.redshiftserverless.model.RedshiftServerlessException;
+import software.amazon.awssdk.services.redshiftserverless.model.ThrottlingException;
+import software.amazon.awssdk.services.redshiftserverless.model.ValidationException;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ExceptionClassifierTest {
+    private static final ExceptionClassifier.Rule SERVER_ERROR =
+            new ExceptionClassifier.Rule(HandlerErrorCode.InternalFailure, ExceptionClassifier.Retryability.TRANSIENT, Duration.ofSeconds(1L));
+    private static final ExceptionClassifier.Rule BUSY =
+            new ExceptionClassifier.Rule(HandlerErrorCode.ResourceConflict, ExceptionClassifier.Retryability.RESOURCE_BUSY, Duration.ofSeconds(10L));
+
+    private final ExceptionClassifier classifier = ExceptionClassifier.builder(SERVER_ERROR)
+            .rule(RedshiftServerlessException.class, ExceptionClassifier.fails(HandlerErrorCode.InvalidRequest))
+            .rule(ConflictException.class, ExceptionClassifier.fails(HandlerErrorCode.ResourceConflict))
+            .when(ConflictException.class, Pattern.compile("already exists"), ExceptionClassifier.fails(HandlerErrorCode.AlreadyExists))
+            .when(ConflictException.class, Pattern.compile("busy"), BUSY)
+            .build();
+
+    @Test
+    public void classify_RuleOfTheClass() {
+        assertThat(classifier.classify(ConflictException.builder().message("Conflict").build()).getErrorCode())
+                .isEqualTo(HandlerErrorCode.ResourceConflict);
+        assertThat(classifier.classify(ConflictException.builder().build()).getErrorCode())
+                .isEqualTo(HandlerErrorCode.ResourceConflict);
+    }
+
+    @Test
+    public void classify_PatternsRefineTheRuleInOrder() {
+        assertThat(classifier.classify(ConflictException.builder().message("Workgroup already exists").build()).getErrorCode())
+                .isEqualTo(HandlerErrorCode.AlreadyExists);
+        assertThat(classifier.classify(ConflictException.builder().message("Workgroup already exists and is busy").build()).getErrorCode())
+                .isEqualTo(HandlerErrorCode.AlreadyExists);
+        assertThat(classifier.classify(ConflictException.builder().message("Workgroup is busy").build())).isEqualTo(BUSY);
+    }
+
+    @Test
+    public void classify_SubclassWithoutRuleTakesTheRuleOfItsSuperclass() {
+        assertThat(classifier.classify(ValidationException.builder().build()).getErrorCode())
+                .isEqualTo(HandlerErrorCode.InvalidRequest);
+    }
+
+    @Test
+    public void classify_ServiceExceptionsMissingFromTheTableByStatus() {
+        final ExceptionClassifier empty = ExceptionClassifier.builder(SERVER_ERROR).build();
+
+        assertThat(empty.classify(ThrottlingException.builder().statusCode(400)
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("ThrottlingException").build())
+                .build())).isEqualTo(ExceptionClassifier.THROTTLED);
+        assertThat(empty.classify(AwsServiceException.builder().statusCode(503).build())).isEqualTo(SERVER_ERROR);
+        assertThat(empty.classify(AwsServiceException.builder().statusCode(400).build())).isEqualTo(ExceptionClassifier.GENERAL);
+        assertThat(empty.classify(new IllegalStateException())).isEqualTo(ExceptionClassifier.GENERAL);
+    }
+
+    @Test
+    public void throttlingOnly_KeepsErrorCodesAndRetriesOnlyThrottling() {
+        final ExceptionClassifier throttlingOnly = ExceptionClassifier.builder(SERVER_ERROR).build().throttlingOnly();
+
+        assertThat(throttlingOnly.classify(ThrottlingException.builder().statusCode(400)
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("ThrottlingException").build())
+                .build())).isEqualTo(ExceptionClassifier.THROTTLED);
+        assertThat(throttlingOnly.classify(AwsServiceException.builder().statusCode(503).build()))
+                .isEqualTo(ExceptionClassifier.fails(HandlerErrorCode.InternalFailure));
+        assertThat(classifier.throttlingOnly().classify(ConflictException.builder().message("Workgroup is busy").build()))
+                .isEqualTo(BUSY);
+    }
+
+    @Test
+    public void rule_IsTransientOnlyForTransientRetryability() {
+        assertThat(SERVER_ERROR.isTransient()).isTrue();
+        assertThat(BUSY.isTransient()).isFalse();
+        assertThat(ExceptionClassifier.GENERAL.isTransient()).isFalse();
+    }
+
+    @Test
+    public void when_RequiresARuleToRefine() {
+        assertThatThrownBy(() -> ExceptionClassifier.builder(SERVER_ERROR)
+                .when(ConflictException.class, Pattern.compile("busy"), BUSY))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,163 @@
+package software.amazon.redshiftserverless.common;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.redshiftserverless.model.ConfigParameter;
+import software.amazon.awssdk.services.redshiftserverless.model.CreateNamespaceRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.Endpoint;
+import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupResponse;
+import software.amazon.awssdk.services.redshiftserverless.model.NetworkInterface;
+import software.amazon.awssdk.services.redshiftserverless.model.VpcEndpoint;
+import software.amazon.awssdk.services.redshiftserverless.model.Workgroup;
+import software.amazon.awssdk.services.redshiftserverless.model.WorkgroupStatus;
+import software.amazon.cloudformation.proxy.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class HandlerLogTest {
+    private static final int POLLS = 100;
+
+    private final List<String> lines = new ArrayList<>();
+
+    @Test
+    public void info_WritesTheEventAndItsKeyValuePairs() {
+        new HandlerLog(lines::add, HandlerLog.Level.INFO).info("WorkgroupPolled", "workgroup", "analytics", "status", WorkgroupStatus.MODIFYING);
+
+        assertThat(lines).containsExactly("INFO WorkgroupPolled workgroup=analytics status=MODIFYING");
+    }
+
+    @Test
+    public void debug_IsNeitherFormattedNorWrittenBelowTheThreshold() {
+        final Supplier<String> detail = () -> {
+            throw new AssertionError("evaluated below the threshold");
+        };
+        final HandlerLog log = new HandlerLog(lines::add, HandlerLog.Level.INFO);
+
+        log.debug("WorkgroupRead", "response", detail);
+        log.log("metrics are always written");
+
+        assertThat(log.isEnabled(HandlerLog.Level.DEBUG)).isFalse();
+        assertThat(lines).containsExactly("metrics are always written");
+    }
+
+    @Test
+    public void debug_EvaluatesSuppliersOnceWritten() {
+        new HandlerLog(lines::add, HandlerLog.Level.DEBUG).debug("WorkgroupRead", "polls", (Supplier<Integer>) () -> 3);
+
+        assertThat(lines).containsExactly("DEBUG WorkgroupRead polls=3");
+    }
+
+    @Test
+    public void warn_QuotesValuesWithSpacesAndRedactsPasswords() {
+        new HandlerLog(lines::add, HandlerLog.Level.INFO).warn("ServiceCallFailed",
+                "error", "Rate \"exceeded\" now", "adminUserPassword", "Sup3rSecret", "empty", "");
+
+        assertThat(lines).containsExactly("WARN ServiceCallFailed error=\"Rate \\\"exceeded\\\" now\" adminUserPassword=*** empty=\"\"");
+    }
+
+    @Test
+    public void summary_KeepsScalarsAndListSizesAndRedactsPasswords() {
+        final String summary = HandlerLog.summary(CreateNamespaceRequest.builder()
+                .namespaceName("namespace")
+                .adminUserPassword("Sup3rSecret")
+                .manageAdminPassword(false)
+                .iamRoles("arn:aws:iam::123456789012:role/first", "arn:aws:iam::123456789012:role/second")
+                .build());
+
+        assertThat(summary)
+                .startsWith("{")
+                .contains("namespaceName=namespace", "adminUserPassword=***", "manageAdminPassword=false", "iamRoles=[2]")
+                .doesNotContain("Sup3rSecret", "role/first", "tags");
+    }
+
+    @Test
+    public void threshold_FallsBackToTheDefaultForUnknownLevels() {
+        assertThat(HandlerLog.threshold("debug", HandlerLog.Level.INFO)).isEqualTo(HandlerLog.Level.DEBUG);
+        assertThat(HandlerLog.threshold("verbose", HandlerLog.Level.INFO)).isEqualTo(HandlerLog.Level.INFO);
+        assertThat(HandlerLog.threshold(null, HandlerLog.Level.WARN)).isEqualTo(HandlerLog.Level.WARN);
+    }
+
+    @Test
+    public void stabilizationLoop_WritesAndAllocatesFarLessThanResponseDumps() {
+        final java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported());
+        final com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        final GetWorkgroupResponse response = GetWorkgroupResponse.builder().workgroup(fullWorkgroup()).build();
+        final long[] written = new long[1];
+        final Logger sink = line -> written[0] += line.length();
+
+        // What every poll logged before: the read and the stabilizer each wrote a message and the full response
+        final Runnable dumps = () -> {
+            sink.log(String.format("Workgroup : %s has successfully been read.", response.workgroup().workgroupName()));
+            sink.log(response.toString());
+            sink.log(String.format("Workgroup: %s has successfully been read.", response.workgroup().workgroupName()));
+            sink.log(response.toString());
+        };
+        final HandlerLog log = new HandlerLog(sink, HandlerLog.Level.INFO);
+        final Runnable structured = () -> {
+            log.info("WorkgroupRead", "workgroup", response.workgroup().workgroupName(), "status", response.workgroup().statusAsString());
+            log.debug("WorkgroupRead", "response", response);
+        };
+
+        final long[] dumpsCost = stabilizationLoop(allocations, written, dumps);
+        final long[] structuredCost = stabilizationLoop(allocations, written, structured);
+
+        assertThat(structuredCost[0]).isLessThan(dumpsCost[0] / 10);
+        assertThat(structuredCost[1]).isLessThan(dumpsCost[1] / 4);
+    }
+
+    /**
+     * @return characters written and bytes allocated by the given poll logging over a stabilization loop
+     */
+    private static long[] stabilizationLoop(final com.sun.management.ThreadMXBean allocations, final long[] written, final Runnable poll) {
+        // Warm up, so that class loading and compilation do not count
+        for (int i = 0; i < POLLS; i++) {
+            poll.run();
+        }
+        final long threadId = Thread.currentThread().getId();
+        written[0] = 0L;
+        final long allocatedBefore = allocations.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < POLLS; i++) {
+            poll.run();
+        }
+        return new long[] {written[0], allocations.getThreadAllocatedBytes(threadId) - allocatedBefore};
+    }
+
+    private static Workgroup fullWorkgroup() {
+        return Workgroup.builder()
+                .workgroupName("workgroup")
+                .workgroupArn("arn:aws:redshift-serverless:us-east-1:123456789012:workgroup/4e5b2a44-6b2f-4d7e-8f0c-9a1b2c3d4e5f")
+                .namespaceName("namespace")
+                .status(WorkgroupStatus.MODIFYING)
+                .baseCapacity(128)
+                .configParameters(IntStream.range(0, 8)
+                        .mapToObj(i -> ConfigParameter.builder().parameterKey("parameter_" + i).parameterValue("value_" + i).build())
+                        .collect(Collectors.toList()))
+                .subnetIds("subnet-0123456789abcdef0", "subnet-0123456789abcdef1", "subnet-0123456789abcdef2")
+                .endpoint(Endpoint.builder()
+                        .address("workgroup.123456789012.us-east-1.redshift-serverless.amazonaws.com")
+                        .port(5439)
+                        .vpcEndpoints(VpcEndpoint.builder()
+                                .vpcEndpointId("vpce-01")
+                                .vpcId("vpc-01")
+                                .networkInterfaces(IntStream.range(0, 3)
+                                        .mapToObj(i -> NetworkInterface.builder()
+                                                .networkInterfaceId("eni-0" + i)
+                                                .subnetId("subnet-0123456789abcdef" + i)
+                                                .privateIpAddress("10.0.0." + i)
+                                                .availabilityZone("us-east-1" + (char) ('a' + i))
+                                                .build())
+                                        .collect(Collectors.toList()))
+                                .build())
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package software.amazon.redshiftserverless.common;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.services.redshiftserverless.RedshiftServerlessClient;
+import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupResponse;
+import software.amazon.awssdk.services.redshiftserverless.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.redshiftserverless.model.UpdateWorkgroupRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.UpdateWorkgroupResponse;
+import software.amazon.cloudformation.proxy.CallChain;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import software.amazon.cloudformation.proxy.StdCallbackContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HandlerMetricsTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String RESOURCE_TYPE = "AWS::RedshiftServerless::Workgroup";
+
+    private final List<String> lines = new ArrayList<>();
+    private long now;
+    private HandlerMetrics metrics;
+    private ProxyClient<RedshiftServerlessClient> plainClient;
+    private ProxyClient<RedshiftServerlessClient> proxyClient;
+
+    @BeforeEach
+    public void setup() {
+        now = 1_000L;
+        metrics = new HandlerMetrics(lines::add, RESOURCE_TYPE, () -> now);
+        plainClient = new ProxyClient<RedshiftServerlessClient>() {
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(
+                    final RequestT request, final Function<RequestT, ResponseT> requestFunction) {
+                return requestFunction.apply(request);
+            }
+
+            @Override
+            public RedshiftServerlessClient client() {
+                return null;
+            }
+        };
+        proxyClient = metrics.instrument(plainClient);
+    }
+
+    @Test
+    public void serviceCall_LogsLatencyAndRetriesInEmbeddedMetricFormat() throws Exception {
+        proxyClient.injectCredentialsAndInvokeV2(UpdateWorkgroupRequest.builder().build(), request -> {
+            // Three HTTP attempts, the SDK retried twice
+            for (int attempt = 0; attempt < 3; attempt++) {
+                HandlerMetrics.ATTEMPT_COUNTER.beforeTransmission(null, null);
+            }
+            now += 250L;
+            return UpdateWorkgroupResponse.builder().build();
+        });
+
+        assertThat(lines).hasSize(1);
+        final JsonNode line = MAPPER.readTree(lines.get(0));
+        final JsonNode directive = line.at("/_aws/CloudWatchMetrics/0");
+        assertThat(line.at("/_aws/Timestamp").asLong()).isEqualTo(1_250L);
+        assertThat(directive.get("Namespace").asText()).isEqualTo(HandlerMetrics.METRIC_NAMESPACE);
+        assertThat(directive.at("/Dimensions/0").toString()).isEqualTo("[\"ResourceType\",\"Operation\"]");
+        assertThat(directive.at("/Metrics/0/Name").asText()).isEqualTo("Latency");
+        assertThat(directive.at("/Metrics/0/Unit").asText()).isEqualTo("Milliseconds");
+        assertThat(line.get("ResourceType").asText()).isEqualTo(RESOURCE_TYPE);
+        assertThat(line.get("Operation").asText()).isEqualTo("UpdateWorkgroup");
+        assertThat(line.get("Outcome").asText()).isEqualTo("Success");
+        assertThat(line.has("ExceptionType")).isFalse();
+        assertThat(line.get("Latency").asLong()).isEqualTo(250L);
+        assertThat(line.get("Retries").asInt()).isEqualTo(2);
+        assertThat(line.get("Errors").asInt()).isEqualTo(0);
+    }
+
+    @Test
+    public void serviceCall_LogsExceptionTypeAndRethrows() throws Exception {
+        assertThatThrownBy(() -> proxyClient.injectCredentialsAndInvokeV2(GetWorkgroupRequest.builder().build(),
+                (Function<GetWorkgroupRequest, GetWorkgroupResponse>) request -> {
+                    throw ResourceNotFoundException.builder().message("gone").build();
+                })).isInstanceOf(ResourceNotFoundException.class);
+
+        final JsonNode line = MAPPER.readTree(lines.get(0));
+        assertThat(line.get("Operation").asText()).isEqualTo("GetWorkgroup");
+        assertThat(line.get("Outcome").asText()).isEqualTo("Failure");
+        assertThat(line.get("ExceptionType").asText()).isEqualTo("ResourceNotFoundException");
+        assertThat(line.get("Retries").asInt()).isEqualTo(0);
+        assertThat(line.get("Errors").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    public void stabilization_LogsPollCountAndWaitTimeOnceStabilized() throws Exception {
+        final int[] polls = {0};
+        final CallChain.Callback<Object, Object, RedshiftServerlessClient, Object, StdCallbackContext, Boolean> stabilizer =
+                HandlerMetrics.stabilization("UpdateWorkgroup", (request, response, client, model, context) -> {
+                    now += 5_000L;
+                    return ++polls[0] == 3;
+                });
+
+        assertThat(stabilizer.invoke(null, null, proxyClient, null, null)).isFalse();
+        assertThat(stabilizer.invoke(null, null, proxyClient, null, null)).isFalse();
+        assertThat(lines).isEmpty();
+        assertThat(stabilizer.invoke(null, null, proxyClient, null, null)).isTrue();
+
+        assertThat(lines).hasSize(1);
+        final JsonNode line = MAPPER.readTree(lines.get(0));
+        assertThat(line.at("/_aws/CloudWatchMetrics/0/Dimensions/0").toString()).isEqualTo("[\"ResourceType\",\"Stage\"]");
+        assertThat(line.get("Stage").asText()).isEqualTo("UpdateWorkgroup");
+        assertThat(line.get("Outcome").asText()).isEqualTo("Stabilized");
+        assertThat(line.get("Polls").asInt()).isEqualTo(3);
+        assertThat(line.get("WaitTime").asLong()).isEqualTo(15_000L);
+    }
+
+    @Test
+    public void flush_LogsStagesThatAreStillPending() throws Exception {
+        HandlerMetrics.<Object, Object, RedshiftServerlessClient, Object, StdCallbackContext>stabilization("CreateWorkgroup",
+                (request, response, client, model, context) -> false).invoke(null, null, proxyClient, null, null);
+        now += 2_000L;
+
+        metrics.flush();
+        metrics.flush();
+
+        assertThat(lines).hasSize(1);
+        final JsonNode line = MAPPER.readTree(lines.get(0));
+        assertThat(line.get("Outcome").asText()).isEqualTo("Pending");
+        assertThat(line.get("Polls").asInt()).isEqualTo(1);
+        assertThat(line.get("WaitTime").asLong()).isEqualTo(2_000L);
+    }
+
+    @Test
+    public void stabilization_PassesThroughClientsThatAreNotInstrumented() {
+        final ProxyClient<RedshiftServerlessClient> plain = HandlerMetrics.instrumentLike(null, proxyClient);
+
+        assertThat(HandlerMetrics.<Object, Object, RedshiftServerlessClient, Object, StdCallbackContext>stabilization("DeleteWorkgroup",
+                (request, response, client, model, context) -> true).invoke(null, null, plainClient, null, null)).isTrue();
+        assertThat(plain).isSameAs(proxyClient);
+        assertThat(lines).isEmpty();
+    }
+}
@@ -0,0 +1,101 @@
+package software.amazon.redshiftserverless.common;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.proxy.Delay;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JitteredExponentialDelayTest {
+
+    private static final Duration INITIAL_DELAY = Duration.ofSeconds(2L);
+    private static final Duration MAX_DELAY = Duration.ofSeconds(30L);
+    private static final Duration TIMEOUT = Duration.ofMinutes(30L);
+
+    @Test
+    public void nextDelay_GrowsExponentiallyUpToMaxDelay() {
+        final Delay delay = JitteredExponentialDelay.of()
+                .initialDelay(INITIAL_DELAY)
+                .maxDelay(MAX_DELAY)
+                .multiplier(2.0)
+                .jitter(0.0)
+                .timeout(TIMEOUT)
+                .build();
+
+        assertThat(delay.nextDelay(1)).isEqualTo(Duration.ofSeconds(2L));
+        assertThat(delay.nextDelay(2)).isEqualTo(Duration.ofSeconds(4L));
+        assertThat(delay.nextDelay(3)).isEqualTo(Duration.ofSeconds(8L));
+        assertThat(delay.nextDelay(4)).isEqualTo(Duration.ofSeconds(16L));
+        assertThat(delay.nextDelay(5)).isEqualTo(MAX_DELAY);
+        assertThat(delay.nextDelay(50)).isEqualTo(MAX_DELAY);
+    }
+
+    @Test
+    public void nextDelay_StaysWithinJitterBounds() {
+        final Delay lowest = JitteredExponentialDelay.of()
+                .initialDelay(INITIAL_DELAY).maxDelay(MAX_DELAY).jitter(0.2).timeout(TIMEOUT).random(() -> 0.0).build();
+        final Delay highest = JitteredExponentialDelay.of()
+                .initialDelay(INITIAL_DELAY).maxDelay(MAX_DELAY).jitter(0.2).timeout(TIMEOUT).random(() -> 0.999999).build();
+        final Delay random = JitteredExponentialDelay.of()
+                .initialDelay(INITIAL_DELAY).maxDelay(MAX_DELAY).jitter(0.2).timeout(TIMEOUT).build();
+
+        assertThat(lowest.nextDelay(20)).isEqualTo(Duration.ofSeconds(24L));
+        assertThat(highest.nextDelay(20)).isEqualTo(Duration.ofSeconds(36L));
+        for (int attempt = 1; attempt <= 30; attempt++) {
+            assertThat(random.nextDelay(attempt)).isBetween(lowest.nextDelay(attempt), highest.nextDelay(attempt));
+        }
+    }
+
+    @Test
+    public void nextDelay_StopsAfterTimeout() {
+        final Delay delay = JitteredExponentialDelay.of()
+                .initialDelay(INITIAL_DELAY).maxDelay(MAX_DELAY).jitter(0.0).timeout(TIMEOUT).build();
+
+        final SimulatedService neverStable = new SimulatedService(Duration.ofDays(1L));
+        assertThat(neverStable.pollUntilStable(delay)).isFalse();
+        // Polling ends on the last delay that still fits in the timeout
+        assertThat(neverStable.elapsed).isGreaterThan(TIMEOUT.minus(MAX_DELAY));
+        assertThat(neverStable.elapsed).isLessThanOrEqualTo(TIMEOUT);
+    }
+
+    @Test
+    public void of_RejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> JitteredExponentialDelay.of().maxDelay(MAX_DELAY).timeout(TIMEOUT).build());
+        assertThrows(IllegalArgumentException.class, () -> JitteredExponentialDelay.of()
+                .initialDelay(MAX_DELAY).maxDelay(INITIAL_DELAY).timeout(TIMEOUT).build());
+        assertThrows(IllegalArgumentException.class, () -> JitteredExponentialDelay.of()
+                .initialDelay(INITIAL_DELAY).maxDelay(MAX_DELAY).build());
+        assertThrows(IllegalArgumentException.class, () -> JitteredExponentialDelay.of()
+                .initialDelay(INITIAL_DELAY).maxDelay(MAX_DELAY).timeout(TIMEOUT).jitter(1.0).build());
+    }
+
+    /**
+     * Service that reaches its target state a fixed time after the operation started, polled the way the call chain
+     * does: once right away, then again after every delay until it is stable or the delay gives up.
+     */
+    private static class SimulatedService {
+        private final Duration stableAfter;
+        private Duration elapsed = Duration.ZERO;
+        private int polls = 0;
+
+        private SimulatedService(final Duration stableAfter) {
+            this.stableAfter = stableAfter;
+        }
+
+        private boolean pollUntilStable(final Delay delay) {
+            for (int attempt = 1; ; attempt++) {
+                polls++;
+                if (elapsed.compareTo(stableAfter) >= 0) {
+                    return true;
+                }
+                final Duration nextDelay = delay.nextDelay(attempt);
+                if (nextDelay.isZero()) {
+                    return false;
+                }
+                elapsed = elapsed.plus(nextDelay);
+            }
+        }
+    }
+}
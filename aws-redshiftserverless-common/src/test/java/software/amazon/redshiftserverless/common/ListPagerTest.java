@@ -0,0 +1,18 @@
+package software.amazon.redshiftserverless.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ListPagerTest {
+
+    @Test
+    public void pageSize_WithinWhatTheServiceAccepts() {
+        assertThat(ListPager.pageSize(null, 100)).isEqualTo(100);
+        assertThat(ListPager.pageSize(" 20 ", 100)).isEqualTo(20);
+        assertThat(ListPager.pageSize("500", 100)).isEqualTo(ListPager.MAX_PAGE_SIZE);
+        assertThat(ListPager.pageSize("0", 100)).isEqualTo(1);
+        assertThat(ListPager.pageSize("all", 100)).isEqualTo(100);
+        assertThat(ListPager.fromEnvironment().getPageSize()).isBetween(1, ListPager.MAX_PAGE_SIZE);
+    }
+}
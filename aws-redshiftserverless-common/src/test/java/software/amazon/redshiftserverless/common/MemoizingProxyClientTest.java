@@ -0,0 +1,98 @@
+package software.amazon.redshiftserverless.common;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.services.redshiftserverless.RedshiftServerlessClient;
+import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupResponse;
+import software.amazon.awssdk.services.redshiftserverless.model.Workgroup;
+import software.amazon.awssdk.services.redshiftserverless.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.redshiftserverless.model.UpdateWorkgroupRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.UpdateWorkgroupResponse;
+import software.amazon.cloudformation.proxy.CallChain;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import software.amazon.cloudformation.proxy.StdCallbackContext;
+
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MemoizingProxyClientTest {
+    private static final GetWorkgroupRequest GET_WORKGROUP = GetWorkgroupRequest.builder().workgroupName("wg").build();
+
+    private int calls;
+    private ProxyClient<RedshiftServerlessClient> proxyClient;
+
+    @BeforeEach
+    public void setup() {
+        calls = 0;
+        proxyClient = MemoizingProxyClient.memoize(new ProxyClient<RedshiftServerlessClient>() {
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(
+                    final RequestT request, final Function<RequestT, ResponseT> requestFunction) {
+                calls++;
+                return requestFunction.apply(request);
+            }
+
+            @Override
+            public RedshiftServerlessClient client() {
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void readOnlyCalls_AreServedFromMemoryForEqualRequests() {
+        final GetWorkgroupResponse first = getWorkgroup("available");
+        final GetWorkgroupResponse second = proxyClient.injectCredentialsAndInvokeV2(
+                GetWorkgroupRequest.builder().workgroupName("wg").build(), request -> workgroup("modifying"));
+        proxyClient.injectCredentialsAndInvokeV2(GetWorkgroupRequest.builder().workgroupName("other").build(), request -> workgroup("available"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(calls).isEqualTo(2);
+    }
+
+    @Test
+    public void mutatingCalls_DropKeptResponses() {
+        getWorkgroup("available");
+        proxyClient.injectCredentialsAndInvokeV2(UpdateWorkgroupRequest.builder().workgroupName("wg").build(),
+                request -> UpdateWorkgroupResponse.builder().build());
+
+        assertThat(getWorkgroup("modifying").workgroup().statusAsString()).isEqualTo("modifying");
+        assertThat(calls).isEqualTo(3);
+    }
+
+    @Test
+    public void failedCalls_AreNotKept() {
+        assertThatThrownBy(() -> proxyClient.injectCredentialsAndInvokeV2(GET_WORKGROUP,
+                (Function<GetWorkgroupRequest, GetWorkgroupResponse>) request -> {
+                    throw ResourceNotFoundException.builder().message("not yet").build();
+                })).isInstanceOf(ResourceNotFoundException.class);
+
+        assertThat(getWorkgroup("available").workgroup().statusAsString()).isEqualTo("available");
+        assertThat(calls).isEqualTo(2);
+    }
+
+    @Test
+    public void polling_AlwaysReachesServiceAndRefreshesKeptResponse() {
+        getWorkgroup("modifying");
+        final CallChain.Callback<Object, Object, RedshiftServerlessClient, Object, StdCallbackContext, Boolean> stabilizer =
+                MemoizingProxyClient.polling((request, response, client, model, context) ->
+                        "available".equals(client.injectCredentialsAndInvokeV2(GET_WORKGROUP, r -> workgroup("available")).workgroup().statusAsString()));
+
+        assertThat(stabilizer.invoke(null, null, proxyClient, null, null)).isTrue();
+        assertThat(getWorkgroup("deleting").workgroup().statusAsString()).isEqualTo("available");
+        assertThat(calls).isEqualTo(2);
+    }
+
+    private GetWorkgroupResponse getWorkgroup(final String status) {
+        return proxyClient.injectCredentialsAndInvokeV2(GET_WORKGROUP, request -> workgroup(status));
+    }
+
+    private static GetWorkgroupResponse workgroup(final String status) {
+        return GetWorkgroupResponse.builder().workgroup(Workgroup.builder().workgroupName("wg").status(status).build()).build();
+    }
+}
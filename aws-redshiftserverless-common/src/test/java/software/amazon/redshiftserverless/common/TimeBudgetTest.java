@@ -0,0 +1,55 @@
+package software.amazon.redshiftserverless.common;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TimeBudgetTest {
+    private long now;
+    private TimeBudget budget;
+
+    @BeforeEach
+    public void setup() {
+        now = 1_000L;
+        budget = new TimeBudget(Duration.ofSeconds(60L), Duration.ofSeconds(15L), () -> now);
+    }
+
+    @Test
+    public void remaining_CountsDownFromTheStartOfTheInvocation() {
+        assertThat(budget.remaining()).isEqualTo(Duration.ofSeconds(60L));
+
+        now += Duration.ofSeconds(70L).toNanos();
+        assertThat(budget.remaining()).isEqualTo(Duration.ofSeconds(-10L));
+    }
+
+    @Test
+    public void allows_OnlyWorkThatEndsBeforeTheSafetyMargin() {
+        now += Duration.ofSeconds(40L).toNanos();
+
+        assertThat(budget.allows(Duration.ofSeconds(5L))).isTrue();
+        assertThat(budget.allows(Duration.ofSeconds(6L))).isFalse();
+    }
+
+    @Test
+    public void check_ThrowsOnceTheSafetyMarginIsReached() {
+        now += Duration.ofSeconds(45L).toNanos();
+        budget.check("UpdateWorkgroup");
+
+        now += 1L;
+        assertThatThrownBy(() -> budget.check("UpdateWorkgroup"))
+                .isInstanceOf(RetryAfterException.class)
+                .hasMessageContaining("UpdateWorkgroup put off to the next invocation")
+                .satisfies(e -> assertThat(((TimeBudget.Exhausted) e).getRetryAfterSeconds()).isEqualTo(1));
+    }
+
+    @Test
+    public void unlimited_NeverRunsOut() {
+        TimeBudget.UNLIMITED.check("GetWorkgroup");
+
+        assertThat(TimeBudget.UNLIMITED.allows(Duration.ofDays(365L))).isTrue();
+    }
+}
@@ -7,30 +7,88 @@ import software.amazon.awssdk.services.redshiftserverless.model.CreateSnapshotCo
 import software.amazon.awssdk.services.redshiftserverless.model.CreateSnapshotCopyConfigurationResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceResponse;
+import software.amazon.awssdk.services.redshiftserverless.model.InsufficientCapacityException;
 import software.amazon.awssdk.services.redshiftserverless.model.InternalServerException;
+import software.amazon.awssdk.services.redshiftserverless.model.InvalidPaginationException;
 import software.amazon.awssdk.services.redshiftserverless.model.ListSnapshotCopyConfigurationsRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.ListSnapshotCopyConfigurationsResponse;
-import software.amazon.awssdk.services.redshiftserverless.model.ServiceQuotaExceededException;
 import software.amazon.awssdk.services.redshiftserverless.model.Namespace;
 import software.amazon.awssdk.services.redshiftserverless.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.redshiftserverless.model.ServiceQuotaExceededException;
+import software.amazon.awssdk.services.redshiftserverless.model.ThrottlingException;
 import software.amazon.awssdk.services.redshiftserverless.model.TooManyTagsException;
 import software.amazon.awssdk.services.redshiftserverless.model.ValidationException;
 import software.amazon.awssdk.services.redshift.RedshiftClient;
+import software.amazon.cloudformation.exceptions.CfnNotStabilizedException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.CallChain;
+import software.amazon.cloudformation.proxy.Delay;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
-import software.amazon.cloudformation.proxy.delay.Constant;
+import software.amazon.redshiftserverless.common.ApiRateLimiter;
+import software.amazon.redshiftserverless.common.DecorrelatedJitterRetry;
+import software.amazon.redshiftserverless.common.ExceptionClassifier;
+import software.amazon.redshiftserverless.common.HandlerLog;
+import software.amazon.redshiftserverless.common.HandlerMetrics;
+import software.amazon.redshiftserverless.common.Invocation;
+import software.amazon.redshiftserverless.common.JitteredExponentialDelay;
+import software.amazon.redshiftserverless.common.MemoizingProxyClient;
+import software.amazon.redshiftserverless.common.RetryAfterException;
+import software.amazon.redshiftserverless.common.TimeBudget;
 
 import java.time.Duration;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 
+/**
+ * Handlers keep no state of their own: one instance serves every invocation of its action, also concurrently. What
+ * belongs to an invocation travels alongside it: the state of the operation in the callback context, the log and the
+ * time budget in the {@link Invocation}.
+ */
 public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
-  protected Logger logger;
   protected final String NAMESPACE_STATUS_AVAILABLE = "available";
-  protected static final Constant BACKOFF_STRATEGY = Constant.of().
-          timeout(Duration.ofMinutes(30L)).delay(Duration.ofSeconds(10L)).build();
+  // Stabilization polls start fast and back off, so that long operations do not eat into the account's API quota
+  protected static final Delay CREATE_BACKOFF_STRATEGY = JitteredExponentialDelay.of()
+          .initialDelay(Duration.ofSeconds(5L)).maxDelay(Duration.ofSeconds(30L)).timeout(Duration.ofMinutes(30L)).build();
+  protected static final Delay UPDATE_BACKOFF_STRATEGY = JitteredExponentialDelay.of()
+          .initialDelay(Duration.ofSeconds(2L)).maxDelay(Duration.ofSeconds(30L)).timeout(Duration.ofMinutes(30L)).build();
+  protected static final Delay DELETE_BACKOFF_STRATEGY = JitteredExponentialDelay.of()
+          .initialDelay(Duration.ofSeconds(5L)).maxDelay(Duration.ofSeconds(30L)).timeout(Duration.ofMinutes(30L)).build();
+  // CloudFormation does not pass the Lambda context on, so handlers call back once less than the margin of this budget is left
+  protected static final Duration INVOCATION_TIME_BUDGET = Duration.ofSeconds(60L);
+  protected static final Duration INVOCATION_SAFETY_MARGIN = Duration.ofSeconds(15L);
+  // Error codes of the service exceptions, and which of them are retried
+  protected static final ExceptionClassifier.Rule SERVER_ERROR =
+          new ExceptionClassifier.Rule(HandlerErrorCode.ServiceInternalError, ExceptionClassifier.Retryability.TRANSIENT, Duration.ofSeconds(1L));
+  protected static final ExceptionClassifier EXCEPTION_CLASSIFIER = ExceptionClassifier.builder(SERVER_ERROR)
+          .rule(ValidationException.class, ExceptionClassifier.fails(HandlerErrorCode.InvalidRequest))
+          .rule(InvalidPaginationException.class, ExceptionClassifier.fails(HandlerErrorCode.InvalidRequest))
+          .rule(AccessDeniedException.class, ExceptionClassifier.fails(HandlerErrorCode.AccessDenied))
+          .rule(ResourceNotFoundException.class, ExceptionClassifier.fails(HandlerErrorCode.NotFound))
+          .rule(TooManyTagsException.class, ExceptionClassifier.fails(HandlerErrorCode.ServiceLimitExceeded))
+          .rule(ServiceQuotaExceededException.class, ExceptionClassifier.fails(HandlerErrorCode.ServiceLimitExceeded))
+          .rule(InsufficientCapacityException.class, ExceptionClassifier.fails(HandlerErrorCode.ServiceLimitExceeded))
+          .rule(ConflictException.class, ExceptionClassifier.fails(HandlerErrorCode.ResourceConflict))
+          .when(ConflictException.class, Pattern.compile("already exists"), ExceptionClassifier.fails(HandlerErrorCode.AlreadyExists))
+          .rule(ThrottlingException.class, ExceptionClassifier.THROTTLED)
+          .rule(InternalServerException.class, SERVER_ERROR)
+          // Resource policy calls go to Redshift, whose other exceptions are classified by their HTTP status
+          .rule(software.amazon.awssdk.services.redshift.model.ResourceNotFoundException.class, ExceptionClassifier.fails(HandlerErrorCode.NotFound))
+          .rule(software.amazon.awssdk.services.redshift.model.InvalidPolicyException.class, ExceptionClassifier.fails(HandlerErrorCode.InvalidRequest))
+          .rule(software.amazon.awssdk.services.redshift.model.UnsupportedOperationException.class, ExceptionClassifier.fails(HandlerErrorCode.InvalidRequest))
+          .build();
+  // Throttled and failed (5xx) service calls are retried; delays of up to 3 seconds are waited out in the Lambda
+  protected static final DecorrelatedJitterRetry SERVICE_CALL_RETRY_POLICY = DecorrelatedJitterRetry.of()
+          .baseDelay(Duration.ofSeconds(1L)).maxDelay(Duration.ofSeconds(60L)).maxAttempts(8).maxInProcessDelay(Duration.ofSeconds(3L))
+          .classifier(EXCEPTION_CLASSIFIER).build();
+  // Creates are only retried when throttled, a create that failed on the service side may have been applied already
+  protected static final DecorrelatedJitterRetry CREATE_CALL_RETRY_POLICY = DecorrelatedJitterRetry.of()
+          .baseDelay(Duration.ofSeconds(1L)).maxDelay(Duration.ofSeconds(60L)).maxAttempts(8).maxInProcessDelay(Duration.ofSeconds(3L))
+          .classifier(EXCEPTION_CLASSIFIER.throttlingOnly()).build();
 
   @Override
   public final ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -38,14 +96,107 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
     final ResourceHandlerRequest<ResourceModel> request,
     final CallbackContext callbackContext,
     final Logger logger) {
-    return handleRequest(
-      proxy,
-      request,
-      callbackContext != null ? callbackContext : new CallbackContext(),
-      proxy.newProxy(ClientBuilder::getClient),
-      proxy.newProxy(ClientBuilder::redshiftClient),
-      logger
-    );
+    final CallbackContext context = callbackContext != null ? callbackContext : new CallbackContext();
+    final HandlerMetrics metrics = new HandlerMetrics(logger, ResourceModel.TYPE_NAME);
+    final Invocation invocation = new Invocation(HandlerLog.of(logger),
+      canCallBack() ? TimeBudget.startingNow(INVOCATION_TIME_BUDGET, INVOCATION_SAFETY_MARGIN) : TimeBudget.UNLIMITED);
+    try {
+      return handleRequest(
+        proxy,
+        request,
+        context,
+        decorate(request, metrics, proxy.newProxy(ClientBuilder::getClient)),
+        decorate(request, metrics, proxy.newProxy(ClientBuilder::redshiftClient)),
+        invocation
+      );
+    } catch (final RetryAfterException e) {
+      invocation.getLog().info("CallingBack", "reason", e.getMessage(), "delaySeconds", e.getRetryAfterSeconds());
+      return ProgressEvent.defaultInProgressHandler(context, e.getRetryAfterSeconds(), request.getDesiredResourceState());
+    } finally {
+      metrics.flush();
+    }
+  }
+
+  /**
+   * Whether the handler may return IN_PROGRESS and call back. Calls of handlers that may not are not rate limited.
+   */
+  protected boolean canCallBack() {
+    return true;
+  }
+
+  /**
+   * Service call that is retried under {@link #SERVICE_CALL_RETRY_POLICY} while it is throttled or fails on the service side,
+   * and put off to the next invocation if the time budget of this one is used up.
+   */
+  protected <RequestT, ResponseT, ClientT> BiFunction<RequestT, ProxyClient<ClientT>, ResponseT> retrying(
+    final Invocation invocation,
+    final CallbackContext context,
+    final BiFunction<RequestT, ProxyClient<ClientT>, ResponseT> serviceCall) {
+    return retrying(SERVICE_CALL_RETRY_POLICY, invocation, context, serviceCall);
+  }
+
+  /**
+   * Same as {@link #retrying(Invocation, CallbackContext, BiFunction)}, for service calls that write to the log of the invocation.
+   */
+  protected <RequestT, ResponseT, ClientT> BiFunction<RequestT, ProxyClient<ClientT>, ResponseT> retrying(
+    final Invocation invocation,
+    final CallbackContext context,
+    final LoggingServiceCall<RequestT, ResponseT, ClientT> serviceCall) {
+    return retrying(invocation, context, (awsRequest, client) -> serviceCall.invoke(awsRequest, client, invocation.getLog()));
+  }
+
+  /**
+   * Create call that is retried under {@link #CREATE_CALL_RETRY_POLICY}, that is only while it is throttled, and put off to
+   * the next invocation if the time budget of this one is used up.
+   */
+  protected <RequestT, ResponseT, ClientT> BiFunction<RequestT, ProxyClient<ClientT>, ResponseT> retryingCreate(
+    final Invocation invocation,
+    final CallbackContext context,
+    final LoggingServiceCall<RequestT, ResponseT, ClientT> serviceCall) {
+    return retrying(CREATE_CALL_RETRY_POLICY, invocation, context,
+      (RequestT awsRequest, ProxyClient<ClientT> client) -> serviceCall.invoke(awsRequest, client, invocation.getLog()));
+  }
+
+  private <RequestT, ResponseT, ClientT> BiFunction<RequestT, ProxyClient<ClientT>, ResponseT> retrying(
+    final DecorrelatedJitterRetry policy,
+    final Invocation invocation,
+    final CallbackContext context,
+    final BiFunction<RequestT, ProxyClient<ClientT>, ResponseT> serviceCall) {
+    return (awsRequest, client) -> {
+      invocation.getTimeBudget().check(awsRequest.getClass().getSimpleName());
+      return policy.call(context, canCallBack(), invocation.getTimeBudget(), invocation.getLog(),
+        () -> serviceCall.apply(awsRequest, client));
+    };
+  }
+
+  /**
+   * Service call of a handler that logs what it does.
+   */
+  @FunctionalInterface
+  protected interface LoggingServiceCall<RequestT, ResponseT, ClientT> {
+    ResponseT invoke(RequestT awsRequest, ProxyClient<ClientT> client, HandlerLog log);
+  }
+
+  private <ClientT> ProxyClient<ClientT> decorate(final ResourceHandlerRequest<ResourceModel> request,
+                                                  final HandlerMetrics metrics,
+                                                  final ProxyClient<ClientT> proxyClient) {
+    final ProxyClient<ClientT> instrumented = metrics.instrument(proxyClient);
+    return MemoizingProxyClient.memoize(canCallBack()
+            ? ApiRateLimiter.SHARED.limit(request.getAwsAccountId(), request.getRegion(), instrumented)
+            : instrumented);
+  }
+
+  /**
+   * Same as the handler, for an invocation without a deadline, such as in unit tests.
+   */
+  protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
+    final AmazonWebServicesClientProxy proxy,
+    final ResourceHandlerRequest<ResourceModel> request,
+    final CallbackContext callbackContext,
+    final ProxyClient<RedshiftServerlessClient> proxyClient,
+    final ProxyClient<RedshiftClient> redshiftProxyClient,
+    final Logger logger) {
+    return handleRequest(proxy, request, callbackContext, proxyClient, redshiftProxyClient, Invocation.of(logger));
   }
 
   protected abstract ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -54,7 +205,98 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
     final CallbackContext callbackContext,
     final ProxyClient<RedshiftServerlessClient> proxyClient,
     final ProxyClient<RedshiftClient> redshiftProxyClient,
-    final Logger logger);
+    final Invocation invocation);
+
+  /**
+   * Runs a step of the handler unless the step ledger of the callback context records it as completed, in which case
+   * the handler resumes with the next step without repeating its calls. A step is recorded once it lets the chain go on;
+   * a step that fails or calls back runs again in the next invocation. Steps may record their output themselves.
+   *
+   * @param invocation the current invocation
+   * @param step name of the step in the ledger, unique within the handler
+   * @param progress progress of the previous step
+   * @param action the step
+   */
+  protected ProgressEvent<ResourceModel, CallbackContext> checkpointed(
+    final Invocation invocation,
+    final String step,
+    final ProgressEvent<ResourceModel, CallbackContext> progress,
+    final Function<ProgressEvent<ResourceModel, CallbackContext>, ProgressEvent<ResourceModel, CallbackContext>> action) {
+    final CallbackContext context = progress.getCallbackContext();
+    if (context.isStepCompleted(step)) {
+      invocation.getLog().info("StepSkipped", "step", step, "reason", "completed");
+      return progress;
+    }
+    final ProgressEvent<ResourceModel, CallbackContext> result = action.apply(progress);
+    if (result.canContinueProgress() && !context.isStepCompleted(step)) {
+      context.completeStep(step, null);
+    }
+    return result;
+  }
+
+  /**
+   * Stabilizer whose polls are measured under the given stage and always read fresh state, even through a memoizing client.
+   * A poll that is throttled or fails on the service side counts as not stable yet, so the next poll tries again. No poll
+   * starts once the time budget of the invocation is used up.
+   *
+   * The wait between polls is left to the proxy, which polls in the Lambda when it was built for that. Meant for short
+   * waits; long ones should use {@link #callbackStabilizer}.
+   */
+  protected <RequestT, ResponseT, ClientT> CallChain.Callback<RequestT, ResponseT, ClientT, ResourceModel, CallbackContext, Boolean> stabilizer(
+    final Invocation invocation,
+    final String stage,
+    final CallChain.Callback<RequestT, ResponseT, ClientT, ResourceModel, CallbackContext, Boolean> stabilizer) {
+    return MemoizingProxyClient.polling(HandlerMetrics.stabilization(stage, (awsRequest, awsResponse, client, model, context) -> {
+      invocation.getTimeBudget().check(stage);
+      try {
+        return stabilizer.invoke(awsRequest, awsResponse, client, model, context);
+      } catch (final RuntimeException e) {
+        if (!EXCEPTION_CLASSIFIER.classify(e).isTransient()) {
+          throw e;
+        }
+        invocation.getLog().warn("StabilizationPollFailed", "stage", stage, "error", e.getMessage());
+        return false;
+      }
+    }));
+  }
+
+  /**
+   * Stabilizer that polls once per invocation: while the resource is not stable the handler calls back after the next
+   * delay of the given schedule, instead of waiting in the Lambda. The proxy replays the step up to its stabilization
+   * from the callback context, so the next invocation goes straight to the next poll. The number of polls is kept in the
+   * callback context, and the step fails as not stabilized once the schedule runs out.
+   *
+   * @param invocation the current invocation
+   * @param stage stabilization stage, also the name the polls of the step are counted under
+   * @param delays delays between polls
+   * @param stabilizer poll of the resource
+   */
+  protected <RequestT, ResponseT, ClientT> CallChain.Callback<RequestT, ResponseT, ClientT, ResourceModel, CallbackContext, Boolean> callbackStabilizer(
+    final Invocation invocation,
+    final String stage,
+    final Delay delays,
+    final CallChain.Callback<RequestT, ResponseT, ClientT, ResourceModel, CallbackContext, Boolean> stabilizer) {
+    final CallChain.Callback<RequestT, ResponseT, ClientT, ResourceModel, CallbackContext, Boolean> poll = stabilizer(invocation, stage, stabilizer);
+    return (awsRequest, awsResponse, client, model, context) -> {
+      if (!stage.equals(context.getStabilizingStage())) {
+        context.setStabilizingStage(stage);
+        context.setStabilizationPolls(0);
+      }
+      if (poll.invoke(awsRequest, awsResponse, client, model, context)) {
+        context.setStabilizingStage(null);
+        context.setStabilizationPolls(0);
+        return true;
+      }
+      final int polls = context.getStabilizationPolls() + 1;
+      final Duration delay = delays.nextDelay(polls);
+      if (delay.isZero()) {
+        throw new CfnNotStabilizedException(ResourceModel.TYPE_NAME, model.getNamespaceName());
+      }
+      context.setStabilizationPolls(polls);
+      throw new RetryAfterException(String.format("%s %s is not stable yet after %d polls.", stage, model.getNamespaceName(), polls),
+              null, HandlerErrorCode.NotStabilized, delay);
+    };
+  }
 
   protected boolean isNamespaceActive (final ProxyClient<RedshiftServerlessClient> proxyClient, ResourceModel resourceModel, CallbackContext context) {
     GetNamespaceRequest getNamespaceRequest = GetNamespaceRequest.builder().namespaceName(resourceModel.getNamespaceName()).build();
@@ -78,46 +320,31 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
   }
 
   protected ListSnapshotCopyConfigurationsResponse listSnapshotCopyConfigurations(final ListSnapshotCopyConfigurationsRequest listRequest,
-                                                                                  final ProxyClient<RedshiftServerlessClient> proxyClient) {
+                                                                                  final ProxyClient<RedshiftServerlessClient> proxyClient,
+                                                                                  final HandlerLog log) {
     ListSnapshotCopyConfigurationsResponse listResponse = proxyClient.injectCredentialsAndInvokeV2(listRequest, proxyClient.client()::listSnapshotCopyConfigurations);
-    logger.log(String.format("%s %s snapshot configurations has successfully been read.", ResourceModel.TYPE_NAME, listRequest.namespaceName()));
+    log.info("SnapshotCopyConfigurationsRead", "namespace", listRequest.namespaceName(), "configurations", listResponse.snapshotCopyConfigurations().size());
     return listResponse;
   }
 
   protected CreateSnapshotCopyConfigurationResponse createSnapshotCopyConfiguration(final CreateSnapshotCopyConfigurationRequest createRequest,
-                                                                                    final ProxyClient<RedshiftServerlessClient> proxyClient) {
+                                                                                    final ProxyClient<RedshiftServerlessClient> proxyClient,
+                                                                                    final HandlerLog log) {
     CreateSnapshotCopyConfigurationResponse createResponse = proxyClient.injectCredentialsAndInvokeV2(createRequest, proxyClient.client()::createSnapshotCopyConfiguration);
-    logger.log(String.format("Created snapshot copy configuration for %s %s in destination region %s.", ResourceModel.TYPE_NAME,
-            createResponse.snapshotCopyConfiguration().namespaceName(), createResponse.snapshotCopyConfiguration().destinationRegion()));
+    log.info("SnapshotCopyConfigurationCreated", "namespace", createResponse.snapshotCopyConfiguration().namespaceName(),
+            "destinationRegion", createResponse.snapshotCopyConfiguration().destinationRegion());
     return createResponse;
   }
 
-  protected <T> ProgressEvent<ResourceModel, CallbackContext> defaultErrorHandler(final T request,
-                                                                                  final Exception exception,
-                                                                                  final ProxyClient<RedshiftServerlessClient> client,
-                                                                                  final ResourceModel model,
-                                                                                  final CallbackContext context) {
+  protected <T, ClientT> ProgressEvent<ResourceModel, CallbackContext> defaultErrorHandler(final T request,
+                                                                                           final Exception exception,
+                                                                                           final ProxyClient<ClientT> client,
+                                                                                           final ResourceModel model,
+                                                                                           final CallbackContext context) {
     return errorHandler(exception);
   }
 
   protected ProgressEvent<ResourceModel, CallbackContext> errorHandler(final Exception exception) {
-    if (exception instanceof ValidationException) {
-      return ProgressEvent.defaultFailureHandler(exception, HandlerErrorCode.InvalidRequest);
-    } else if (exception instanceof AccessDeniedException) {
-      return ProgressEvent.defaultFailureHandler(exception, HandlerErrorCode.AccessDenied);
-    } else if (exception instanceof InternalServerException) {
-      return ProgressEvent.defaultFailureHandler(exception, HandlerErrorCode.ServiceInternalError);
-    } else if (exception instanceof ResourceNotFoundException) {
-      return ProgressEvent.defaultFailureHandler(exception, HandlerErrorCode.NotFound);
-    } else if (exception instanceof TooManyTagsException || exception instanceof ServiceQuotaExceededException) {
-      return ProgressEvent.defaultFailureHandler(exception, HandlerErrorCode.ServiceLimitExceeded);
-    } else if (exception instanceof ConflictException) {
-      if (exception.getMessage().contains("already exists")) {
-        return ProgressEvent.defaultFailureHandler(exception, HandlerErrorCode.AlreadyExists);
-      }
-      return ProgressEvent.defaultFailureHandler(exception, HandlerErrorCode.ResourceConflict);
-    } else {
-      return ProgressEvent.defaultFailureHandler(exception, HandlerErrorCode.GeneralServiceException);
-    }
+    return ProgressEvent.defaultFailureHandler(exception, EXCEPTION_CLASSIFIER.classify(exception).getErrorCode());
   }
 }
@@ -1,14 +1,36 @@
 package software.amazon.redshiftserverless.namespace;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import software.amazon.cloudformation.proxy.StdCallbackContext;
+import software.amazon.redshiftserverless.common.CallGraphCompactor;
+import software.amazon.redshiftserverless.common.DecorrelatedJitterRetry;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @lombok.Getter
 @lombok.Setter
 @lombok.ToString
 @lombok.EqualsAndHashCode(callSuper = true)
-public class CallbackContext extends StdCallbackContext {
+// Fields at their defaults are left out of the callback payload
+@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+public class CallbackContext extends StdCallbackContext implements DecorrelatedJitterRetry.State {
     String namespaceArn = null;
     boolean callBackForDelete = false;
+    // Managed admin password secret of a deleted namespace, polled until Secrets Manager has removed it
+    String adminPasswordSecretArn = null;
+    int secretDeletionChecks = 0;
+    // Retries of the current service call after throttling or service errors, and the delay before the last one
+    int serviceCallRetries = 0;
+    long serviceCallRetryDelayMillis = 0L;
+    // Stabilization that calls back between polls, and the polls it made so far
+    String stabilizingStage = null;
+    int stabilizationPolls = 0;
+    // Step ledger of Create and Update: completed steps in order, with their output such as a snapshot copy configuration id
+    Map<String, String> completedSteps = new LinkedHashMap<>();
 
     public void setNamespaceArn(String namespaceArn) {this.namespaceArn = namespaceArn; }
 
@@ -21,4 +43,27 @@ public class CallbackContext extends StdCallbackContext {
     public boolean getCallBackForDelete() {
         return callBackForDelete;
     }
+
+    public boolean isStepCompleted(String step) {
+        return completedSteps.containsKey(step);
+    }
+
+    // Steps without output are recorded with an empty one, as the callback payload drops null values
+    public void completeStep(String step, String output) {
+        completedSteps.put(step, output == null ? "" : output);
+    }
+
+    // Steps nested in a completed one are dropped, so that the ledger does not grow with every step the handler ran
+    public void forgetSteps(Collection<String> steps) {
+        completedSteps.keySet().removeAll(steps);
+    }
+
+    /**
+     * Call graph written to the callback payload instead of the full one, see {@link CallGraphCompactor}.
+     */
+    @JsonProperty("callGraphs")
+    @JsonSerialize(using = StdCallbackContext.Serializer.class)
+    Map<String, Object> compactCallGraphs() {
+        return CallGraphCompactor.compact(callGraphs());
+    }
 }
@@ -1,21 +1,42 @@
 package software.amazon.redshiftserverless.namespace;
 
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.services.redshift.RedshiftClient;
 import software.amazon.awssdk.services.redshiftserverless.RedshiftServerlessClient;
+import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 import software.amazon.cloudformation.LambdaWrapper;
-
-import java.util.function.Supplier;
+import software.amazon.redshiftserverless.common.ClientCache;
+import software.amazon.redshiftserverless.common.HandlerMetrics;
 
 public class ClientBuilder {
+    // Namespace handlers use three services
+    private static final int MAX_CACHED_CLIENTS = 3;
+    private static final ClientCache CLIENT_CACHE = new ClientCache(MAX_CACHED_CLIENTS);
+    private static final ClientOverrideConfiguration CLIENT_CONFIGURATION = ClientOverrideConfiguration.builder()
+            .addExecutionInterceptor(HandlerMetrics.ATTEMPT_COUNTER)
+            .build();
 
     public static RedshiftServerlessClient getClient() {
-    return RedshiftServerlessClient.builder()
-            .httpClient(LambdaWrapper.HTTP_CLIENT)
-            .build();
-  }
+        return CLIENT_CACHE.getOrCreate(RedshiftServerlessClient.SERVICE_NAME, RedshiftServerlessClient.class,
+                () -> RedshiftServerlessClient.builder()
+                        .httpClient(LambdaWrapper.HTTP_CLIENT)
+                        .overrideConfiguration(CLIENT_CONFIGURATION)
+                        .build());
+    }
+
     public static RedshiftClient redshiftClient() {
-        return RedshiftClient.builder()
-                .httpClient(LambdaWrapper.HTTP_CLIENT)
-                .build();
+        return CLIENT_CACHE.getOrCreate(RedshiftClient.SERVICE_NAME, RedshiftClient.class,
+                () -> RedshiftClient.builder()
+                        .httpClient(LambdaWrapper.HTTP_CLIENT)
+                        .overrideConfiguration(CLIENT_CONFIGURATION)
+                        .build());
+    }
+
+    public static SecretsManagerClient secretsManagerClient() {
+        return CLIENT_CACHE.getOrCreate(SecretsManagerClient.SERVICE_NAME, SecretsManagerClient.class,
+                () -> SecretsManagerClient.builder()
+                        .httpClient(LambdaWrapper.HTTP_CLIENT)
+                        .overrideConfiguration(CLIENT_CONFIGURATION)
+                        .build());
     }
 }
@@ -1,105 +1,94 @@
 package software.amazon.redshiftserverless.namespace;
 
-import software.amazon.awssdk.core.exception.SdkClientException;
-import software.amazon.awssdk.services.cloudwatch.model.InvalidParameterValueException;
-import software.amazon.awssdk.services.redshift.model.InvalidPolicyException;
 import software.amazon.awssdk.services.redshift.model.PutResourcePolicyRequest;
 import software.amazon.awssdk.services.redshift.model.PutResourcePolicyResponse;
-import software.amazon.awssdk.services.redshift.model.RedshiftException;
-import software.amazon.awssdk.services.redshift.model.ResourceNotFoundException;
-import software.amazon.awssdk.services.redshift.model.UnsupportedOperationException;
 import software.amazon.awssdk.services.redshiftserverless.model.CreateNamespaceRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.CreateNamespaceResponse;
 import software.amazon.awssdk.services.redshiftserverless.RedshiftServerlessClient;
 import software.amazon.awssdk.services.redshift.RedshiftClient;
-import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
-import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
-import software.amazon.cloudformation.exceptions.CfnNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
-import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.redshiftserverless.common.HandlerLog;
+import software.amazon.redshiftserverless.common.Invocation;
 
 import java.util.Collections;
 import java.util.Optional;
 
 
 public class CreateHandler extends BaseHandlerStd {
+    private static final ReadHandler READ_HANDLER = new ReadHandler();
+
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
         final ResourceHandlerRequest<ResourceModel> request,
         final CallbackContext callbackContext,
         final ProxyClient<RedshiftServerlessClient> proxyClient,
         final ProxyClient<RedshiftClient> redshiftProxyClient,
-        final Logger logger) {
-
-        this.logger = logger;
+        final Invocation invocation) {
 
         return ProgressEvent.progress(request.getDesiredResourceState(), callbackContext)
-            .then(progress -> {
-                return proxy.initiate("AWS-RedshiftServerless-Namespace::Create", proxyClient, progress.getResourceModel(), callbackContext)
+            .then(progress -> checkpointed(invocation, "CreateNamespace", progress, createProgress ->
+                proxy.initiate("AWS-RedshiftServerless-Namespace::Create", proxyClient, createProgress.getResourceModel(), callbackContext)
                     .translateToServiceRequest(Translator::translateToCreateRequest)
-                    .makeServiceCall(this::createNamespace)
-                    .stabilize((_awsRequest, _awsResponse, _client, _model, _context) -> isNamespaceActive(_client, _model, _context))
+                    .backoffDelay(CREATE_BACKOFF_STRATEGY)
+                    .makeServiceCall(retryingCreate(invocation, callbackContext, this::createNamespace))
+                    .stabilize(stabilizer(invocation, "CreateNamespace", (_awsRequest, _awsResponse, _client, _model, _context) -> isNamespaceActive(_client, _model, _context)))
                     .handleError(this::defaultErrorHandler)
                     .done((_request, _response, _client, _model, _context) -> {
                         callbackContext.setNamespaceArn(_response.namespace().namespaceArn());
                         return ProgressEvent.progress(_model, callbackContext);
-                    });
-            })
+                    })))
             .then(progress -> {
                 if (progress.getResourceModel().getNamespaceResourcePolicy() != null) {
-                    return proxy.initiate("AWS-Redshift-ResourcePolicy::Put", redshiftProxyClient, progress.getResourceModel(), callbackContext)
-                        .translateToServiceRequest(resourceModelRequest -> Translator.translateToPutResourcePolicy(resourceModelRequest, callbackContext.getNamespaceArn(), logger))
-                        .makeServiceCall(this::putNamespaceResourcePolicy)
-                        .progress();
+                    return checkpointed(invocation, "PutResourcePolicy", progress, policyProgress ->
+                        proxy.initiate("AWS-Redshift-ResourcePolicy::Put", redshiftProxyClient, policyProgress.getResourceModel(), callbackContext)
+                            .translateToServiceRequest(resourceModelRequest -> Translator.translateToPutResourcePolicy(resourceModelRequest, callbackContext.getNamespaceArn()))
+                            .makeServiceCall(retrying(invocation, callbackContext, this::putNamespaceResourcePolicy))
+                            .handleError(this::defaultErrorHandler)
+                            .progress());
                 }
                 return progress;
             })
             .then(progress -> {
                 for (SnapshotCopyConfiguration snapshotCopyConfiguration : Optional.ofNullable(progress.getResourceModel().getSnapshotCopyConfigurations()).orElse(Collections.emptyList())) {
-                    progress = progress.then(nextProgress -> proxy.initiate(String.format("AWS-RedshiftServerless-Namespace::CreateSnapshotCopyConfiguration::%s", snapshotCopyConfiguration.getDestinationRegion()), proxyClient, nextProgress.getResourceModel(), callbackContext)
+                    final String step = String.format("CreateSnapshotCopyConfiguration::%s", snapshotCopyConfiguration.getDestinationRegion());
+                    progress = progress.then(nextProgress -> checkpointed(invocation, step, nextProgress, stepProgress -> proxy.initiate(String.format("AWS-RedshiftServerless-Namespace::%s", step), proxyClient, stepProgress.getResourceModel(), callbackContext)
                             .translateToServiceRequest((model) -> Translator.translateToCreateSnapshotCopyConfigurationRequest(model, snapshotCopyConfiguration))
-                            .makeServiceCall(this::createSnapshotCopyConfiguration)
+                            .makeServiceCall(retryingCreate(invocation, callbackContext, this::createSnapshotCopyConfiguration))
                             .handleError(this::defaultErrorHandler)
-                            .progress());
+                            .done((_request, _response, _client, _model, _context) -> {
+                                _context.completeStep(step, _response.snapshotCopyConfiguration() == null ? null : _response.snapshotCopyConfiguration().snapshotCopyConfigurationId());
+                                return ProgressEvent.progress(_model, _context);
+                            })));
                 }
                return progress;
             })
             .then(progress ->
-                new ReadHandler().handleRequest(proxy, request, callbackContext, proxyClient, redshiftProxyClient, logger)
+                READ_HANDLER.handleRequest(proxy, request, callbackContext, proxyClient, redshiftProxyClient, invocation)
             );
     }
 
     private CreateNamespaceResponse createNamespace(final CreateNamespaceRequest createNamespaceRequest,
-                                                    final ProxyClient<RedshiftServerlessClient> proxyClient) {
+                                                    final ProxyClient<RedshiftServerlessClient> proxyClient,
+                                                    final HandlerLog log) {
         CreateNamespaceResponse createNamespaceResponse = null;
 
-        logger.log(String.format("createNamespace for %s", createNamespaceRequest.namespaceName()));
+        log.debug("CreatingNamespace", "request", createNamespaceRequest);
         createNamespaceResponse = proxyClient.injectCredentialsAndInvokeV2(createNamespaceRequest, proxyClient.client()::createNamespace);
 
-        logger.log(String.format("%s %s successfully created.", ResourceModel.TYPE_NAME, createNamespaceRequest.namespaceName()));
+        log.info("NamespaceCreated", "namespace", createNamespaceRequest.namespaceName());
         return createNamespaceResponse;
     }
 
     private PutResourcePolicyResponse putNamespaceResourcePolicy(
             final PutResourcePolicyRequest putRequest,
-            final ProxyClient<RedshiftClient> proxyClient) {
-        PutResourcePolicyResponse putResponse = null;
-
-        try {
-            logger.log(String.format("%s putResourcePolicy.", ResourceModel.TYPE_NAME));
-            putResponse = proxyClient.injectCredentialsAndInvokeV2(putRequest, proxyClient.client()::putResourcePolicy);
-        } catch (ResourceNotFoundException e){
-            throw new CfnNotFoundException(e);
-        } catch (InvalidPolicyException | UnsupportedOperationException | InvalidParameterValueException e) {
-            throw new CfnInvalidRequestException(ResourceModel.TYPE_NAME, e);
-        } catch (SdkClientException | RedshiftException e) {
-            throw new CfnGeneralServiceException(ResourceModel.TYPE_NAME, e);
-        }
+            final ProxyClient<RedshiftClient> proxyClient,
+            final HandlerLog log) {
+        PutResourcePolicyResponse putResponse = proxyClient.injectCredentialsAndInvokeV2(putRequest, proxyClient.client()::putResourcePolicy);
 
-        logger.log(String.format("%s successfully put resource policy.", putRequest.resourceArn()));
+        log.info("ResourcePolicyPut", "resourceArn", putRequest.resourceArn());
         return putResponse;
     }
 }
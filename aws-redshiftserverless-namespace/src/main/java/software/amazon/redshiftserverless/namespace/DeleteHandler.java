@@ -1,57 +1,132 @@
 package software.amazon.redshiftserverless.namespace;
 
+import org.apache.commons.lang3.StringUtils;
+import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.services.redshift.RedshiftClient;
 import software.amazon.awssdk.services.redshiftserverless.model.DeleteNamespaceRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.DeleteNamespaceResponse;
 import software.amazon.awssdk.services.redshiftserverless.RedshiftServerlessClient;
+import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
+import software.amazon.awssdk.services.secretsmanager.model.DescribeSecretRequest;
+import software.amazon.awssdk.services.secretsmanager.model.SecretsManagerException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
-import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.redshiftserverless.common.HandlerLog;
+import software.amazon.redshiftserverless.common.Invocation;
+import software.amazon.redshiftserverless.common.HandlerMetrics;
 
 public class DeleteHandler extends BaseHandlerStd {
+    // Secrets Manager removes the managed admin password secret asynchronously after the namespace is gone
+    protected static final int SECRET_DELETION_CALLBACK_DELAY_SECONDS = 10;
+    protected static final int MAX_SECRET_DELETION_CHECKS = 12;
+
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
         final ResourceHandlerRequest<ResourceModel> request,
         final CallbackContext callbackContext,
         final ProxyClient<RedshiftServerlessClient> proxyClient,
         final ProxyClient<RedshiftClient> redshiftProxyClient,
-        final Logger logger) {
+        final Invocation invocation) {
+        return handleDeleteRequest(proxy, request, callbackContext, proxyClient, HandlerMetrics.instrumentLike(proxyClient, proxy.newProxy(ClientBuilder::secretsManagerClient)), invocation);
+    }
+
+    ProgressEvent<ResourceModel, CallbackContext> handleDeleteRequest(
+        final AmazonWebServicesClientProxy proxy,
+        final ResourceHandlerRequest<ResourceModel> request,
+        final CallbackContext callbackContext,
+        final ProxyClient<RedshiftServerlessClient> proxyClient,
+        final ProxyClient<SecretsManagerClient> secretsManagerProxyClient,
+        final Invocation invocation) {
 
-        this.logger = logger;
+        final HandlerLog log = invocation.getLog();
 
         final ResourceModel model = request.getDesiredResourceState();
         return ProgressEvent.progress(model, callbackContext)
-                .then(progress ->
-                    proxy.initiate("AWS-RedshiftServerless-Namespace::Delete", proxyClient, model, callbackContext)
+                .then(progress -> {
+                    // Re-invoked while waiting for the admin password secret, the namespace itself is already deleted
+                    if (callbackContext.getAdminPasswordSecretArn() != null) {
+                        return progress;
+                    }
+
+                    return proxy.initiate("AWS-RedshiftServerless-Namespace::Delete", proxyClient, model, callbackContext)
                             .translateToServiceRequest(Translator::translateToDeleteRequest)
-                            .backoffDelay(BACKOFF_STRATEGY)
-                            .makeServiceCall(this::deleteNamespace)
-                            .stabilize((_awsRequest, _awsResponse, _client, _model, _context) -> isNamespaceActiveAfterDelete(_client, _model, _context))
+                            .backoffDelay(DELETE_BACKOFF_STRATEGY)
+                            .makeServiceCall(retrying(invocation, callbackContext, this::deleteNamespace))
+                            .stabilize(callbackStabilizer(invocation, "DeleteNamespace", DELETE_BACKOFF_STRATEGY, (_awsRequest, _awsResponse, _client, _model, _context) -> isNamespaceActiveAfterDelete(_client, _model, _context)))
                             .handleError(this::defaultErrorHandler)
-                            .done(deleteNamespaceResponse -> {
-                                logger.log(String.format("%s %s deleted.",ResourceModel.TYPE_NAME, model.getNamespaceName()));
-                                // TODO: Need to add a stabilize operation to verify if secret is deleted
-                                // This is a temporary fix to handle deletion of secrets for managed passwords
-                                // Since deletion of secret is handled async CTv2 is failing even in SingleTestMode
-                                try {
-                                    Thread.sleep(30000);
-                                } catch(InterruptedException ex) {
-                                    Thread.currentThread().interrupt();
+                            .done((_awsRequest, _awsResponse, _client, _model, _context) -> {
+                                if (_awsResponse.namespace() != null) {
+                                    _context.setAdminPasswordSecretArn(_awsResponse.namespace().adminPasswordSecretArn());
                                 }
-                                return ProgressEvent.defaultSuccessHandler(null);
-                            })
-                );
+                                return ProgressEvent.progress(_model, _context);
+                            });
+                })
+                .then(progress -> waitForAdminPasswordSecretDeletion(secretsManagerProxyClient, progress.getResourceModel(), callbackContext, invocation));
     }
 
     private DeleteNamespaceResponse deleteNamespace(final DeleteNamespaceRequest deleteNamespaceRequest,
-                                                    final ProxyClient<RedshiftServerlessClient> proxyClient) {
+                                                    final ProxyClient<RedshiftServerlessClient> proxyClient,
+                                                    final HandlerLog log) {
         DeleteNamespaceResponse deleteNamespaceResponse = null;
 
-        logger.log(String.format("%s %s deleteNamespace", ResourceModel.TYPE_NAME, deleteNamespaceRequest.namespaceName()));
         deleteNamespaceResponse = proxyClient.injectCredentialsAndInvokeV2(deleteNamespaceRequest, proxyClient.client()::deleteNamespace);
-        logger.log(String.format("%s %s successfully deleted.", ResourceModel.TYPE_NAME, deleteNamespaceRequest.namespaceName()));
+        log.info("NamespaceDeleted", "namespace", deleteNamespaceRequest.namespaceName());
         return deleteNamespaceResponse;
     }
+
+    /**
+     * Waits for the managed admin password secret to be deleted, so that a namespace with the same name can be created
+     * right away. Namespaces without ManageAdminPassword have no secret and finish immediately. Each check is a separate
+     * invocation, and the namespace deletion succeeds anyway once the check budget is used up.
+     *
+     * Only a secret that Secrets Manager no longer finds is gone: one scheduled for deletion still holds its name. A check
+     * that is throttled or fails on the service side is retried like any other call, and a check that fails for good,
+     * or never reaches the service, counts as the secret still being there.
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> waitForAdminPasswordSecretDeletion(
+            final ProxyClient<SecretsManagerClient> secretsManagerProxyClient,
+            final ResourceModel model,
+            final CallbackContext callbackContext,
+            final Invocation invocation) {
+        final HandlerLog log = invocation.getLog();
+        final String secretArn = callbackContext.getAdminPasswordSecretArn();
+        if (StringUtils.isEmpty(secretArn)) {
+            return ProgressEvent.defaultSuccessHandler(null);
+        }
+
+        if (isSecretDeleted(secretsManagerProxyClient, secretArn, callbackContext, invocation)) {
+            log.info("AdminPasswordSecretDeleted", "namespace", model.getNamespaceName(), "secretArn", secretArn);
+            return ProgressEvent.defaultSuccessHandler(null);
+        }
+
+        if (callbackContext.getSecretDeletionChecks() >= MAX_SECRET_DELETION_CHECKS) {
+            log.warn("AdminPasswordSecretStillPresent", "namespace", model.getNamespaceName(), "secretArn", secretArn,
+                    "checks", callbackContext.getSecretDeletionChecks());
+            return ProgressEvent.defaultSuccessHandler(null);
+        }
+
+        callbackContext.setSecretDeletionChecks(callbackContext.getSecretDeletionChecks() + 1);
+        return ProgressEvent.defaultInProgressHandler(callbackContext, SECRET_DELETION_CALLBACK_DELAY_SECONDS, model);
+    }
+
+    private boolean isSecretDeleted(final ProxyClient<SecretsManagerClient> secretsManagerProxyClient,
+                                    final String secretArn,
+                                    final CallbackContext callbackContext,
+                                    final Invocation invocation) {
+        final DescribeSecretRequest describeSecretRequest = DescribeSecretRequest.builder().secretId(secretArn).build();
+        try {
+            retrying(invocation, callbackContext, (DescribeSecretRequest awsRequest, ProxyClient<SecretsManagerClient> client) ->
+                    client.injectCredentialsAndInvokeV2(awsRequest, client.client()::describeSecret))
+                    .apply(describeSecretRequest, secretsManagerProxyClient);
+            return false;
+        } catch (final software.amazon.awssdk.services.secretsmanager.model.ResourceNotFoundException e) {
+            return true;
+        } catch (final SecretsManagerException | SdkClientException e) {
+            // The namespace is deleted either way, an unreadable secret only costs a check
+            invocation.getLog().warn("AdminPasswordSecretUnreadable", "secretArn", secretArn, "error", e.getMessage());
+            return false;
+        }
+    }
 }
@@ -0,0 +1,102 @@
+package software.amazon.redshiftserverless.namespace;
+
+import lombok.Value;
+
+import java.util.Optional;
+
+/**
+ * IAM role ARN, {@code arn:<partition>:iam::<account id>:role/<role name>}, found by a single forward scan.
+ *
+ * The service describes attached roles as {@code IamRole(applyStatus=in-sync, iamRoleArn=arn:aws:iam::...)}, so the
+ * ARN has to be picked out of a larger string. The scanner accepts what the previous pattern
+ * {@code arn:aws.*?:iam::[0-9]{12}?:role/[a-zA-Z0-9_+=,.@-]{1,64}} matched for real ARNs, but requires the partition to
+ * be {@code aws} optionally followed by lower case segments such as {@code -cn} or {@code -us-gov}, and never backtracks.
+ */
+@Value
+class IamRoleArn {
+    private static final String ARN_PREFIX = "arn:";
+    private static final String PARTITION_PREFIX = "aws";
+    private static final String SERVICE = ":iam::";
+    private static final String RESOURCE_TYPE = ":role/";
+    private static final int ACCOUNT_ID_LENGTH = 12;
+    private static final int MAX_ROLE_NAME_LENGTH = 64;
+
+    String partition;
+    String accountId;
+    String roleName;
+
+    /**
+     * @param text string that may contain an IAM role ARN
+     * @return the first IAM role ARN in the text, if any
+     */
+    static Optional<IamRoleArn> find(final String text) {
+        if (text == null) {
+            return Optional.empty();
+        }
+        for (int start = text.indexOf(ARN_PREFIX + PARTITION_PREFIX); start >= 0; start = text.indexOf(ARN_PREFIX + PARTITION_PREFIX, start + 1)) {
+            final IamRoleArn arn = parseAt(text, start);
+            if (arn != null) {
+                return Optional.of(arn);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static IamRoleArn parseAt(final String text, final int start) {
+        final int partitionStart = start + ARN_PREFIX.length();
+        int position = partitionStart + PARTITION_PREFIX.length();
+        while (position < text.length() && isPartitionChar(text.charAt(position))) {
+            position++;
+        }
+        final int partitionEnd = position;
+        if (text.charAt(partitionEnd - 1) == '-' || !text.startsWith(SERVICE, position)) {
+            return null;
+        }
+
+        final int accountIdStart = position + SERVICE.length();
+        final int accountIdEnd = accountIdStart + ACCOUNT_ID_LENGTH;
+        if (accountIdEnd > text.length()) {
+            return null;
+        }
+        for (position = accountIdStart; position < accountIdEnd; position++) {
+            if (!isDigit(text.charAt(position))) {
+                return null;
+            }
+        }
+        if (!text.startsWith(RESOURCE_TYPE, accountIdEnd)) {
+            return null;
+        }
+
+        final int roleNameStart = accountIdEnd + RESOURCE_TYPE.length();
+        final int roleNameLimit = Math.min(text.length(), roleNameStart + MAX_ROLE_NAME_LENGTH);
+        position = roleNameStart;
+        while (position < roleNameLimit && isRoleNameChar(text.charAt(position))) {
+            position++;
+        }
+        if (position == roleNameStart) {
+            return null;
+        }
+
+        return new IamRoleArn(text.substring(partitionStart, partitionEnd),
+                text.substring(accountIdStart, accountIdEnd),
+                text.substring(roleNameStart, position));
+    }
+
+    private static boolean isPartitionChar(final char c) {
+        return (c >= 'a' && c <= 'z') || c == '-';
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isRoleNameChar(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c)
+                || c == '_' || c == '+' || c == '=' || c == ',' || c == '.' || c == '@' || c == '-';
+    }
+
+    @Override
+    public String toString() {
+        return ARN_PREFIX + partition + SERVICE + accountId + RESOURCE_TYPE + roleName;
+    }
+}
@@ -13,10 +13,13 @@ import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.ListNamespacesRequest;
+import software.amazon.redshiftserverless.common.HandlerLog;
+import software.amazon.redshiftserverless.common.ListPager;
 import java.util.List;
 
 public class ListHandler extends BaseHandler<CallbackContext> {
-    private Logger logger;
+    // Page size, set through the environment of the handler
+    private static final ListPager PAGER = ListPager.fromEnvironment();
 
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -25,11 +28,12 @@ public class ListHandler extends BaseHandler<CallbackContext> {
         final CallbackContext callbackContext,
         final Logger logger) {
 
-        this.logger = logger;
-        ListNamespacesRequest listNamespacesRequest = Translator.translateToListRequest(request.getNextToken());
+        ListNamespacesRequest listNamespacesRequest = Translator.translateToListRequest(request.getNextToken(), PAGER.getPageSize());
         ListNamespacesResponse listNamespacesResponse = listNamespaces(listNamespacesRequest, proxy);
         final List<ResourceModel> models = Translator.translateFromListRequest(listNamespacesResponse);
 
+        HandlerLog.of(logger).info("NamespacesListed", "namespaces", listNamespacesResponse.namespaces().size(),
+                "more", listNamespacesResponse.nextToken() != null);
         return ProgressEvent.<ResourceModel, CallbackContext>builder()
             .resourceModels(models)
             .nextToken(listNamespacesResponse.nextToken())
@@ -39,9 +43,8 @@ public class ListHandler extends BaseHandler<CallbackContext> {
 
     private ListNamespacesResponse listNamespaces(final ListNamespacesRequest listNamespacesRequest,
                                                   final AmazonWebServicesClientProxy proxy) {
-        ListNamespacesResponse listNamespacesResponse;
         try {
-            listNamespacesResponse = proxy.injectCredentialsAndInvokeV2(listNamespacesRequest, ClientBuilder.getClient()::listNamespaces);
+            return proxy.injectCredentialsAndInvokeV2(listNamespacesRequest, ClientBuilder.getClient()::listNamespaces);
         } catch (final InternalServerException e) {
             throw new CfnServiceInternalErrorException(e);
         } catch (final ValidationException e){
@@ -49,7 +52,5 @@ public class ListHandler extends BaseHandler<CallbackContext> {
         } catch (final AwsServiceException e) {
             throw new CfnGeneralServiceException(e);
         }
-        logger.log(String.format("%s has successfully been listed.", ResourceModel.TYPE_NAME));
-        return listNamespacesResponse;
     }
 }
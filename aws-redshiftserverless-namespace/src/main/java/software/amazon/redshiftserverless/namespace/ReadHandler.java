@@ -1,29 +1,31 @@
 package software.amazon.redshiftserverless.namespace;
 
-import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.services.redshift.RedshiftClient;
 import software.amazon.awssdk.services.redshift.model.*;
-import software.amazon.awssdk.services.redshift.model.UnsupportedOperationException;
 import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceResponse;
 import software.amazon.awssdk.services.redshiftserverless.RedshiftServerlessClient;
-import software.amazon.awssdk.services.redshiftserverless.model.ListSnapshotCopyConfigurationsRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.ValidationException;
-import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
-import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
-import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.redshiftserverless.common.HandlerLog;
+import software.amazon.redshiftserverless.common.Invocation;
+
+import java.util.Map;
 
 public class ReadHandler extends BaseHandlerStd {
     private final String GET_RESOURCE_POLICY_ERROR = "not authorized to perform: redshift:GetResourcePolicy";
     private final Integer GET_RESOURCE_POLICY_ERR_STATUS_CODE = 403;
     private final String RESOURCE_POLICY_UNSUPPORTED_ERROR = "The resource policy feature isn't supported";
     private final Integer RESOURCE_POLICY_UNSUPPORTED_ERR_STATUS_CODE = 400;
-    private boolean containsResourcePolicy = false;
-    private boolean containsSnapshotCopyConfigurations = false;
+
+    @Override
+    protected boolean canCallBack() {
+        // Read must finish in one invocation
+        return false;
+    }
 
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
@@ -31,9 +33,7 @@ public class ReadHandler extends BaseHandlerStd {
         final CallbackContext callbackContext,
         final ProxyClient<RedshiftServerlessClient> proxyClient,
         final ProxyClient<RedshiftClient> redshiftProxyClient,
-        final Logger logger) {
-
-        this.logger = logger;
+        final Invocation invocation) {
 
         final ResourceModel model = request.getDesiredResourceState();
 
@@ -42,14 +42,14 @@ public class ReadHandler extends BaseHandlerStd {
         This attribute will be used to decide if "not authorized to perform: redshift:GetResourcePolicy" errors
         in Read handler should be suppressed or not.
          */
-        containsResourcePolicy = model.getNamespaceResourcePolicy() != null;
-        containsSnapshotCopyConfigurations = model.getSnapshotCopyConfigurations() != null;
+        final boolean containsResourcePolicy = model.getNamespaceResourcePolicy() != null;
+        final boolean containsSnapshotCopyConfigurations = model.getSnapshotCopyConfigurations() != null;
 
         return ProgressEvent.progress(model, callbackContext)
                 .then(progress -> {
                     progress = proxy.initiate("AWS-RedshiftServerless-Namespace::Read", proxyClient, model, callbackContext)
                         .translateToServiceRequest(Translator::translateToReadRequest)
-                        .makeServiceCall(this::getNamespace)
+                        .makeServiceCall(retrying(invocation, callbackContext, this::getNamespace))
                         .handleError(this::defaultErrorHandler)
                         .done(awsResponse -> {
                             callbackContext.setNamespaceArn(awsResponse.namespace().namespaceArn());
@@ -57,34 +57,59 @@ public class ReadHandler extends BaseHandlerStd {
                         });
                     return progress;
                 })
-                .then(progress -> {
-                    return proxy.initiate("AWS-Redshift-ResourcePolicy::Get", redshiftProxyClient, progress.getResourceModel(), callbackContext)
-                        .translateToServiceRequest(resourceModelRequest -> Translator.translateToGetResourcePolicy(resourceModelRequest, callbackContext.getNamespaceArn()))
-                        .makeServiceCall(this::getNamespaceResourcePolicy)
-                        .done((_request, _response, _client, _model, _context) -> {
-                            _model.setNamespaceResourcePolicy(Translator.convertStringToJson(_response.resourcePolicy().policy(), logger));
-                            return ProgressEvent.progress(_model, _context);
-                        });
-                })
-                .then(progress -> {
-                    return proxy.initiate("AWS-RedshiftServerless-Namespace::SnapshotCopyConfigurations::List", proxyClient, progress.getResourceModel(), callbackContext)
-                            .translateToServiceRequest(Translator::translateToListSnapshotCopyConfigurationsRequest)
-                            .makeServiceCall(this::listSnapshotCopyConfigurations)
-                            .handleError(this::listSnapshotCopyConfigurationErrorHandler)
-                            .done((_request, _response, _client, _model, _context) -> {
-                                _model.setSnapshotCopyConfigurations(Translator.translateToSnapshotCopyConfigurations(_response.snapshotCopyConfigurations()));
-                                return ProgressEvent.defaultSuccessHandler(_model);
-                            });
+                .then(progress -> readResourcePolicy(proxy, redshiftProxyClient, progress.getResourceModel(), callbackContext, invocation, containsResourcePolicy))
+                .then(progress -> readSnapshotCopyConfigurations(proxy, proxyClient, progress.getResourceModel(), callbackContext, invocation,
+                        containsSnapshotCopyConfigurations));
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> readResourcePolicy(final AmazonWebServicesClientProxy proxy,
+                                                                            final ProxyClient<RedshiftClient> redshiftProxyClient,
+                                                                            final ResourceModel model,
+                                                                            final CallbackContext callbackContext,
+                                                                            final Invocation invocation,
+                                                                            final boolean containsResourcePolicy) {
+        final String namespaceArn = callbackContext.getNamespaceArn();
+        return proxy.initiate("AWS-Redshift-ResourcePolicy::Get", redshiftProxyClient, model, callbackContext)
+                .translateToServiceRequest(resourceModelRequest -> Translator.translateToGetResourcePolicy(resourceModelRequest, namespaceArn))
+                .makeServiceCall(retrying(invocation, callbackContext, this::getNamespaceResourcePolicy))
+                .handleError((_request, _exception, _client, _model, _context) ->
+                        getResourcePolicyErrorHandler(_exception, _model, _context, invocation.getLog(), containsResourcePolicy))
+                .done((_request, _response, _client, _model, _context) -> {
+                    final ResourcePolicyCodec.Result<Map<String, Object>> policy = ResourcePolicyCodec.decode(_response.resourcePolicy().policy());
+                    if (policy.isFailed()) {
+                        invocation.getLog().warn("ResourcePolicyUndecodable", "error", policy.getError());
+                    }
+                    _model.setNamespaceResourcePolicy(policy.getValue());
+                    return ProgressEvent.progress(_model, _context);
+                });
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> readSnapshotCopyConfigurations(final AmazonWebServicesClientProxy proxy,
+                                                                                        final ProxyClient<RedshiftServerlessClient> proxyClient,
+                                                                                        final ResourceModel model,
+                                                                                        final CallbackContext callbackContext,
+                                                                                        final Invocation invocation,
+                                                                                        final boolean containsSnapshotCopyConfigurations) {
+        return proxy.initiate("AWS-RedshiftServerless-Namespace::SnapshotCopyConfigurations::List", proxyClient, model, callbackContext)
+                .translateToServiceRequest(Translator::translateToListSnapshotCopyConfigurationsRequest)
+                .makeServiceCall(retrying(invocation, callbackContext, this::listSnapshotCopyConfigurations))
+                .handleError((_request, _exception, _client, _model, _context) ->
+                        listSnapshotCopyConfigurationErrorHandler(_exception, _model, invocation.getLog(), containsSnapshotCopyConfigurations))
+                .done((_request, _response, _client, _model, _context) -> {
+                    _model.setSnapshotCopyConfigurations(Translator.translateToSnapshotCopyConfigurations(_response.snapshotCopyConfigurations()));
+                    return ProgressEvent.defaultSuccessHandler(_model);
                 });
     }
 
     private GetNamespaceResponse getNamespace(final GetNamespaceRequest getNamespaceRequest,
-                                               final ProxyClient<RedshiftServerlessClient> proxyClient) {
+                                               final ProxyClient<RedshiftServerlessClient> proxyClient,
+                                               final HandlerLog log) {
         GetNamespaceResponse getNamespaceResponse = null;
 
-        logger.log(String.format("%s %s getNamespaces.", ResourceModel.TYPE_NAME, getNamespaceRequest.namespaceName()));
         getNamespaceResponse = proxyClient.injectCredentialsAndInvokeV2(getNamespaceRequest, proxyClient.client()::getNamespace);
-        logger.log(String.format("%s %s has successfully been read.", ResourceModel.TYPE_NAME, getNamespaceRequest.namespaceName()));
+        log.info("NamespaceRead", "namespace", getNamespaceRequest.namespaceName(),
+                "status", getNamespaceResponse.namespace() == null ? null : getNamespaceResponse.namespace().statusAsString());
+        log.debug("NamespaceRead", "response", getNamespaceResponse);
         return getNamespaceResponse;
     }
 
@@ -92,43 +117,45 @@ public class ReadHandler extends BaseHandlerStd {
      * Gets resource policy for Cluster
      * @param awsRequest the aws service request to describe a resource
      * @param proxyClient the aws service client to make the call
+     * @param log log of the invocation
      * @return getResponse resource response
      */
     private GetResourcePolicyResponse getNamespaceResourcePolicy(
             final GetResourcePolicyRequest awsRequest,
-            final ProxyClient<RedshiftClient> proxyClient) {
+            final ProxyClient<RedshiftClient> proxyClient,
+            final HandlerLog log) {
         GetResourcePolicyResponse getResponse = null;
 
         try {
-            logger.log(awsRequest.resourceArn());
             getResponse = proxyClient.injectCredentialsAndInvokeV2(
                     awsRequest, proxyClient.client()::getResourcePolicy);
         } catch (ResourceNotFoundException e){
-            logger.log(String.format("NamespaceResourcePolicy not found for namespace %s", awsRequest.resourceArn()));
+            log.info("ResourcePolicyNotFound", "resourceArn", awsRequest.resourceArn());
             return noOpNamespaceResourcePoliy(awsRequest);
-        } catch (InvalidPolicyException | UnsupportedOperationException e) {
-          /* ResourcePolicy is not enabled in all regions, we should handle unsupported operation exception
-          if NamespaceResourcePolicy is not added as a property while creating Namespace resource. */
-
-        /**
-         * Customers are still seeing 403 w/ different error message that we checked earlier, as a result we didn't
-         * catch the exception for these customers.
-         * This commit catches all the RedshiftException if resource policy is not in the CFN template,
-         * which might catch more exceptions than intended, we're doing this to unblock existing customers who
-         * don't specify the resource policy at all.
-         *
-         * We'll see if this all-inclusive catch makes sense, then make changes if needed
-         */
-          if(!containsResourcePolicy) {
-              logger.log(String.format("Template does not have resource policy, " +
-                      "InvalidPolicyException or UnsupportedOpoerationException: %s", e.getMessage()));
-              return noOpNamespaceResourcePoliy(awsRequest);
-          } else {
-              throw new CfnInvalidRequestException(ResourceModel.TYPE_NAME, e);
-          }
-        } catch (RedshiftException e) {
-            /* This error handling is required for backward compatibility. Without this exception handling, existing customers creating
-            or updating their namespace will see an error with permission issues - "is not authorized to perform: redshift:GetResourcePolicy",
+        }
+        log.info("ResourcePolicyRead", "resourceArn", awsRequest.resourceArn());
+        return getResponse;
+    }
+
+    /**
+     * Errors of the resource policy read, once the retry policy has given up on them. Throttling and server errors
+     * always fail the read, so that a namespace is never read without a policy it may have.
+     * @param exception error of the read
+     * @param model model read so far
+     * @param context callback context
+     * @param log log of the invocation
+     * @param containsResourcePolicy whether the template sets NamespaceResourcePolicy, other errors are only suppressed if not
+     * @return the model without a policy if the error is suppressed, otherwise the failure
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> getResourcePolicyErrorHandler(final Exception exception,
+                                                                                      final ResourceModel model,
+                                                                                      final CallbackContext context,
+                                                                                      final HandlerLog log,
+                                                                                      final boolean containsResourcePolicy) {
+        if (exception instanceof RedshiftException && !containsResourcePolicy
+                && !EXCEPTION_CLASSIFIER.classify(exception).isTransient()) {
+            /* ResourcePolicy is not enabled in all regions, and existing customers creating or updating their namespace
+            would otherwise see an error with permission issues - "is not authorized to perform: redshift:GetResourcePolicy",
             as Read handler is trying to hit getResourcePolicy APIs to get namespaceResourcePolicy details.*/
 
             /**
@@ -140,32 +167,27 @@ public class ReadHandler extends BaseHandlerStd {
              *
              * We'll see if this all-inclusive catch makes sense, then make changes if needed
              */
-            if(!containsResourcePolicy) {
-                logger.log(String.format("Template does not have resource policy, RedshiftException: %s", e.getMessage()));
-                return noOpNamespaceResourcePoliy(awsRequest);
-            } else {
-                throw new CfnGeneralServiceException(e);
-            }
-        } catch (SdkClientException e) {
-            throw new CfnGeneralServiceException(ResourceModel.TYPE_NAME, e);
+            log.info("ResourcePolicyIgnored", "reason", "notInTemplate", "error", exception.getMessage());
+            model.setNamespaceResourcePolicy(null);
+            return ProgressEvent.progress(model, context);
         }
-        logger.log(String.format("%s  resource policy has successfully been read.", ResourceModel.TYPE_NAME));
-        return getResponse;
+
+        // Otherwise perform the standard error handling
+        return errorHandler(exception);
     }
 
-    private ProgressEvent<ResourceModel, CallbackContext> listSnapshotCopyConfigurationErrorHandler(final ListSnapshotCopyConfigurationsRequest request,
-                                                                                                    final Exception exception,
-                                                                                                    final ProxyClient<RedshiftServerlessClient> client,
+    private ProgressEvent<ResourceModel, CallbackContext> listSnapshotCopyConfigurationErrorHandler(final Exception exception,
                                                                                                     final ResourceModel model,
-                                                                                                    final CallbackContext context) {
+                                                                                                    final HandlerLog log,
+                                                                                                    final boolean containsSnapshotCopyConfigurations) {
         if (exception instanceof ValidationException) {
             // ValidationException is thrown when the feature is not enabled in a region
-            logger.log(String.format("CRC feature is not enabled for this region: %s", exception.getMessage()));
+            log.info("SnapshotCopyConfigurationsIgnored", "reason", "notSupportedInRegion", "error", exception.getMessage());
             return ProgressEvent.defaultSuccessHandler(model);
         } else if (!containsSnapshotCopyConfigurations) {
             // This error handling is required for backward compatibility. Without this exception handling,
             // existing customers creating or updating their namespace will see an error with permission issues
-            logger.log(String.format("Template does not have snapshot copy configurations, RedshiftServerlessException: %s", exception.getMessage()));
+            log.info("SnapshotCopyConfigurationsIgnored", "reason", "notInTemplate", "error", exception.getMessage());
             return ProgressEvent.defaultSuccessHandler(model);
         }
 
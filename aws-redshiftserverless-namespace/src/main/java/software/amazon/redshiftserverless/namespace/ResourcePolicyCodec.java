@@ -0,0 +1,240 @@
+package software.amazon.redshiftserverless.namespace;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Converts namespace resource policies between the JSON object in the resource model and the policy document string
+ * used by the Redshift resource policy APIs, and compares them the way IAM reads them.
+ *
+ * The reader and writer are immutable and shared by every invocation in the container. Documents returned by the
+ * service may be URL encoded; they are decoded with {@code application/x-www-form-urlencoded} rules, like
+ * {@link java.net.URLDecoder}, straight into a character buffer that Jackson parses, and documents without any escape
+ * are parsed as they are.
+ */
+final class ResourcePolicyCodec {
+    // Elements that IAM accepts either as a single string or as a list, where the list is an unordered set
+    private static final Set<String> STRING_OR_SET_ELEMENTS = new HashSet<>(Arrays.asList("Action", "NotAction", "Resource", "NotResource"));
+    // Elements whose nested values are each a single string or an unordered set, e.g. {"AWS": ["arn:...", "arn:..."]}
+    private static final Set<String> NESTED_STRING_OR_SET_ELEMENTS = new HashSet<>(Arrays.asList("Principal", "NotPrincipal"));
+    private static final String CONDITION = "Condition";
+    private static final String STATEMENT = "Statement";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader READER = MAPPER.readerFor(new TypeReference<HashMap<String, Object>>() {
+    });
+    private static final ObjectWriter WRITER = MAPPER.writerFor(new TypeReference<Map<String, Object>>() {
+    });
+
+    private ResourcePolicyCodec() {
+    }
+
+    /**
+     * @param policy policy document as returned by the service, possibly URL encoded
+     * @return the policy as a JSON object, empty when there is no document, or the reason it could not be parsed
+     */
+    static Result<Map<String, Object>> decode(final String policy) {
+        if (policy == null || policy.isEmpty()) {
+            return Result.empty();
+        }
+        try {
+            if (!isEncoded(policy)) {
+                return Result.of(READER.readValue(policy));
+            }
+            final CharBuffer decoded = urlDecode(policy);
+            try (JsonParser parser = READER.createParser(decoded.array(), 0, decoded.limit())) {
+                return Result.of(READER.readValue(parser));
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            return Result.failed(String.format("NamespaceResourcePolicy is not a valid JSON document: %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * @param policy policy JSON object from the resource model
+     * @return the policy document to send to the service, empty when there is no policy, or the reason it could not be
+     * written
+     */
+    static Result<String> encode(final Map<String, Object> policy) {
+        if (policy == null) {
+            return Result.empty();
+        }
+        try {
+            return Result.of(WRITER.writeValueAsString(policy));
+        } catch (JsonProcessingException e) {
+            return Result.failed(String.format("NamespaceResourcePolicy could not be written as JSON: %s", e.getOriginalMessage()));
+        }
+    }
+
+    /**
+     * Whether two policies grant the same permissions as far as IAM is concerned. Key order and whitespace never
+     * matter; {@code Action}, {@code Resource}, principal and condition values compare as sets whether written as a
+     * single string or a list, and a single statement object equals a list holding only that statement.
+     *
+     * @param policy a policy JSON object, may be null
+     * @param other another policy JSON object, may be null
+     * @return true if both are equivalent, false otherwise
+     */
+    static boolean isEquivalent(final Map<String, Object> policy, final Map<String, Object> other) {
+        return Objects.equals(canonicalize(policy), canonicalize(other));
+    }
+
+    private static Object canonicalize(final Object value) {
+        if (value instanceof Map) {
+            final Map<Object, Object> canonical = new HashMap<>();
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                canonical.put(entry.getKey(), canonicalizeElement(entry.getKey(), entry.getValue()));
+            }
+            return canonical;
+        }
+        if (value instanceof List) {
+            return ((List<?>) value).stream().map(ResourcePolicyCodec::canonicalize).collect(Collectors.toList());
+        }
+        return value;
+    }
+
+    private static Object canonicalizeElement(final Object key, final Object value) {
+        if (STRING_OR_SET_ELEMENTS.contains(key)) {
+            return asSet(value);
+        }
+        if (NESTED_STRING_OR_SET_ELEMENTS.contains(key) && value instanceof Map) {
+            return nestedValuesAsSets((Map<?, ?>) value);
+        }
+        if (CONDITION.equals(key) && value instanceof Map) {
+            final Map<Object, Object> conditions = new HashMap<>();
+            ((Map<?, ?>) value).forEach((operator, keys) ->
+                    conditions.put(operator, keys instanceof Map ? nestedValuesAsSets((Map<?, ?>) keys) : canonicalize(keys)));
+            return conditions;
+        }
+        if (STATEMENT.equals(key) && value instanceof Map) {
+            return Collections.singletonList(canonicalize(value));
+        }
+        return canonicalize(value);
+    }
+
+    private static Map<Object, Object> nestedValuesAsSets(final Map<?, ?> values) {
+        final Map<Object, Object> canonical = new HashMap<>();
+        values.forEach((key, value) -> canonical.put(key, asSet(value)));
+        return canonical;
+    }
+
+    private static Set<Object> asSet(final Object value) {
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).stream().map(ResourcePolicyCodec::canonicalize).collect(Collectors.toSet());
+        }
+        return Collections.singleton(canonicalize(value));
+    }
+
+    private static boolean isEncoded(final String policy) {
+        return policy.indexOf('%') >= 0 || policy.indexOf('+') >= 0;
+    }
+
+    /**
+     * Single pass over the input. Escaped ASCII is written straight to the output; runs of escapes that contain
+     * multi-byte UTF-8 sequences are collected as bytes and decoded together. Everything else is copied as is.
+     */
+    private static CharBuffer urlDecode(final String policy) {
+        final int length = policy.length();
+        final char[] out = new char[length];
+        int written = 0;
+        byte[] bytes = null;
+        int i = 0;
+        while (i < length) {
+            final char c = policy.charAt(i);
+            if (c == '%') {
+                final int value = escapedByte(policy, i);
+                if (value < 0x80) {
+                    out[written++] = (char) value;
+                    i += 3;
+                    continue;
+                }
+                if (bytes == null) {
+                    bytes = new byte[length / 3];
+                }
+                int count = 0;
+                while (i < length && policy.charAt(i) == '%') {
+                    bytes[count++] = (byte) escapedByte(policy, i);
+                    i += 3;
+                }
+                final CharBuffer target = CharBuffer.wrap(out, written, length - written);
+                StandardCharsets.UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                        .decode(ByteBuffer.wrap(bytes, 0, count), target, true);
+                written = target.position();
+            } else {
+                out[written++] = c == '+' ? ' ' : c;
+                i++;
+            }
+        }
+        return CharBuffer.wrap(out, 0, written);
+    }
+
+    private static int escapedByte(final String policy, final int index) {
+        if (index + 2 >= policy.length()) {
+            throw new IllegalArgumentException("incomplete escape at index " + index);
+        }
+        return (hexValue(policy.charAt(index + 1), index) << 4) | hexValue(policy.charAt(index + 2), index);
+    }
+
+    private static int hexValue(final char c, final int index) {
+        final int value = Character.digit(c, 16);
+        if (value < 0) {
+            throw new IllegalArgumentException("illegal hex character in escape at index " + index);
+        }
+        return value;
+    }
+
+    /**
+     * Outcome of a conversion: a value, nothing to convert, or an error message.
+     */
+    @Value
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    static class Result<T> {
+        T value;
+        String error;
+
+        static <T> Result<T> of(final T value) {
+            return new Result<>(value, null);
+        }
+
+        static <T> Result<T> empty() {
+            return new Result<>(null, null);
+        }
+
+        static <T> Result<T> failed(final String error) {
+            return new Result<>(null, error);
+        }
+
+        boolean isFailed() {
+            return error != null;
+        }
+
+        boolean isPresent() {
+            return value != null;
+        }
+    }
+}
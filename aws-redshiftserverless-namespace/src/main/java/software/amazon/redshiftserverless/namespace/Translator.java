@@ -1,9 +1,6 @@
 package software.amazon.redshiftserverless.namespace;
 
 import com.amazonaws.util.StringUtils;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import software.amazon.awssdk.awscore.AwsRequest;
 import software.amazon.awssdk.services.redshift.model.DeleteResourcePolicyRequest;
 import software.amazon.awssdk.services.redshift.model.GetResourcePolicyRequest;
@@ -19,14 +16,9 @@ import software.amazon.awssdk.services.redshiftserverless.model.UpdateNamespaceR
 import software.amazon.awssdk.services.redshiftserverless.model.CreateSnapshotCopyConfigurationRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.UpdateSnapshotCopyConfigurationRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.DeleteSnapshotCopyConfigurationRequest;
-import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
 
-import java.io.IOException;
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -72,22 +64,17 @@ public class Translator {
 
   /*
     This function is to return the iam role in the same format as input iam roles.
-    Instead of modifying the schema for backward compatibitlity we use regex to extract the iam role.
+    Instead of modifying the schema for backward compatibitlity we extract the iam role arn from the string.
     'IamRole(applyStatus=null, iamRoleArn=arn:aws:iam::254260483320:role/contracttest9nfdg-redshif-RedshiftServerlessNamespa-nAxEywsQousB)'
    */
   static List<String> translateIamRoles(final List<String> iamRoles) {
     return Optional.ofNullable(iamRoles).orElse(Collections.emptyList())
             .stream()
-            .map(iamRole -> {
-              Pattern iamPattern = Pattern.compile("(arn:aws.*?:iam::[0-9]{12}?:role/[a-zA-Z0-9_+=,.@-]{1,64})");
-              Matcher matcher = iamPattern.matcher(iamRole);
-              if (matcher.find()){
-                return matcher.group(0);
-              }
-              // Case for invalid arn format provided. This is added as a precaution
-              // Service API call to RACS will throw error in case user provides invalid ARN and this wouldnt be reachable.
-              return null;
-            }).filter (iamRole->iamRole!=null)
+            // Case for invalid arn format provided is dropped. This is added as a precaution
+            // Service API call to RACS will throw error in case user provides invalid ARN and this wouldnt be reachable.
+            .map(IamRoleArn::find)
+            .filter(Optional::isPresent)
+            .map(iamRoleArn -> iamRoleArn.get().toString())
             .collect(Collectors.toList());
   }
 
@@ -159,16 +146,17 @@ public class Translator {
    * @return model resource model
    */
   static ResourceModel translateFromReadResponse(final GetNamespaceResponse awsResponse) {
+    final List<String> iamRoles = translateIamRoles(awsResponse.namespace().iamRoles());
 
     return ResourceModel.builder()
             .adminUsername(awsResponse.namespace().adminUsername())
             .dbName(awsResponse.namespace().dbName())
             .defaultIamRoleArn(awsResponse.namespace().defaultIamRoleArn())
-            .iamRoles(translateIamRoles(awsResponse.namespace().iamRoles()))
+            .iamRoles(iamRoles)
             .kmsKeyId(awsResponse.namespace().kmsKeyId())
             .logExports(awsResponse.namespace().logExportsAsStrings())
             .namespaceName(awsResponse.namespace().namespaceName())
-            .namespace(translateToModelNamespace(awsResponse.namespace()))
+            .namespace(translateToModelNamespace(awsResponse.namespace(), iamRoles))
             .manageAdminPassword(StringUtils.isNullOrEmpty(awsResponse.namespace().adminPasswordSecretArn()) ? null : true)
             .adminPasswordSecretKmsKeyId(awsResponse.namespace().adminPasswordSecretKmsKeyId())
             .build();
@@ -212,11 +200,13 @@ public class Translator {
   /**
    * Request to list resources
    * @param nextToken token passed to the aws service list resources request
+   * @param maxResults number of resources per page
    * @return awsRequest the aws service request to list resources within aws account
    */
-  static ListNamespacesRequest translateToListRequest(final String nextToken) {
+  static ListNamespacesRequest translateToListRequest(final String nextToken, final int maxResults) {
     return ListNamespacesRequest.builder()
             .nextToken(nextToken)
+            .maxResults(maxResults)
             .build();
   }
 
@@ -265,7 +255,8 @@ public class Translator {
   }
 
   private static Namespace translateToModelNamespace(
-          software.amazon.awssdk.services.redshiftserverless.model.Namespace namespace) {
+          software.amazon.awssdk.services.redshiftserverless.model.Namespace namespace,
+          final List<String> iamRoles) {
 
     return Namespace.builder()
             .namespaceArn(namespace.namespaceArn())
@@ -275,7 +266,7 @@ public class Translator {
             .dbName(namespace.dbName())
             .kmsKeyId(namespace.kmsKeyId())
             .defaultIamRoleArn(namespace.defaultIamRoleArn())
-            .iamRoles(translateIamRoles(namespace.iamRoles()))
+            .iamRoles(iamRoles)
             .logExports(namespace.logExportsAsStrings())
             .status(namespace.statusAsString())
             .creationDate(namespace.creationDate() == null ? null : namespace.creationDate().toString())
@@ -289,10 +280,14 @@ public class Translator {
    * @param model resource model
    * @return putResourcePolicyRequest the service request to put a policy on resource
    */
-  static PutResourcePolicyRequest translateToPutResourcePolicy(final ResourceModel model, final String namespaceArn, Logger logger) {
+  static PutResourcePolicyRequest translateToPutResourcePolicy(final ResourceModel model, final String namespaceArn) {
+    final ResourcePolicyCodec.Result<String> policy = ResourcePolicyCodec.encode(model.getNamespaceResourcePolicy());
+    if (policy.isFailed()) {
+      throw new CfnInvalidRequestException(policy.getError());
+    }
     return PutResourcePolicyRequest.builder()
             .resourceArn(namespaceArn)
-            .policy(convertJsonToString(model.getNamespaceResourcePolicy(), logger))
+            .policy(policy.getValue())
             .build();
   }
 
@@ -308,48 +303,6 @@ public class Translator {
             .build();
   }
 
-  /**
-   * Json to String converter
-   * @param policy Policy Document Map
-   * @param logger Logger to log Json processing error
-   * @return Json converted String
-   */
-  static String convertJsonToString(Map<String, Object> policy, Logger logger) {
-    ObjectMapper mapper = new ObjectMapper();
-    String json = "";
-    try {
-      json = mapper.writeValueAsString(policy);
-    } catch (JsonProcessingException e) {
-      logger.log("Error parsing Policy Json to String");
-    }
-    return json;
-  }
-
-  /**
-   *
-   * @param policy Policy Document String
-   * @param logger Logger to log Json processing error
-   * @return Json object Map
-   */
-  static Map<String, Object> convertStringToJson(String policy, Logger logger) {
-    ObjectMapper mapper = new ObjectMapper();
-    Map<String, Object> json = null;
-    TypeReference<HashMap<String, Object>> typeRef = new TypeReference<HashMap<String, Object>>() {
-    };
-    try {
-      if (policy != null) {
-        if (policy.isEmpty()) {
-          logger.log("Empty NamespaceResourcePolicy");
-        } else {
-          json = mapper.readValue(URLDecoder.decode(policy, StandardCharsets.UTF_8.toString()), typeRef);
-        }
-      }
-    } catch (IOException e) {
-      logger.log("Error parsing Policy String to Json");
-    }
-    return json;
-  }
-
   static SnapshotCopyConfiguration translateToSnapshotCopyConfiguration(software.amazon.awssdk.services.redshiftserverless.model.SnapshotCopyConfiguration config) {
     return SnapshotCopyConfiguration.builder()
             .destinationRegion(config.destinationRegion())
@@ -6,10 +6,8 @@ import org.apache.commons.collections4.SetUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import software.amazon.awssdk.core.exception.SdkClientException;
-import software.amazon.awssdk.services.cloudwatch.model.InvalidParameterValueException;
 import software.amazon.awssdk.services.redshift.RedshiftClient;
 import software.amazon.awssdk.services.redshift.model.*;
-import software.amazon.awssdk.services.redshift.model.UnsupportedOperationException;
 import software.amazon.awssdk.services.redshiftserverless.RedshiftServerlessClient;
 import software.amazon.awssdk.services.redshiftserverless.model.DeleteSnapshotCopyConfigurationRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.DeleteSnapshotCopyConfigurationResponse;
@@ -22,16 +20,15 @@ import software.amazon.awssdk.services.redshiftserverless.model.UpdateNamespaceR
 import software.amazon.awssdk.services.redshiftserverless.model.UpdateSnapshotCopyConfigurationRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.UpdateSnapshotCopyConfigurationResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.ValidationException;
-import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
-import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
-import software.amazon.cloudformation.exceptions.CfnNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
-import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.redshiftserverless.common.HandlerLog;
+import software.amazon.redshiftserverless.common.Invocation;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -42,15 +39,17 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class UpdateHandler extends BaseHandlerStd {
+    private static final ReadHandler READ_HANDLER = new ReadHandler();
+
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
         final ResourceHandlerRequest<ResourceModel> request,
         final CallbackContext callbackContext,
         final ProxyClient<RedshiftServerlessClient> proxyClient,
         final ProxyClient<RedshiftClient> redshiftProxyClient,
-        final Logger logger) {
+        final Invocation invocation) {
 
-        this.logger = logger;
+        final HandlerLog log = invocation.getLog();
 
         final ResourceModel currentModel = request.getDesiredResourceState();
         final ResourceModel prevModel = request.getPreviousResourceState();
@@ -95,45 +94,58 @@ public class UpdateHandler extends BaseHandlerStd {
 
         final ResourceModel updateRequestModel = tempUpdateRequestModel;
         return ProgressEvent.progress(currentModel, callbackContext)
+                .then(progress -> checkpointed(invocation, "UpdateNamespace", progress, updateProgress -> {
+                    // Stack updates that only touch tags, the resource policy or snapshot copy need no UpdateNamespace
+                    if (!hasNamespaceChanges(updateRequestModel)) {
+                        log.info("UpdateNamespaceSkipped", "namespace", updateRequestModel.getNamespaceName(), "reason", "unchanged");
+                        return updateProgress;
+                    }
+                    return proxy.initiate("AWS-RedshiftServerless-Namespace::Update::first", proxyClient, updateRequestModel, updateProgress.getCallbackContext())
+                            .translateToServiceRequest(Translator::translateToUpdateRequest)
+                            .backoffDelay(UPDATE_BACKOFF_STRATEGY)
+                            .makeServiceCall(retrying(invocation, updateProgress.getCallbackContext(), this::updateNamespace))
+                            .stabilize(stabilizer(invocation, "UpdateNamespace", (_awsRequest, _awsResponse, _client, _model, _context) -> isNamespaceActive(_client, _model, _context)))
+                            .handleError(this::defaultErrorHandler)
+                            .progress();
+                }))
+                // Not a step of the ledger: a resumed update reads the namespace again, so it goes on with the same model
                 .then(progress ->
-                        proxy.initiate("AWS-RedshiftServerless-Namespace::Update::first", proxyClient, updateRequestModel, progress.getCallbackContext())
-                                .translateToServiceRequest(Translator::translateToUpdateRequest)
-                                .backoffDelay(BACKOFF_STRATEGY)
-                                .makeServiceCall(this::updateNamespace)
-                                .stabilize((_awsRequest, _awsResponse, _client, _model, _context) -> isNamespaceActive(_client, _model, _context))
-                                .handleError(this::defaultErrorHandler)
-                                .progress())
-                .then(progress -> {
-                    progress = proxy.initiate("AWS-RedshiftServerless-Namespace::ReadOnly", proxyClient, updateRequestModel, callbackContext)
+                    proxy.initiate("AWS-RedshiftServerless-Namespace::ReadOnly", proxyClient, updateRequestModel, callbackContext)
                             .translateToServiceRequest(Translator::translateToReadRequest)
-                            .makeServiceCall(this::getNamespace)
+                            .makeServiceCall(retrying(invocation, callbackContext, this::getNamespace))
                             .handleError(this::defaultErrorHandler)
                             .done(awsResponse -> {
                                 callbackContext.setNamespaceArn(awsResponse.namespace().namespaceArn());
                                 return ProgressEvent.progress(Translator.translateFromReadResponse(awsResponse), callbackContext);
-                            });
-                    return progress;
-                })
-                .then(progress -> {
+                            }))
+                .then(progress -> checkpointed(invocation, "ResourcePolicy", progress, policyProgress -> {
                     if (callbackContext.getNamespaceArn() != null && currentModel.getNamespaceResourcePolicy() != null)  {
+                        // Compare with the live policy so that stack updates that leave the policy alone don't put it again
+                        final ResourcePolicyCodec.Result<Map<String, Object>> livePolicy = getLiveResourcePolicy(redshiftProxyClient, currentModel, callbackContext, invocation);
                         if (currentModel.getNamespaceResourcePolicy().isEmpty()) {
-                            if (request.getPreviousResourceState().getNamespaceResourcePolicy() != null) {
+                            if (request.getPreviousResourceState().getNamespaceResourcePolicy() != null
+                                    && (livePolicy.isFailed() || livePolicy.isPresent())) {
                                 return proxy.initiate("AWS-Redshift-ResourcePolicy::Delete", redshiftProxyClient, updateRequestModel, callbackContext)
                                         .translateToServiceRequest(resourceModelRequest -> Translator.translateToDeleteResourcePolicyRequest(resourceModelRequest, callbackContext.getNamespaceArn()))
-                                        .makeServiceCall(this::deleteNamespaceResourcePolicy)
+                                        .makeServiceCall(retrying(invocation, callbackContext, this::deleteNamespaceResourcePolicy))
+                                        .handleError(this::defaultErrorHandler)
                                         .progress();
                             }
                         }
+                        else if (!livePolicy.isFailed() && ResourcePolicyCodec.isEquivalent(currentModel.getNamespaceResourcePolicy(), livePolicy.getValue())) {
+                            log.info("PutResourcePolicySkipped", "reason", "unchanged");
+                        }
                         else {
                             return proxy.initiate("AWS-Redshift-ResourcePolicy::Update", redshiftProxyClient, updateRequestModel, callbackContext)
-                                    .translateToServiceRequest(resourceModel -> Translator.translateToPutResourcePolicy(resourceModel, callbackContext.getNamespaceArn(), logger))
-                                    .makeServiceCall(this::putNamespaceResourcePolicy)
+                                    .translateToServiceRequest(resourceModel -> Translator.translateToPutResourcePolicy(resourceModel, callbackContext.getNamespaceArn()))
+                                    .makeServiceCall(retrying(invocation, callbackContext, this::putNamespaceResourcePolicy))
+                                    .handleError(this::defaultErrorHandler)
                                     .progress();
                         }
                     }
-                    return progress;
-                })
-                .then(progress -> {
+                    return policyProgress;
+                }))
+                .then(progress -> checkpointed(invocation, "SnapshotCopyConfigurations", progress, snapshotProgress -> {
                     // We currently only support CRC for 1 destination region per namespace
                     if (currentModel.getSnapshotCopyConfigurations() != null && currentModel.getSnapshotCopyConfigurations().size() > 1) {
                         return ProgressEvent.failed(currentModel, callbackContext, HandlerErrorCode.InvalidRequest,
@@ -149,100 +161,141 @@ public class UpdateHandler extends BaseHandlerStd {
                                     .orElse(Collections.emptyList())
                                     .stream()
                                     .collect(Collectors.toMap(SnapshotCopyConfiguration::getDestinationRegion, Function.identity())),
-                            getSnapshotCopyConfigurations(proxyClient, currentModel));
+                            getSnapshotCopyConfigurations(proxyClient, currentModel, log));
+
+                    // The diff is taken again on resume, completed steps are skipped so their calls are not repeated
+                    ProgressEvent<ResourceModel, CallbackContext> stepProgress = snapshotProgress;
+                    final List<String> steps = new ArrayList<>();
 
                     // 1. Delete snapshot copy configurations
                     for (software.amazon.awssdk.services.redshiftserverless.model.SnapshotCopyConfiguration snapshotCopyConfiguration : diff.getToDelete()) {
-                        progress = progress.then(__ -> proxy.initiate(String.format("AWS-RedshiftServerless-Namespace::DeleteSnapshotCopyConfiguration::%s", snapshotCopyConfiguration.destinationRegion()), proxyClient, currentModel, callbackContext)
+                        final String step = String.format("DeleteSnapshotCopyConfiguration::%s", snapshotCopyConfiguration.destinationRegion());
+                        steps.add(step);
+                        stepProgress = stepProgress.then(__ -> checkpointed(invocation, step, __, stepEvent -> proxy.initiate(String.format("AWS-RedshiftServerless-Namespace::%s", step), proxyClient, currentModel, callbackContext)
                                 .translateToServiceRequest((model) -> Translator.translateToDeleteSnapshotCopyConfigurationRequest(model, snapshotCopyConfiguration.snapshotCopyConfigurationId()))
-                                .makeServiceCall(this::deleteSnapshotCopyConfiguration)
-                                .handleError(this::deleteSnapshotCopyConfigurationErrorHandler)
-                                .progress());
+                                .makeServiceCall(retrying(invocation, callbackContext, this::deleteSnapshotCopyConfiguration))
+                                .handleError((_request, _exception, _client, _model, _context) ->
+                                        deleteSnapshotCopyConfigurationErrorHandler(_request, _exception, _model, _context, log))
+                                .progress()));
                     }
 
                     // 2. Update snapshot copy configurations
                     for (Map.Entry<String, SnapshotCopyConfiguration> entry : diff.getToUpdate().entrySet()) {
-                        progress = progress.then(__ -> proxy.initiate(String.format("AWS-RedshiftServerless-Namespace::UpdateSnapshotCopyConfiguration::%s", entry.getValue().getDestinationRegion()), proxyClient, currentModel, callbackContext)
+                        final String step = String.format("UpdateSnapshotCopyConfiguration::%s", entry.getValue().getDestinationRegion());
+                        steps.add(step);
+                        stepProgress = stepProgress.then(__ -> checkpointed(invocation, step, __, stepEvent -> proxy.initiate(String.format("AWS-RedshiftServerless-Namespace::%s", step), proxyClient, currentModel, callbackContext)
                                 .translateToServiceRequest((model) -> Translator.translateToUpdateSnapshotCopyConfigurationRequest(model, entry.getKey(), entry.getValue()))
-                                .makeServiceCall(this::updateSnapshotCopyConfiguration)
+                                .makeServiceCall(retrying(invocation, callbackContext, this::updateSnapshotCopyConfiguration))
                                 .handleError(this::defaultErrorHandler)
-                                .progress());
+                                .progress()));
                     }
 
                     // 3. Create snapshot copy configurations
                     for (SnapshotCopyConfiguration snapshotCopyConfiguration : diff.getToCreate()) {
-                        progress = progress.then(__ -> proxy.initiate(String.format("AWS-RedshiftServerless-Namespace::CreateSnapshotCopyConfiguration::%s", snapshotCopyConfiguration.getDestinationRegion()), proxyClient, currentModel, callbackContext)
+                        final String step = String.format("CreateSnapshotCopyConfiguration::%s", snapshotCopyConfiguration.getDestinationRegion());
+                        steps.add(step);
+                        stepProgress = stepProgress.then(__ -> checkpointed(invocation, step, __, stepEvent -> proxy.initiate(String.format("AWS-RedshiftServerless-Namespace::%s", step), proxyClient, currentModel, callbackContext)
                                 .translateToServiceRequest((model) -> Translator.translateToCreateSnapshotCopyConfigurationRequest(model, snapshotCopyConfiguration))
-                                .makeServiceCall(this::createSnapshotCopyConfiguration)
+                                .makeServiceCall(retryingCreate(invocation, callbackContext, this::createSnapshotCopyConfiguration))
                                 .handleError(this::defaultErrorHandler)
-                                .progress());
+                                .done((_request, _response, _client, _model, _context) -> {
+                                    _context.completeStep(step, _response.snapshotCopyConfiguration() == null ? null : _response.snapshotCopyConfiguration().snapshotCopyConfigurationId());
+                                    return ProgressEvent.progress(_model, _context);
+                                })));
                     }
 
-                    return progress;
-                })
-                .then(progress -> new ReadHandler().handleRequest(proxy, request, callbackContext, proxyClient, redshiftProxyClient, logger));
+                    // Once all of them went through, the entry of this step covers theirs
+                    return stepProgress.then(completed -> {
+                        callbackContext.forgetSteps(steps);
+                        return completed;
+                    });
+                }))
+                .then(progress -> READ_HANDLER.handleRequest(proxy, request, callbackContext, proxyClient, redshiftProxyClient, invocation));
+    }
+
+    /**
+     * @param updateRequestModel resource model holding only the properties that changed since the previous state
+     * @return true if an UpdateNamespace call would change anything
+     */
+    private static boolean hasNamespaceChanges(final ResourceModel updateRequestModel) {
+        return updateRequestModel.getAdminUserPassword() != null
+                || updateRequestModel.getAdminUsername() != null
+                || updateRequestModel.getKmsKeyId() != null
+                || updateRequestModel.getDefaultIamRoleArn() != null
+                || updateRequestModel.getIamRoles() != null
+                || updateRequestModel.getLogExports() != null
+                || updateRequestModel.getManageAdminPassword() != null
+                || updateRequestModel.getAdminPasswordSecretKmsKeyId() != null;
     }
 
     private UpdateNamespaceResponse updateNamespace(final UpdateNamespaceRequest updateNamespaceRequest,
-                                                    final ProxyClient<RedshiftServerlessClient> proxyClient) {
+                                                    final ProxyClient<RedshiftServerlessClient> proxyClient,
+                                                    final HandlerLog log) {
         UpdateNamespaceResponse updateNamespaceResponse = null;
 
-        logger.log(String.format("%s %s updateNamespace.", ResourceModel.TYPE_NAME, updateNamespaceRequest.namespaceName()));
+        log.debug("UpdatingNamespace", "request", updateNamespaceRequest);
         updateNamespaceResponse = proxyClient.injectCredentialsAndInvokeV2(updateNamespaceRequest, proxyClient.client()::updateNamespace);
-        logger.log(String.format("%s %s update namespace issued.", ResourceModel.TYPE_NAME,
-                updateNamespaceRequest.namespaceName()));
+        log.info("NamespaceUpdated", "namespace", updateNamespaceRequest.namespaceName());
         return updateNamespaceResponse;
     }
 
     private GetNamespaceResponse getNamespace(final GetNamespaceRequest getNamespaceRequest,
-                                              final ProxyClient<RedshiftServerlessClient> proxyClient) {
+                                              final ProxyClient<RedshiftServerlessClient> proxyClient,
+                                              final HandlerLog log) {
         GetNamespaceResponse getNamespaceResponse = null;
 
-        logger.log(String.format("%s %s getNamespaces.", ResourceModel.TYPE_NAME, getNamespaceRequest.namespaceName()));
         getNamespaceResponse = proxyClient.injectCredentialsAndInvokeV2(getNamespaceRequest, proxyClient.client()::getNamespace);
-        logger.log(String.format("%s %s has successfully been read.", ResourceModel.TYPE_NAME, getNamespaceRequest.namespaceName()));
+        log.info("NamespaceRead", "namespace", getNamespaceRequest.namespaceName(),
+                "status", getNamespaceResponse.namespace() == null ? null : getNamespaceResponse.namespace().statusAsString());
+        log.debug("NamespaceRead", "response", getNamespaceResponse);
         return getNamespaceResponse;
     }
 
     private PutResourcePolicyResponse putNamespaceResourcePolicy(
             final PutResourcePolicyRequest putRequest,
-            final ProxyClient<RedshiftClient> proxyClient) {
-        PutResourcePolicyResponse putResponse = null;
+            final ProxyClient<RedshiftClient> proxyClient,
+            final HandlerLog log) {
+        PutResourcePolicyResponse putResponse = proxyClient.injectCredentialsAndInvokeV2(putRequest, proxyClient.client()::putResourcePolicy);
 
-        try {
-            putResponse = proxyClient.injectCredentialsAndInvokeV2(putRequest, proxyClient.client()::putResourcePolicy);
-        } catch (ResourceNotFoundException e){
-            throw new CfnNotFoundException(e);
-        } catch (InvalidPolicyException | UnsupportedOperationException | InvalidParameterValueException e) {
-            throw new CfnInvalidRequestException(ResourceModel.TYPE_NAME, e);
-        } catch (SdkClientException | RedshiftException  e) {
-            throw new CfnGeneralServiceException(ResourceModel.TYPE_NAME, e);
-        }
-
-        logger.log(String.format("%s successfully put resource policy.", ResourceModel.TYPE_NAME));
+        log.info("ResourcePolicyPut", "resourceArn", putRequest.resourceArn());
         return putResponse;
     }
 
     private DeleteResourcePolicyResponse deleteNamespaceResourcePolicy(
             final DeleteResourcePolicyRequest deleteRequest,
-            final ProxyClient<RedshiftClient> proxyClient) {
-        DeleteResourcePolicyResponse deleteResponse = null;
-
-        try{
-            deleteResponse = proxyClient.injectCredentialsAndInvokeV2(deleteRequest, proxyClient.client()::deleteResourcePolicy);
-        } catch (ResourceNotFoundException e){
-            throw new CfnNotFoundException(e);
-        } catch ( UnsupportedOperationException e) {
-            throw new CfnInvalidRequestException(ResourceModel.TYPE_NAME, e);
-        } catch (SdkClientException | RedshiftException e) {
-            throw new CfnGeneralServiceException(ResourceModel.TYPE_NAME, e);
-        }
+            final ProxyClient<RedshiftClient> proxyClient,
+            final HandlerLog log) {
+        DeleteResourcePolicyResponse deleteResponse = proxyClient.injectCredentialsAndInvokeV2(deleteRequest, proxyClient.client()::deleteResourcePolicy);
 
-        logger.log(String.format("%s successfully deleted resource policy.", ResourceModel.TYPE_NAME));
+        log.info("ResourcePolicyDeleted", "resourceArn", deleteRequest.resourceArn());
         return deleteResponse;
     }
 
-    private Map<String, software.amazon.awssdk.services.redshiftserverless.model.SnapshotCopyConfiguration> getSnapshotCopyConfigurations(final ProxyClient<RedshiftServerlessClient> proxyClient, ResourceModel model) {
+    /**
+     * Reads the policy currently attached to the namespace, retrying throttled and failed (5xx) reads. A namespace
+     * without a policy reads as an empty result; any other error is returned as a failed result so the caller falls back
+     * to writing the desired policy, as it did before the comparison existed.
+     */
+    private ResourcePolicyCodec.Result<Map<String, Object>> getLiveResourcePolicy(final ProxyClient<RedshiftClient> proxyClient,
+                                                                                  final ResourceModel model,
+                                                                                  final CallbackContext callbackContext,
+                                                                                  final Invocation invocation) {
+        final String namespaceArn = callbackContext.getNamespaceArn();
+        final GetResourcePolicyResponse getResponse;
+        try {
+            getResponse = retrying(invocation, callbackContext, (GetResourcePolicyRequest awsRequest, ProxyClient<RedshiftClient> client) ->
+                    client.injectCredentialsAndInvokeV2(awsRequest, client.client()::getResourcePolicy))
+                    .apply(Translator.translateToGetResourcePolicy(model, namespaceArn), proxyClient);
+        } catch (final software.amazon.awssdk.services.redshift.model.ResourceNotFoundException e) {
+            return ResourcePolicyCodec.Result.empty();
+        } catch (final SdkClientException | RedshiftException e) {
+            invocation.getLog().warn("ResourcePolicyUnreadable", "resourceArn", namespaceArn, "error", e.getMessage());
+            return ResourcePolicyCodec.Result.failed(e.getMessage());
+        }
+        return ResourcePolicyCodec.decode(getResponse.resourcePolicy() == null ? null : getResponse.resourcePolicy().policy());
+    }
+
+    private Map<String, software.amazon.awssdk.services.redshiftserverless.model.SnapshotCopyConfiguration> getSnapshotCopyConfigurations(final ProxyClient<RedshiftServerlessClient> proxyClient, ResourceModel model, final HandlerLog log) {
         try {
             ListSnapshotCopyConfigurationsResponse listResponse = proxyClient.injectCredentialsAndInvokeV2(Translator.translateToListSnapshotCopyConfigurationsRequest(model),
                     proxyClient.client()::listSnapshotCopyConfigurations);
@@ -250,7 +303,7 @@ public class UpdateHandler extends BaseHandlerStd {
                     .collect(Collectors.toMap(software.amazon.awssdk.services.redshiftserverless.model.SnapshotCopyConfiguration::destinationRegion, Function.identity()));
         } catch (Exception ex) {
             if (ex instanceof ValidationException) {
-                logger.log(String.format("CRC feature is not enabled for this region: %s", ex.getMessage()));
+                log.info("SnapshotCopyConfigurationsIgnored", "reason", "notSupportedInRegion", "error", ex.getMessage());
                 return Collections.emptyMap();
             }
             throw ex;
@@ -258,28 +311,30 @@ public class UpdateHandler extends BaseHandlerStd {
     }
 
     private UpdateSnapshotCopyConfigurationResponse updateSnapshotCopyConfiguration(final UpdateSnapshotCopyConfigurationRequest updateRequest,
-                                                                                    final ProxyClient<RedshiftServerlessClient> proxyClient) {
+                                                                                    final ProxyClient<RedshiftServerlessClient> proxyClient,
+                                                                                    final HandlerLog log) {
         UpdateSnapshotCopyConfigurationResponse updateResponse = proxyClient.injectCredentialsAndInvokeV2(updateRequest, proxyClient.client()::updateSnapshotCopyConfiguration);
-        logger.log(String.format("Updated snapshot copy configuration for %s %s in destination region %s.", ResourceModel.TYPE_NAME,
-                updateResponse.snapshotCopyConfiguration().namespaceName(), updateResponse.snapshotCopyConfiguration().destinationRegion()));
+        log.info("SnapshotCopyConfigurationUpdated", "namespace", updateResponse.snapshotCopyConfiguration().namespaceName(),
+                "destinationRegion", updateResponse.snapshotCopyConfiguration().destinationRegion());
         return updateResponse;
     }
 
     private DeleteSnapshotCopyConfigurationResponse deleteSnapshotCopyConfiguration(final DeleteSnapshotCopyConfigurationRequest deleteRequest,
-                                                                                    final ProxyClient<RedshiftServerlessClient> proxyClient) {
+                                                                                    final ProxyClient<RedshiftServerlessClient> proxyClient,
+                                                                                    final HandlerLog log) {
         DeleteSnapshotCopyConfigurationResponse deleteResponse = proxyClient.injectCredentialsAndInvokeV2(deleteRequest, proxyClient.client()::deleteSnapshotCopyConfiguration);
-        logger.log(String.format("Deleted snapshot copy configuration for %s %s in destination region %s.", ResourceModel.TYPE_NAME,
-                deleteResponse.snapshotCopyConfiguration().namespaceName(), deleteResponse.snapshotCopyConfiguration().destinationRegion()));
+        log.info("SnapshotCopyConfigurationDeleted", "namespace", deleteResponse.snapshotCopyConfiguration().namespaceName(),
+                "destinationRegion", deleteResponse.snapshotCopyConfiguration().destinationRegion());
         return deleteResponse;
     }
 
     private ProgressEvent<ResourceModel, CallbackContext> deleteSnapshotCopyConfigurationErrorHandler(final DeleteSnapshotCopyConfigurationRequest request,
                                                                                                       final Exception exception,
-                                                                                                      final ProxyClient<RedshiftServerlessClient> client,
                                                                                                       final ResourceModel model,
-                                                                                                      final CallbackContext context) {
+                                                                                                      final CallbackContext context,
+                                                                                                      final HandlerLog log) {
         if (exception instanceof ResourceNotFoundException) {
-            logger.log(String.format("Snapshot copy configuration id %s does not exist.", request.snapshotCopyConfigurationId()));
+            log.info("SnapshotCopyConfigurationNotFound", "snapshotCopyConfigurationId", request.snapshotCopyConfigurationId());
             return ProgressEvent.defaultInProgressHandler(context, 0, model);
         }
         return errorHandler(exception);
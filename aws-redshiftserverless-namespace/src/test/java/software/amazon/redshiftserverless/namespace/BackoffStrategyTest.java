@@ -0,0 +1,61 @@
+package software.amazon.redshiftserverless.namespace;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.proxy.Delay;
+import software.amazon.cloudformation.proxy.delay.Constant;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BackoffStrategyTest {
+
+    @Test
+    public void profiles_PollLessThanConstantDelay() {
+        final Delay previousStrategy = Constant.of().timeout(Duration.ofMinutes(30L)).delay(Duration.ofSeconds(10L)).build();
+
+        // A namespace update that is applied almost immediately is still noticed quickly
+        final SimulatedService quickUpdate = new SimulatedService(Duration.ofSeconds(3L));
+        assertThat(quickUpdate.pollUntilStable(BaseHandlerStd.UPDATE_BACKOFF_STRATEGY)).isTrue();
+        assertThat(quickUpdate.polls).isEqualTo(3);
+        assertThat(quickUpdate.elapsed).isLessThan(Duration.ofSeconds(10L));
+
+        // A namespace creation that takes 15 minutes
+        final SimulatedService previousCreate = new SimulatedService(Duration.ofMinutes(15L));
+        final SimulatedService create = new SimulatedService(Duration.ofMinutes(15L));
+        assertThat(previousCreate.pollUntilStable(previousStrategy)).isTrue();
+        assertThat(create.pollUntilStable(BaseHandlerStd.CREATE_BACKOFF_STRATEGY)).isTrue();
+        assertThat(previousCreate.polls).isEqualTo(91);
+        assertThat(create.polls).isLessThan(45);
+        // The state change is noticed at most one maximum delay late
+        assertThat(create.elapsed).isLessThan(Duration.ofMinutes(15L).plusSeconds(37L));
+    }
+
+    /**
+     * Service that reaches its target state a fixed time after the operation started, polled the way the call chain
+     * does: once right away, then again after every delay until it is stable or the delay gives up.
+     */
+    private static class SimulatedService {
+        private final Duration stableAfter;
+        private Duration elapsed = Duration.ZERO;
+        private int polls = 0;
+
+        private SimulatedService(final Duration stableAfter) {
+            this.stableAfter = stableAfter;
+        }
+
+        private boolean pollUntilStable(final Delay delay) {
+            for (int attempt = 1; ; attempt++) {
+                polls++;
+                if (elapsed.compareTo(stableAfter) >= 0) {
+                    return true;
+                }
+                final Duration nextDelay = delay.nextDelay(attempt);
+                if (nextDelay.isZero()) {
+                    return false;
+                }
+                elapsed = elapsed.plus(nextDelay);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package software.amazon.redshiftserverless.namespace;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.redshiftserverless.model.CreateNamespaceRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.CreateNamespaceResponse;
+import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceResponse;
+import software.amazon.awssdk.services.redshiftserverless.model.Namespace;
+import software.amazon.awssdk.services.redshiftserverless.model.NamespaceStatus;
+import software.amazon.cloudformation.resource.Serializer;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class CallbackContextTest {
+    private static final String CREATE = "AWS-RedshiftServerless-Namespace::Create";
+    private static final String READ = "AWS-RedshiftServerless-Namespace::Read";
+    private static final String ADMIN_USER_PASSWORD = "Sup3rSecretPassw0rd";
+
+    private final Serializer serializer = new Serializer();
+
+    @Test
+    public void serialize_KeepsTheLedgerAndCompletedMutationsOnly() throws Exception {
+        final CallbackContext context = new CallbackContext();
+        context.request(CREATE, model -> CreateNamespaceRequest.builder()
+                .namespaceName("namespace")
+                .adminUsername("admin")
+                .adminUserPassword(ADMIN_USER_PASSWORD)
+                .build()).apply(null);
+        context.response(CREATE, (request, client) -> CreateNamespaceResponse.builder().namespace(fullNamespace()).build()).apply(null, null);
+        context.request(READ, model -> GetNamespaceRequest.builder().namespaceName("namespace").build()).apply(null);
+        context.response(READ, (request, client) -> GetNamespaceResponse.builder().namespace(fullNamespace()).build()).apply(null, null);
+        context.setNamespaceArn(fullNamespace().namespaceArn());
+        context.completeStep("CreateNamespace", null);
+        context.completeStep("CreateSnapshotCopyConfiguration::us-west-2", "snap-id-1234");
+
+        final String payload = serializer.serialize(context);
+        final CallbackContext restored = serializer.deserialize(payload, new TypeReference<CallbackContext>() {});
+
+        assertThat(payload).doesNotContain(ADMIN_USER_PASSWORD).doesNotContain("IamRole");
+        assertThat(restored.callGraphs()).containsOnlyKeys(CREATE + ".response");
+        final Namespace namespace = ((CreateNamespaceResponse) restored.callGraphs().get(CREATE + ".response")).namespace();
+        assertThat(namespace.namespaceArn()).isEqualTo(fullNamespace().namespaceArn());
+        assertThat(namespace.adminPasswordSecretArn()).isEqualTo(fullNamespace().adminPasswordSecretArn());
+        assertThat(restored.getNamespaceArn()).isEqualTo(fullNamespace().namespaceArn());
+        assertThat(restored.getCompletedSteps()).containsExactly(
+                entry("CreateNamespace", ""),
+                entry("CreateSnapshotCopyConfiguration::us-west-2", "snap-id-1234"));
+    }
+
+    @Test
+    public void serialize_LeavesDefaultsOut() throws Exception {
+        assertThat(serializer.serialize(new CallbackContext())).isEqualTo("{}");
+    }
+
+    private static Namespace fullNamespace() {
+        return Namespace.builder()
+                .namespaceName("namespace")
+                .namespaceId("7d1c0f2e-3b4a-4c5d-9e8f-0a1b2c3d4e5f")
+                .namespaceArn("arn:aws:redshift-serverless:us-east-1:123456789012:namespace/7d1c0f2e-3b4a-4c5d-9e8f-0a1b2c3d4e5f")
+                .status(NamespaceStatus.AVAILABLE)
+                .adminUsername("admin")
+                .dbName("dev")
+                .adminPasswordSecretArn("arn:aws:secretsmanager:us-east-1:123456789012:secret:redshift!namespace-admin-AbCdEf")
+                .iamRoles(Arrays.asList(
+                        "IamRole(applyStatus=in-sync, iamRoleArn=arn:aws:iam::123456789012:role/first)",
+                        "IamRole(applyStatus=in-sync, iamRoleArn=arn:aws:iam::123456789012:role/second)"))
+                .logExportsWithStrings("useractivitylog", "userlog", "connectionlog")
+                .build();
+    }
+}
@@ -5,20 +5,26 @@ import java.util.Collections;
 
 import software.amazon.awssdk.services.redshift.RedshiftClient;
 import software.amazon.awssdk.services.redshift.model.GetResourcePolicyRequest;
+import software.amazon.awssdk.services.redshift.model.InvalidPolicyException;
 import software.amazon.awssdk.services.redshift.model.PutResourcePolicyRequest;
+import software.amazon.awssdk.services.redshift.model.RedshiftException;
 import software.amazon.awssdk.services.redshiftserverless.RedshiftServerlessClient;
+import software.amazon.awssdk.services.redshiftserverless.model.ConflictException;
 import software.amazon.awssdk.services.redshiftserverless.model.CreateNamespaceRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.CreateSnapshotCopyConfigurationRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.CreateSnapshotCopyConfigurationResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.InternalServerException;
 import software.amazon.awssdk.services.redshiftserverless.model.ListSnapshotCopyConfigurationsRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.ListSnapshotCopyConfigurationsResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.SnapshotCopyConfiguration;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.redshiftserverless.common.MemoizingProxyClient;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,6 +33,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -90,6 +97,46 @@ public class CreateHandlerTest extends AbstractTestBase {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    public void handleRequest_MemoizedClientReadsNamespaceOnce() {
+        final CreateHandler handler = new CreateHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(getCreateRequestResourceModel())
+            .build();
+        when(proxyClient.client().createNamespace(any(CreateNamespaceRequest.class))).thenReturn(getCreateResponseSdk());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
+        when(proxyClient.client().listSnapshotCopyConfigurations(any(ListSnapshotCopyConfigurationsRequest.class))).thenReturn(getSnapshotCopyConfigurationsResponseSdk());
+        when(redshiftProxyClient.client().getResourcePolicy(any(GetResourcePolicyRequest.class))).thenReturn(getEmptyResourcePolicyResponseSdk());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(),
+                MemoizingProxyClient.memoize(proxyClient), MemoizingProxyClient.memoize(redshiftProxyClient), logger);
+
+        // The stabilizer's GetNamespace is reused by the read that ends Create
+        verify(proxyClient.client()).getNamespace(any(GetNamespaceRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(getCreateResponseResourceModel());
+    }
+
+    @Test
+    public void handleRequest_CreateThatFailedOnTheServiceSideIsNotRetried() {
+        final CreateHandler handler = new CreateHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(getCreateRequestResourceModel())
+            .build();
+        // A retry would find the namespace that the failed call created
+        when(proxyClient.client().createNamespace(any(CreateNamespaceRequest.class)))
+            .thenThrow(InternalServerException.builder().statusCode(500).build())
+            .thenThrow(ConflictException.builder().statusCode(409).message("Namespace already exists").build());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, redshiftProxyClient, logger);
+
+        verify(proxyClient.client(), times(1)).createNamespace(any(CreateNamespaceRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ServiceInternalError);
+    }
+
     @Test
     public void testPutNamespaceResourcePolicy() {
         final CreateHandler handler = new CreateHandler();
@@ -97,8 +144,8 @@ public class CreateHandlerTest extends AbstractTestBase {
         final ResourceModel requestResourceModel = getCreateRequestResourceModel();
         final ResourceModel responseResourceModel = getCreateResponseResourceModel();
 
-        requestResourceModel.setNamespaceResourcePolicy(Translator.convertStringToJson(NAMESPACE_RESOURCE_POLICY_DOCUMENT, logger));
-        responseResourceModel.setNamespaceResourcePolicy(Translator.convertStringToJson(NAMESPACE_RESOURCE_POLICY_DOCUMENT, logger));
+        requestResourceModel.setNamespaceResourcePolicy(ResourcePolicyCodec.decode(NAMESPACE_RESOURCE_POLICY_DOCUMENT).getValue());
+        responseResourceModel.setNamespaceResourcePolicy(ResourcePolicyCodec.decode(NAMESPACE_RESOURCE_POLICY_DOCUMENT).getValue());
 
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
                 .desiredResourceState(requestResourceModel)
@@ -120,6 +167,52 @@ public class CreateHandlerTest extends AbstractTestBase {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    public void testPutNamespaceResourcePolicy_RetriesServiceErrors() {
+        final CreateHandler handler = new CreateHandler();
+
+        final ResourceModel requestResourceModel = getCreateRequestResourceModel();
+        requestResourceModel.setNamespaceResourcePolicy(ResourcePolicyCodec.decode(NAMESPACE_RESOURCE_POLICY_DOCUMENT).getValue());
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestResourceModel)
+                .build();
+        when(proxyClient.client().createNamespace(any(CreateNamespaceRequest.class))).thenReturn(getCreateResponseSdk());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
+        when(proxyClient.client().listSnapshotCopyConfigurations(any(ListSnapshotCopyConfigurationsRequest.class))).thenReturn(getSnapshotCopyConfigurationsResponseSdk());
+        when(redshiftProxyClient.client().putResourcePolicy(any(PutResourcePolicyRequest.class)))
+                .thenThrow(RedshiftException.builder().statusCode(503).build())
+                .thenReturn(putResourcePolicyResponseSdk());
+        when(redshiftProxyClient.client().getResourcePolicy(any(GetResourcePolicyRequest.class))).thenReturn(getResourcePolicyResponseSdk());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, redshiftProxyClient, logger);
+
+        verify(redshiftProxyClient.client(), times(2)).putResourcePolicy(any(PutResourcePolicyRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+    }
+
+    @Test
+    public void testPutNamespaceResourcePolicy_InvalidPolicyFails() {
+        final CreateHandler handler = new CreateHandler();
+
+        final ResourceModel requestResourceModel = getCreateRequestResourceModel();
+        requestResourceModel.setNamespaceResourcePolicy(ResourcePolicyCodec.decode(NAMESPACE_RESOURCE_POLICY_DOCUMENT).getValue());
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestResourceModel)
+                .build();
+        when(proxyClient.client().createNamespace(any(CreateNamespaceRequest.class))).thenReturn(getCreateResponseSdk());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
+        when(redshiftProxyClient.client().putResourcePolicy(any(PutResourcePolicyRequest.class)))
+                .thenThrow(InvalidPolicyException.builder().statusCode(400).message("Invalid policy").build());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, redshiftProxyClient, logger);
+
+        verify(redshiftProxyClient.client(), times(1)).putResourcePolicy(any(PutResourcePolicyRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
+    }
+
     @Test
     public void testCreateNamespace_ManagedAdminPassword() {
         final CreateHandler handler = new CreateHandler();
@@ -201,4 +294,48 @@ public class CreateHandlerTest extends AbstractTestBase {
         assertThat(response.getErrorCode()).isNull();
 
     }
+
+    @Test
+    public void handleRequest_ResumesAfterTheCompletedStepsOfTheLedger() {
+        final CreateHandler handler = new CreateHandler();
+
+        final ResourceModel requestResourceModel = getCreateRequestResourceModel().toBuilder()
+                .snapshotCopyConfigurations(Collections.singletonList(software.amazon.redshiftserverless.namespace.SnapshotCopyConfiguration.builder().destinationRegion("us-west-2").build()))
+                .build();
+        final SnapshotCopyConfiguration snapshotCopyConfiguration = SnapshotCopyConfiguration.builder()
+                .snapshotCopyConfigurationId("snap-id-1234")
+                .destinationRegion("us-west-2")
+                .namespaceName(requestResourceModel.getNamespaceName())
+                .destinationKmsKeyId("AWS_OWNED_KMS_KEY")
+                .snapshotRetentionPeriod(-1)
+                .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestResourceModel)
+                .build();
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
+        when(proxyClient.client().createSnapshotCopyConfiguration(any(CreateSnapshotCopyConfigurationRequest.class)))
+                .thenReturn(CreateSnapshotCopyConfigurationResponse.builder()
+                        .snapshotCopyConfiguration(snapshotCopyConfiguration)
+                        .build());
+        when(proxyClient.client().listSnapshotCopyConfigurations(any(ListSnapshotCopyConfigurationsRequest.class)))
+                .thenReturn(ListSnapshotCopyConfigurationsResponse.builder()
+                        .snapshotCopyConfigurations(Collections.singletonList(snapshotCopyConfiguration))
+                        .build());
+        when(redshiftProxyClient.client().getResourcePolicy(any(GetResourcePolicyRequest.class))).thenReturn(getEmptyResourcePolicyResponseSdk());
+
+        // An earlier invocation created the namespace, then ran out of time
+        final CallbackContext callbackContext = new CallbackContext();
+        callbackContext.setNamespaceArn(NAMESPACE_ARN);
+        callbackContext.completeStep("CreateNamespace", null);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, callbackContext, proxyClient, redshiftProxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(proxyClient.client(), never()).createNamespace(any(CreateNamespaceRequest.class));
+        verify(proxyClient.client(), times(1)).createSnapshotCopyConfiguration(any(CreateSnapshotCopyConfigurationRequest.class));
+        assertThat(callbackContext.getCompletedSteps()).containsExactly(
+                entry("CreateNamespace", ""),
+                entry("CreateSnapshotCopyConfiguration::us-west-2", "snap-id-1234"));
+    }
 }
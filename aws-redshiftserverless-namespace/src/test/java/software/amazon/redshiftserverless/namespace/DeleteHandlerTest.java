@@ -1,17 +1,30 @@
 package software.amazon.redshiftserverless.namespace;
 
 import java.time.Duration;
+import java.time.Instant;
 
+import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.services.redshift.RedshiftClient;
 import software.amazon.awssdk.services.redshiftserverless.RedshiftServerlessClient;
 import software.amazon.awssdk.services.redshiftserverless.model.DeleteNamespaceRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.DeleteNamespaceResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceResponse;
+import software.amazon.awssdk.services.redshiftserverless.model.Namespace;
 import software.amazon.awssdk.services.redshiftserverless.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
+import software.amazon.awssdk.services.secretsmanager.model.DescribeSecretRequest;
+import software.amazon.awssdk.services.secretsmanager.model.DescribeSecretResponse;
+import software.amazon.awssdk.services.secretsmanager.model.SecretsManagerException;
+import software.amazon.cloudformation.exceptions.CfnNotStabilizedException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.redshiftserverless.common.Invocation;
+import software.amazon.redshiftserverless.common.RetryAfterException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,8 +33,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -45,6 +60,14 @@ public class DeleteHandlerTest extends AbstractTestBase {
     @Mock
     RedshiftClient redshiftSdkClient;
 
+    @Mock
+    private ProxyClient<SecretsManagerClient> secretsManagerProxyClient;
+
+    @Mock
+    SecretsManagerClient secretsManagerSdkClient;
+
+    private static final String ADMIN_PASSWORD_SECRET_ARN = "arn:aws:secretsmanager:us-east-1:123456789012:secret:redshift!namespace-admin-AbCdEf";
+
     @BeforeEach
     public void setup() {
         proxy = new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS, () -> Duration.ofSeconds(600).toMillis());
@@ -53,6 +76,9 @@ public class DeleteHandlerTest extends AbstractTestBase {
 
         redshiftSdkClient = mock(RedshiftClient.class);
         redshiftProxyClient = MOCK_PROXY(proxy, redshiftSdkClient);
+
+        secretsManagerSdkClient = mock(SecretsManagerClient.class);
+        secretsManagerProxyClient = MOCK_PROXY(proxy, secretsManagerSdkClient);
     }
 
     @AfterEach
@@ -84,4 +110,210 @@ public class DeleteHandlerTest extends AbstractTestBase {
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
     }
+
+    @Test
+    public void handleRequest_CallsBackWhileNamespaceIsDeletingAndResumesWithoutDeletingAgain() {
+        final DeleteHandler handler = new DeleteHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(getDeleteRequestResourceModel())
+            .build();
+
+        when(proxyClient.client().deleteNamespace(any(DeleteNamespaceRequest.class))).thenReturn(getDeleteResponseSdk());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class)))
+                .thenReturn(GetNamespaceResponse.builder().namespace(Namespace.builder().namespaceName(NAMESPACE_NAME).build()).build())
+                .thenThrow(ResourceNotFoundException.class);
+
+        final CallbackContext callbackContext = new CallbackContext();
+        assertThatThrownBy(() -> handler.handleRequest(proxy, request, callbackContext, proxyClient, redshiftProxyClient, logger))
+                .isInstanceOf(RetryAfterException.class)
+                .satisfies(e -> {
+                    assertThat(((RetryAfterException) e).getErrorCode()).isEqualTo(HandlerErrorCode.NotStabilized);
+                    assertThat(((RetryAfterException) e).getRetryAfterSeconds()).isBetween(4, 6);
+                });
+        assertThat(callbackContext.getStabilizingStage()).isEqualTo("DeleteNamespace");
+        assertThat(callbackContext.getStabilizationPolls()).isEqualTo(1);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, callbackContext, proxyClient, redshiftProxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(callbackContext.getStabilizingStage()).isNull();
+        assertThat(callbackContext.getStabilizationPolls()).isZero();
+        verify(proxyClient.client(), times(1)).deleteNamespace(any(DeleteNamespaceRequest.class));
+        verify(proxyClient.client(), times(2)).getNamespace(any(GetNamespaceRequest.class));
+    }
+
+    @Test
+    public void handleRequest_FailsAsNotStabilizedOnceThePollScheduleRunsOut() {
+        final DeleteHandler handler = new DeleteHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(getDeleteRequestResourceModel())
+            .build();
+
+        when(proxyClient.client().deleteNamespace(any(DeleteNamespaceRequest.class))).thenReturn(getDeleteResponseSdk());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class)))
+                .thenReturn(GetNamespaceResponse.builder().namespace(Namespace.builder().namespaceName(NAMESPACE_NAME).build()).build());
+
+        final CallbackContext callbackContext = new CallbackContext();
+        callbackContext.setStabilizingStage("DeleteNamespace");
+        callbackContext.setStabilizationPolls(1000);
+
+        assertThatThrownBy(() -> handler.handleRequest(proxy, request, callbackContext, proxyClient, redshiftProxyClient, logger))
+                .isInstanceOf(CfnNotStabilizedException.class);
+        verify(proxyClient.client()).deleteNamespace(any(DeleteNamespaceRequest.class));
+        verify(proxyClient.client()).getNamespace(any(GetNamespaceRequest.class));
+    }
+
+    @Test
+    public void handleRequest_WaitsForAdminPasswordSecretDeletion() {
+        final DeleteHandler handler = new DeleteHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(getDeleteRequestResourceModel())
+            .build();
+
+        when(proxyClient.client().deleteNamespace(any(DeleteNamespaceRequest.class))).thenReturn(DeleteNamespaceResponse.builder()
+                .namespace(Namespace.builder().namespaceName(NAMESPACE_NAME).adminPasswordSecretArn(ADMIN_PASSWORD_SECRET_ARN).build())
+                .build());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class)))
+                .thenThrow(ResourceNotFoundException.class);
+        when(secretsManagerProxyClient.client().describeSecret(any(DescribeSecretRequest.class)))
+                .thenReturn(DescribeSecretResponse.builder().arn(ADMIN_PASSWORD_SECRET_ARN).build())
+                .thenThrow(software.amazon.awssdk.services.secretsmanager.model.ResourceNotFoundException.builder().build());
+
+        final CallbackContext callbackContext = new CallbackContext();
+        ProgressEvent<ResourceModel, CallbackContext> response = handler.handleDeleteRequest(proxy, request, callbackContext, proxyClient, secretsManagerProxyClient, Invocation.of(logger));
+
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(DeleteHandler.SECRET_DELETION_CALLBACK_DELAY_SECONDS);
+        assertThat(response.getCallbackContext().getAdminPasswordSecretArn()).isEqualTo(ADMIN_PASSWORD_SECRET_ARN);
+        assertThat(response.getCallbackContext().getSecretDeletionChecks()).isEqualTo(1);
+
+        response = handler.handleDeleteRequest(proxy, request, response.getCallbackContext(), proxyClient, secretsManagerProxyClient, Invocation.of(logger));
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isNull();
+        verify(proxyClient.client()).deleteNamespace(any(DeleteNamespaceRequest.class));
+        verify(secretsManagerProxyClient.client(), times(2)).describeSecret(any(DescribeSecretRequest.class));
+    }
+
+    @Test
+    public void handleRequest_StopsWaitingForAdminPasswordSecretAfterMaxChecks() {
+        final DeleteHandler handler = new DeleteHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(getDeleteRequestResourceModel())
+            .build();
+
+        when(proxyClient.client().deleteNamespace(any(DeleteNamespaceRequest.class))).thenReturn(DeleteNamespaceResponse.builder()
+                .namespace(Namespace.builder().namespaceName(NAMESPACE_NAME).adminPasswordSecretArn(ADMIN_PASSWORD_SECRET_ARN).build())
+                .build());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class)))
+                .thenThrow(ResourceNotFoundException.class);
+        when(secretsManagerProxyClient.client().describeSecret(any(DescribeSecretRequest.class)))
+                .thenReturn(DescribeSecretResponse.builder().arn(ADMIN_PASSWORD_SECRET_ARN).build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response = handler.handleDeleteRequest(proxy, request, new CallbackContext(), proxyClient, secretsManagerProxyClient, Invocation.of(logger));
+        while (response.isInProgress()) {
+            response = handler.handleDeleteRequest(proxy, request, response.getCallbackContext(), proxyClient, secretsManagerProxyClient, Invocation.of(logger));
+        }
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(proxyClient.client()).deleteNamespace(any(DeleteNamespaceRequest.class));
+        verify(secretsManagerProxyClient.client(), times(DeleteHandler.MAX_SECRET_DELETION_CHECKS + 1)).describeSecret(any(DescribeSecretRequest.class));
+    }
+
+    @Test
+    public void handleRequest_KeepsWaitingForAdminPasswordSecretScheduledForDeletion() {
+        final DeleteHandler handler = new DeleteHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(getDeleteRequestResourceModel())
+            .build();
+
+        when(proxyClient.client().deleteNamespace(any(DeleteNamespaceRequest.class))).thenReturn(DeleteNamespaceResponse.builder()
+                .namespace(Namespace.builder().namespaceName(NAMESPACE_NAME).adminPasswordSecretArn(ADMIN_PASSWORD_SECRET_ARN).build())
+                .build());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class)))
+                .thenThrow(ResourceNotFoundException.class);
+        when(secretsManagerProxyClient.client().describeSecret(any(DescribeSecretRequest.class)))
+                .thenReturn(DescribeSecretResponse.builder().arn(ADMIN_PASSWORD_SECRET_ARN).deletedDate(Instant.now()).build());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleDeleteRequest(proxy, request, new CallbackContext(), proxyClient, secretsManagerProxyClient, Invocation.of(logger));
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getSecretDeletionChecks()).isEqualTo(1);
+    }
+
+    @Test
+    public void handleRequest_UnreadableAdminPasswordSecretIsNotDeleted() {
+        final DeleteHandler handler = new DeleteHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(getDeleteRequestResourceModel())
+            .build();
+
+        when(proxyClient.client().deleteNamespace(any(DeleteNamespaceRequest.class))).thenReturn(DeleteNamespaceResponse.builder()
+                .namespace(Namespace.builder().namespaceName(NAMESPACE_NAME).adminPasswordSecretArn(ADMIN_PASSWORD_SECRET_ARN).build())
+                .build());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class)))
+                .thenThrow(ResourceNotFoundException.class);
+        when(secretsManagerProxyClient.client().describeSecret(any(DescribeSecretRequest.class)))
+                .thenThrow(SecretsManagerException.builder().statusCode(400).message("AccessDenied").build());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleDeleteRequest(proxy, request, new CallbackContext(), proxyClient, secretsManagerProxyClient, Invocation.of(logger));
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getSecretDeletionChecks()).isEqualTo(1);
+        verify(secretsManagerProxyClient.client()).describeSecret(any(DescribeSecretRequest.class));
+    }
+
+    @Test
+    public void handleRequest_AdminPasswordSecretCheckThatFailedInTheClientIsNotDeleted() {
+        final DeleteHandler handler = new DeleteHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(getDeleteRequestResourceModel())
+            .build();
+
+        when(proxyClient.client().deleteNamespace(any(DeleteNamespaceRequest.class))).thenReturn(DeleteNamespaceResponse.builder()
+                .namespace(Namespace.builder().namespaceName(NAMESPACE_NAME).adminPasswordSecretArn(ADMIN_PASSWORD_SECRET_ARN).build())
+                .build());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class)))
+                .thenThrow(ResourceNotFoundException.class);
+        when(secretsManagerProxyClient.client().describeSecret(any(DescribeSecretRequest.class)))
+                .thenThrow(SdkClientException.create("Unable to execute HTTP request: Read timed out"));
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleDeleteRequest(proxy, request, new CallbackContext(), proxyClient, secretsManagerProxyClient, Invocation.of(logger));
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(DeleteHandler.SECRET_DELETION_CALLBACK_DELAY_SECONDS);
+        assertThat(response.getCallbackContext().getSecretDeletionChecks()).isEqualTo(1);
+        verify(secretsManagerProxyClient.client()).describeSecret(any(DescribeSecretRequest.class));
+    }
+
+    @Test
+    public void handleRequest_RetriesAdminPasswordSecretCheckOnServiceError() {
+        final DeleteHandler handler = new DeleteHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(getDeleteRequestResourceModel())
+            .build();
+
+        when(proxyClient.client().deleteNamespace(any(DeleteNamespaceRequest.class))).thenReturn(DeleteNamespaceResponse.builder()
+                .namespace(Namespace.builder().namespaceName(NAMESPACE_NAME).adminPasswordSecretArn(ADMIN_PASSWORD_SECRET_ARN).build())
+                .build());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class)))
+                .thenThrow(ResourceNotFoundException.class);
+        when(secretsManagerProxyClient.client().describeSecret(any(DescribeSecretRequest.class)))
+                .thenThrow(SecretsManagerException.builder().statusCode(503).build())
+                .thenThrow(software.amazon.awssdk.services.secretsmanager.model.ResourceNotFoundException.builder().build());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleDeleteRequest(proxy, request, new CallbackContext(), proxyClient, secretsManagerProxyClient, Invocation.of(logger));
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(secretsManagerProxyClient.client(), times(2)).describeSecret(any(DescribeSecretRequest.class));
+    }
 }
@@ -0,0 +1,69 @@
+package software.amazon.redshiftserverless.namespace;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.redshift.model.InvalidPolicyException;
+import software.amazon.awssdk.services.redshift.model.RedshiftException;
+import software.amazon.awssdk.services.redshift.model.UnsupportedOperationException;
+import software.amazon.awssdk.services.redshiftserverless.model.AccessDeniedException;
+import software.amazon.awssdk.services.redshiftserverless.model.ConflictException;
+import software.amazon.awssdk.services.redshiftserverless.model.InsufficientCapacityException;
+import software.amazon.awssdk.services.redshiftserverless.model.InternalServerException;
+import software.amazon.awssdk.services.redshiftserverless.model.InvalidPaginationException;
+import software.amazon.awssdk.services.redshiftserverless.model.RedshiftServerlessException;
+import software.amazon.awssdk.services.redshiftserverless.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.redshiftserverless.model.ServiceQuotaExceededException;
+import software.amazon.awssdk.services.redshiftserverless.model.ThrottlingException;
+import software.amazon.awssdk.services.redshiftserverless.model.TooManyTagsException;
+import software.amazon.awssdk.services.redshiftserverless.model.ValidationException;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.redshiftserverless.common.ExceptionClassifier;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExceptionClassifierTest {
+
+    private static Stream<Arguments> exceptions() {
+        return Stream.of(
+                Arguments.of(ValidationException.builder().message("Invalid").build(), HandlerErrorCode.InvalidRequest, false),
+                Arguments.of(InvalidPaginationException.builder().build(), HandlerErrorCode.InvalidRequest, false),
+                Arguments.of(AccessDeniedException.builder().build(), HandlerErrorCode.AccessDenied, false),
+                Arguments.of(ResourceNotFoundException.builder().build(), HandlerErrorCode.NotFound, false),
+                Arguments.of(TooManyTagsException.builder().build(), HandlerErrorCode.ServiceLimitExceeded, false),
+                Arguments.of(ServiceQuotaExceededException.builder().build(), HandlerErrorCode.ServiceLimitExceeded, false),
+                Arguments.of(InsufficientCapacityException.builder().build(), HandlerErrorCode.ServiceLimitExceeded, false),
+                Arguments.of(ConflictException.builder().message("Namespace already exists").build(), HandlerErrorCode.AlreadyExists, false),
+                Arguments.of(ConflictException.builder().message("Namespace ALREADY EXISTS").build(), HandlerErrorCode.ResourceConflict, false),
+                Arguments.of(ConflictException.builder().message("Namespace is being modified").build(), HandlerErrorCode.ResourceConflict, false),
+                Arguments.of(ConflictException.builder().build(), HandlerErrorCode.ResourceConflict, false),
+                Arguments.of(ThrottlingException.builder().build(), HandlerErrorCode.Throttling, true),
+                Arguments.of(InternalServerException.builder().build(), HandlerErrorCode.ServiceInternalError, true),
+                Arguments.of(RedshiftServerlessException.builder().statusCode(400).build(), HandlerErrorCode.GeneralServiceException, false),
+                Arguments.of(RedshiftServerlessException.builder().statusCode(503).build(), HandlerErrorCode.ServiceInternalError, true),
+                Arguments.of(UnsupportedOperationException.builder().statusCode(400).build(), HandlerErrorCode.InvalidRequest, false),
+                Arguments.of(InvalidPolicyException.builder().statusCode(400).build(), HandlerErrorCode.InvalidRequest, false),
+                Arguments.of(software.amazon.awssdk.services.redshift.model.ResourceNotFoundException.builder().statusCode(404).build(), HandlerErrorCode.NotFound, false),
+                Arguments.of(RedshiftException.builder().statusCode(403).build(), HandlerErrorCode.GeneralServiceException, false),
+                Arguments.of(RedshiftException.builder().statusCode(503).build(), HandlerErrorCode.ServiceInternalError, true),
+                Arguments.of(AwsServiceException.builder().statusCode(500).build(), HandlerErrorCode.ServiceInternalError, true),
+                Arguments.of(new IllegalStateException(), HandlerErrorCode.GeneralServiceException, false)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("exceptions")
+    public void classify_MapsEveryExceptionToItsRule(final Exception exception,
+                                                      final HandlerErrorCode errorCode,
+                                                      final boolean transientFailure) {
+        final ExceptionClassifier.Rule rule = BaseHandlerStd.EXCEPTION_CLASSIFIER.classify(exception);
+
+        assertThat(rule.getErrorCode()).isEqualTo(errorCode);
+        assertThat(rule.isTransient()).isEqualTo(transientFailure);
+        assertThat(rule.getRetryDelay()).isEqualTo(transientFailure ? Duration.ofSeconds(1L) : Duration.ZERO);
+    }
+}
@@ -0,0 +1,48 @@
+package software.amazon.redshiftserverless.namespace;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IamRoleArnTest {
+
+    @Test
+    public void find_ExtractsArnFromServiceDescription() {
+        final IamRoleArn arn = IamRoleArn.find("IamRole(applyStatus=null, iamRoleArn=arn:aws:iam::254260483320:role/contracttest9nfdg-redshif-RedshiftServerlessNamespa-nAxEywsQousB)").get();
+
+        assertThat(arn.getPartition()).isEqualTo("aws");
+        assertThat(arn.getAccountId()).isEqualTo("254260483320");
+        assertThat(arn.getRoleName()).isEqualTo("contracttest9nfdg-redshif-RedshiftServerlessNamespa-nAxEywsQousB");
+        assertThat(arn.toString()).isEqualTo("arn:aws:iam::254260483320:role/contracttest9nfdg-redshif-RedshiftServerlessNamespa-nAxEywsQousB");
+    }
+
+    @Test
+    public void find_AcceptsOtherPartitionsAndPlainArns() {
+        assertThat(IamRoleArn.find("arn:aws-us-gov:iam::123456789012:role/my.role@team").get().getPartition()).isEqualTo("aws-us-gov");
+        assertThat(IamRoleArn.find("arn:aws-cn:iam::123456789012:role/r").map(IamRoleArn::toString)).hasValue("arn:aws-cn:iam::123456789012:role/r");
+    }
+
+    @Test
+    public void find_RejectsMalformedArns() {
+        assertThat(IamRoleArn.find(null)).isEmpty();
+        assertThat(IamRoleArn.find("IamRole(applyStatus=null, iamRoleArn=null)")).isEmpty();
+        assertThat(IamRoleArn.find("arn:aws:iam::12345678901:role/short-account")).isEmpty();
+        assertThat(IamRoleArn.find("arn:aws:iam::1234567890ab:role/letters-in-account")).isEmpty();
+        assertThat(IamRoleArn.find("arn:aws:iam::123456789012:user/not-a-role")).isEmpty();
+        assertThat(IamRoleArn.find("arn:AWS:iam::123456789012:role/upper-case-partition")).isEmpty();
+        assertThat(IamRoleArn.find("arn:aws-:iam::123456789012:role/dangling-dash")).isEmpty();
+        assertThat(IamRoleArn.find("arn:aws:iam::123456789012:role/")).isEmpty();
+    }
+
+    @Test
+    public void find_SkipsInvalidCandidatesAndStopsAtRoleNameBounds() {
+        final char[] longName = new char[70];
+        Arrays.fill(longName, 'r');
+
+        assertThat(IamRoleArn.find("arn:aws:s3:::bucket arn:aws:iam::123456789012:role/second").map(IamRoleArn::getRoleName)).hasValue("second");
+        assertThat(IamRoleArn.find("arn:aws:iam::123456789012:role/" + new String(longName)).get().getRoleName()).hasSize(64);
+        assertThat(IamRoleArn.find("arn:aws:iam::123456789012:role/name)").get().getRoleName()).isEqualTo("name");
+    }
+}
@@ -1,13 +1,16 @@
 package software.amazon.redshiftserverless.namespace;
 
+import software.amazon.awssdk.services.redshiftserverless.model.ListNamespacesRequest;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.redshiftserverless.common.ListPager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -17,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static software.amazon.redshiftserverless.namespace.AbstractTestBase.AWS_REGION;
 import static software.amazon.redshiftserverless.namespace.AbstractTestBase.getListRequestResourceModel;
@@ -65,4 +69,22 @@ public class ListHandlerTest {
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
     }
+
+    @Test
+    public void handleRequest_ListsPagesOfTheConfiguredSize() {
+        final ListHandler handler = new ListHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+    .nextToken("token-1")
+    .build();
+
+        doReturn(getListResponsesSdk()).when(proxy).injectCredentialsAndInvokeV2(any(), any());
+
+        handler.handleRequest(proxy, request, null, logger);
+
+        final ArgumentCaptor<ListNamespacesRequest> listRequest = ArgumentCaptor.forClass(ListNamespacesRequest.class);
+        verify(proxy).injectCredentialsAndInvokeV2(listRequest.capture(), any());
+        assertThat(listRequest.getValue().nextToken()).isEqualTo("token-1");
+        assertThat(listRequest.getValue().maxResults()).isEqualTo(ListPager.pageSize(System.getenv("LIST_PAGE_SIZE"), ListPager.MAX_PAGE_SIZE));
+    }
 }
@@ -3,7 +3,14 @@ package software.amazon.redshiftserverless.namespace;
 import java.lang.reflect.Method;
 import java.time.Duration;
 import java.util.stream.Stream;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -15,8 +22,7 @@ import software.amazon.awssdk.services.redshift.model.RedshiftException;
 import software.amazon.awssdk.services.redshift.model.UnsupportedOperationException;
 import software.amazon.awssdk.services.redshiftserverless.RedshiftServerlessClient;
 import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceRequest;
-import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
-import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
+import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.ListSnapshotCopyConfigurationsRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.ListSnapshotCopyConfigurationsResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.RedshiftServerlessException;
@@ -36,13 +42,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 import static org.mockito.ArgumentMatchers.any;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -107,13 +113,82 @@ public class ReadHandlerTest extends AbstractTestBase {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    public void handleRequest_ReadStopsAtResourcePolicyFailure() {
+        final ReadHandler handler = new ReadHandler();
+
+        final ResourceModel requestResourceModel = getNamespaceRequestResourceModel();
+        requestResourceModel.setNamespaceResourcePolicy(ResourcePolicyCodec.decode(NAMESPACE_RESOURCE_POLICY_DOCUMENT).getValue());
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestResourceModel)
+                .build();
+
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
+        when(redshiftProxyClient.client().getResourcePolicy(any(GetResourcePolicyRequest.class)))
+                .thenThrow(InvalidPolicyException.builder().build());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, redshiftProxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
+        verify(proxyClient.client(), never()).listSnapshotCopyConfigurations(any(ListSnapshotCopyConfigurationsRequest.class));
+    }
+
+    @Test
+    public void handleRequest_SharedInstanceKeepsConcurrentInvocationsApart() throws Exception {
+        final ReadHandler handler = new ReadHandler();
+        final int invocations = 32;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenAnswer(invocation -> {
+            final String namespaceName = invocation.getArgument(0, GetNamespaceRequest.class).namespaceName();
+            return GetNamespaceResponse.builder().namespace(getNamespaceResponseSdk().namespace().toBuilder().namespaceName(namespaceName).build()).build();
+        });
+        when(redshiftProxyClient.client().getResourcePolicy(any(GetResourcePolicyRequest.class))).thenThrow(RedshiftException.builder().build());
+        when(proxyClient.client().listSnapshotCopyConfigurations(any(ListSnapshotCopyConfigurationsRequest.class))).thenReturn(getSnapshotCopyConfigurationsResponseSdk());
+
+        // Half of the templates set a resource policy, only their reads may fail on the policy error
+        final List<Future<ProgressEvent<ResourceModel, CallbackContext>>> responses = new ArrayList<>();
+        for (int i = 0; i < invocations; i++) {
+            final ResourceModel model = ResourceModel.builder().namespaceName("namespace-" + i).build();
+            if (i % 2 == 0) {
+                model.setNamespaceResourcePolicy(ResourcePolicyCodec.decode(NAMESPACE_RESOURCE_POLICY_DOCUMENT).getValue());
+            }
+            final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder().desiredResourceState(model).build();
+            responses.add(executor.submit(() -> {
+                start.await();
+                return handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, redshiftProxyClient, logger);
+            }));
+        }
+        start.countDown();
+
+        try {
+            for (int i = 0; i < invocations; i++) {
+                if (i % 2 == 0) {
+                    final ProgressEvent<ResourceModel, CallbackContext> failedRead = responses.get(i).get(10, TimeUnit.SECONDS);
+                    assertThat(failedRead.getStatus()).isEqualTo(OperationStatus.FAILED);
+                    assertThat(failedRead.getErrorCode()).isEqualTo(HandlerErrorCode.GeneralServiceException);
+                } else {
+                    final ProgressEvent<ResourceModel, CallbackContext> response = responses.get(i).get(10, TimeUnit.SECONDS);
+                    assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+                    assertThat(response.getResourceModel().getNamespaceName()).isEqualTo("namespace-" + i);
+                    assertThat(response.getResourceModel().getNamespace().getNamespaceName()).isEqualTo("namespace-" + i);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     static Stream<Arguments> provideResourcePolicyExceptionParams() {
         return Stream.of(
                 Arguments.of(InvalidPolicyException.class, false, null),
                 Arguments.of(UnsupportedOperationException.class, false, null),
                 Arguments.of(RedshiftException.class, false, null),
-                Arguments.of(InvalidPolicyException.class, true, CfnInvalidRequestException.class),
-                Arguments.of(RedshiftException.class, true, CfnGeneralServiceException.class)
+                Arguments.of(InvalidPolicyException.class, true, HandlerErrorCode.InvalidRequest),
+                Arguments.of(RedshiftException.class, true, HandlerErrorCode.GeneralServiceException)
         );
     }
 
@@ -131,14 +206,14 @@ public class ReadHandlerTest extends AbstractTestBase {
     public void catchResourcePolicyExceptionAsExpected(
             Class<Exception> exceptionClass,
             boolean containsResourcePolicy,
-            Class<? extends Exception> expectedException
+            HandlerErrorCode expectedErrorCode
     ) throws Exception {
         final ReadHandler handler = new ReadHandler();
 
         ResourceModel requestResourceModel = getNamespaceRequestResourceModel();
         if (containsResourcePolicy) {
             requestResourceModel.setNamespaceResourcePolicy(
-                    Translator.convertStringToJson(NAMESPACE_RESOURCE_POLICY_DOCUMENT, logger)
+                    ResourcePolicyCodec.decode(NAMESPACE_RESOURCE_POLICY_DOCUMENT).getValue()
             );
         }
         final ResourceModel responseResourceModel = getNamespaceResponseResourceModel();
@@ -151,7 +226,7 @@ public class ReadHandlerTest extends AbstractTestBase {
         when(redshiftProxyClient.client().getResourcePolicy(any(GetResourcePolicyRequest.class)))
                 .thenThrow((Throwable) createExceptionWithBuilder(exceptionClass));
 
-        if (expectedException == null) {
+        if (expectedErrorCode == null) {
             when(proxyClient.client().listSnapshotCopyConfigurations(any(ListSnapshotCopyConfigurationsRequest.class))).thenReturn(getSnapshotCopyConfigurationsResponseSdk());
             final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, redshiftProxyClient, logger);
             assertThat(response).isNotNull();
@@ -162,10 +237,37 @@ public class ReadHandlerTest extends AbstractTestBase {
             assertThat(response.getMessage()).isNull();
             assertThat(response.getErrorCode()).isNull();
         } else {
-            assertThrows(expectedException, () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, redshiftProxyClient, logger));
+            final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, redshiftProxyClient, logger);
+            assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+            assertThat(response.getErrorCode()).isEqualTo(expectedErrorCode);
         }
     }
 
+    @Test
+    public void handleRequest_FailedResourcePolicyReadIsRetriedWithoutPolicyInTemplate() {
+        final ReadHandler handler = new ReadHandler();
+
+        final ResourceModel responseResourceModel = getNamespaceResponseResourceModel();
+        responseResourceModel.setNamespaceResourcePolicy(ResourcePolicyCodec.decode(NAMESPACE_RESOURCE_POLICY_DOCUMENT).getValue());
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(getNamespaceRequestResourceModel())
+                .build();
+
+        when(proxyClient.client().listSnapshotCopyConfigurations(any(ListSnapshotCopyConfigurationsRequest.class))).thenReturn(getSnapshotCopyConfigurationsResponseSdk());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
+        when(redshiftProxyClient.client().getResourcePolicy(any(GetResourcePolicyRequest.class)))
+                .thenThrow(RedshiftException.builder().statusCode(503).build())
+                .thenReturn(getResourcePolicyResponseSdk());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, redshiftProxyClient, logger);
+
+        // A server error is not taken for a namespace without a policy
+        verify(redshiftProxyClient.client(), times(2)).getResourcePolicy(any(GetResourcePolicyRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(responseResourceModel);
+    }
+
     @Test
     public void testGetNamespaceResourcePolicy() {
         final ReadHandler handler = new ReadHandler();
@@ -173,8 +275,8 @@ public class ReadHandlerTest extends AbstractTestBase {
         final ResourceModel requestResourceModel = getNamespaceRequestResourceModel();
         final ResourceModel responseResourceModel = getNamespaceResponseResourceModel();
 
-        requestResourceModel.setNamespaceResourcePolicy(Translator.convertStringToJson(NAMESPACE_RESOURCE_POLICY_DOCUMENT, logger));
-        responseResourceModel.setNamespaceResourcePolicy(Translator.convertStringToJson(NAMESPACE_RESOURCE_POLICY_DOCUMENT, logger));
+        requestResourceModel.setNamespaceResourcePolicy(ResourcePolicyCodec.decode(NAMESPACE_RESOURCE_POLICY_DOCUMENT).getValue());
+        responseResourceModel.setNamespaceResourcePolicy(ResourcePolicyCodec.decode(NAMESPACE_RESOURCE_POLICY_DOCUMENT).getValue());
 
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
                 .desiredResourceState(requestResourceModel)
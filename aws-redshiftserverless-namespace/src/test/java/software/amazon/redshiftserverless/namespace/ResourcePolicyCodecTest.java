@@ -0,0 +1,101 @@
+package software.amazon.redshiftserverless.namespace;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResourcePolicyCodecTest {
+    private static final String POLICY = "{\"Version\":\"2012-10-17\",\"Statement\":[{\"Sid\":\"AllowSnapshotRestore\",\"Effect\":\"Allow\","
+            + "\"Principal\":{\"AWS\":\"arn:aws:iam::123456789012:root\"},\"Action\":\"redshift:RestoreTableFromRecoveryPoint\","
+            + "\"Resource\":\"*\",\"Condition\":{\"StringEquals\":{\"aws:PrincipalTag/team\":\"données analytiques\"}}}]}";
+
+    @Test
+    public void decode_ParsesPlainAndUrlEncodedDocumentsAlike() throws Exception {
+        final Map<String, Object> plain = ResourcePolicyCodec.decode(POLICY).getValue();
+        final ResourcePolicyCodec.Result<Map<String, Object>> encoded = ResourcePolicyCodec.decode(URLEncoder.encode(POLICY, "UTF-8"));
+
+        assertThat(plain).containsEntry("Version", "2012-10-17");
+        assertThat(encoded.isFailed()).isFalse();
+        assertThat(encoded.getValue()).isEqualTo(plain);
+    }
+
+    @Test
+    public void decode_FollowsUrlDecoderRulesForMixedInput() throws Exception {
+        final String mixed = "{\"Sid\":\"a+b%20c%C3%A9\",\"Action\":\"x:y%2Bz\"}";
+
+        assertThat(URLDecoder.decode(mixed, "UTF-8")).isEqualTo("{\"Sid\":\"a b cé\",\"Action\":\"x:y+z\"}");
+        assertThat(ResourcePolicyCodec.decode(mixed).getValue())
+                .containsEntry("Sid", "a b cé")
+                .containsEntry("Action", "x:y+z");
+    }
+
+    @Test
+    public void decode_ReturnsEmptyResultForMissingDocument() {
+        assertThat(ResourcePolicyCodec.decode(null).isPresent()).isFalse();
+        assertThat(ResourcePolicyCodec.decode(null).isFailed()).isFalse();
+        assertThat(ResourcePolicyCodec.decode("").isPresent()).isFalse();
+        assertThat(ResourcePolicyCodec.decode("").isFailed()).isFalse();
+    }
+
+    @Test
+    public void decode_ReportsMalformedDocuments() {
+        assertThat(ResourcePolicyCodec.decode("{\"Version\":").getError()).startsWith("NamespaceResourcePolicy is not a valid JSON document");
+        assertThat(ResourcePolicyCodec.decode("%7B%2").isFailed()).isTrue();
+        assertThat(ResourcePolicyCodec.decode("%7B%zz%7D").isFailed()).isTrue();
+        assertThat(ResourcePolicyCodec.decode("[]").isFailed()).isTrue();
+    }
+
+    @Test
+    public void encode_RoundTripsThroughDecode() {
+        final Map<String, Object> policy = ResourcePolicyCodec.decode(POLICY).getValue();
+        final ResourcePolicyCodec.Result<String> encoded = ResourcePolicyCodec.encode(policy);
+
+        assertThat(encoded.isFailed()).isFalse();
+        assertThat(ResourcePolicyCodec.decode(encoded.getValue()).getValue()).isEqualTo(policy);
+        assertThat(ResourcePolicyCodec.encode(Collections.emptyMap()).getValue()).isEqualTo("{}");
+        assertThat(ResourcePolicyCodec.encode(null).isPresent()).isFalse();
+    }
+
+    @Test
+    public void encode_ReportsValuesThatCannotBeWritten() {
+        final ResourcePolicyCodec.Result<String> encoded = ResourcePolicyCodec.encode(Collections.singletonMap("Statement", new Object()));
+
+        assertThat(encoded.isFailed()).isTrue();
+        assertThat(encoded.getError()).startsWith("NamespaceResourcePolicy could not be written as JSON");
+    }
+
+    @Test
+    public void isEquivalent_IgnoresKeyOrderWhitespaceAndSingleValueForms() {
+        final Map<String, Object> policy = ResourcePolicyCodec.decode(POLICY).getValue();
+        final Map<String, Object> rewritten = ResourcePolicyCodec.decode("{ \"Statement\": {\"Condition\":{\"StringEquals\":{\"aws:PrincipalTag/team\":[\"données analytiques\"]}},"
+                + "\"Resource\": [\"*\"], \"Action\": [\"redshift:RestoreTableFromRecoveryPoint\"], \"Sid\":\"AllowSnapshotRestore\","
+                + "\"Principal\": {\"AWS\": [\"arn:aws:iam::123456789012:root\"]}, \"Effect\": \"Allow\"},\n  \"Version\": \"2012-10-17\" }").getValue();
+
+        assertThat(ResourcePolicyCodec.isEquivalent(policy, rewritten)).isTrue();
+        assertThat(ResourcePolicyCodec.isEquivalent(null, null)).isTrue();
+    }
+
+    @Test
+    public void isEquivalent_TreatsActionListsAsSets() {
+        assertThat(ResourcePolicyCodec.isEquivalent(
+                ResourcePolicyCodec.decode("{\"Statement\":[{\"Action\":[\"a:b\",\"c:d\"]}]}").getValue(),
+                ResourcePolicyCodec.decode("{\"Statement\":[{\"Action\":[\"c:d\",\"a:b\",\"c:d\"]}]}").getValue())).isTrue();
+    }
+
+    @Test
+    public void isEquivalent_DetectsRealDifferences() {
+        final Map<String, Object> policy = ResourcePolicyCodec.decode(POLICY).getValue();
+
+        assertThat(ResourcePolicyCodec.isEquivalent(policy, ResourcePolicyCodec.decode(POLICY.replace("Allow", "Deny")).getValue())).isFalse();
+        assertThat(ResourcePolicyCodec.isEquivalent(policy, ResourcePolicyCodec.decode(POLICY.replace("\"*\"", "[\"*\",\"arn:aws:redshift:*\"]")).getValue())).isFalse();
+        assertThat(ResourcePolicyCodec.isEquivalent(policy, null)).isFalse();
+        assertThat(ResourcePolicyCodec.isEquivalent(
+                ResourcePolicyCodec.decode("{\"Statement\":[{\"Sid\":\"1\"},{\"Sid\":\"2\"}]}").getValue(),
+                ResourcePolicyCodec.decode("{\"Statement\":[{\"Sid\":\"1\"}]}").getValue())).isFalse();
+    }
+}
@@ -22,6 +22,7 @@ import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.redshiftserverless.common.MemoizingProxyClient;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,6 +32,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -105,16 +107,41 @@ public class UpdateHandlerTest extends AbstractTestBase {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    public void handleRequest_MemoizedClientsSkipRepeatedReads() {
+        final UpdateHandler handler = new UpdateHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .previousResourceState(ResourceModel.builder().namespaceName(NAMESPACE_NAME).build())
+            .desiredResourceState(getUpdateRequestResourceModel())
+            .build();
+
+        when(proxyClient.client().listSnapshotCopyConfigurations(any(ListSnapshotCopyConfigurationsRequest.class))).thenReturn(getSnapshotCopyConfigurationsResponseSdk());
+        when(proxyClient.client().updateNamespace(any(UpdateNamespaceRequest.class))).thenReturn(getUpdateResponseSdk());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
+        when(redshiftProxyClient.client().getResourcePolicy(any(GetResourcePolicyRequest.class))).thenReturn(getEmptyResourcePolicyResponseSdk());
+
+        ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(),
+                MemoizingProxyClient.memoize(proxyClient), MemoizingProxyClient.memoize(redshiftProxyClient), logger);
+
+        // Stabilizer, ReadOnly and the final read share one GetNamespace; the diff and the final read share one list
+        verify(proxyClient.client()).updateNamespace(any(UpdateNamespaceRequest.class));
+        verify(proxyClient.client()).getNamespace(any(GetNamespaceRequest.class));
+        verify(proxyClient.client()).listSnapshotCopyConfigurations(any(ListSnapshotCopyConfigurationsRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(getUpdateResponseResourceModel());
+    }
+
     @Test
     public void testDeleteNamespaceResourcePolicy() {
         final UpdateHandler handler = new UpdateHandler();
 
         final ResourceModel requestResourceModel = getUpdateRequestResourceModel();
         final ResourceModel responseResourceModel = getUpdateResponseResourceModel();
-        requestResourceModel.setNamespaceResourcePolicy(Translator.convertStringToJson(NAMESPACE_RESOURCE_POLICY_DOCUMENT_EMPTY, logger));
+        requestResourceModel.setNamespaceResourcePolicy(ResourcePolicyCodec.decode(NAMESPACE_RESOURCE_POLICY_DOCUMENT_EMPTY).getValue());
         ResourceModel prevModel = ResourceModel.builder()
                 .namespaceName(NAMESPACE_NAME)
-                .namespaceResourcePolicy(Translator.convertStringToJson(NAMESPACE_RESOURCE_POLICY_DOCUMENT, logger))
+                .namespaceResourcePolicy(ResourcePolicyCodec.decode(NAMESPACE_RESOURCE_POLICY_DOCUMENT).getValue())
                 .build();
 
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
@@ -125,10 +152,11 @@ public class UpdateHandlerTest extends AbstractTestBase {
         when(proxyClient.client().listSnapshotCopyConfigurations(any(ListSnapshotCopyConfigurationsRequest.class))).thenReturn(getSnapshotCopyConfigurationsResponseSdk());
         when(proxyClient.client().updateNamespace(any(UpdateNamespaceRequest.class))).thenReturn(getUpdateResponseSdk());
         when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
-        when(redshiftProxyClient.client().getResourcePolicy(any(GetResourcePolicyRequest.class))).thenReturn(getEmptyResourcePolicyResponseSdk());
+        when(redshiftProxyClient.client().getResourcePolicy(any(GetResourcePolicyRequest.class))).thenReturn(getResourcePolicyResponseSdk(), getEmptyResourcePolicyResponseSdk());
         when(redshiftProxyClient.client().deleteResourcePolicy(any(DeleteResourcePolicyRequest.class))).thenReturn(null);
 
         ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, redshiftProxyClient, logger);
+        verify(redshiftProxyClient.client()).deleteResourcePolicy(any(DeleteResourcePolicyRequest.class));
 
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -148,11 +176,11 @@ public class UpdateHandlerTest extends AbstractTestBase {
         final ResourceModel responseResourceModel = getUpdateResponseResourceModel();
         ResourceModel prevModel = ResourceModel.builder()
                 .namespaceName(NAMESPACE_NAME)
-                .namespaceResourcePolicy(Translator.convertStringToJson(NAMESPACE_RESOURCE_POLICY_DOCUMENT, logger))
+                .namespaceResourcePolicy(ResourcePolicyCodec.decode(NAMESPACE_RESOURCE_POLICY_DOCUMENT).getValue())
                 .build();
 
-        requestResourceModel.setNamespaceResourcePolicy(Translator.convertStringToJson(NEW_NAMESPACE_RESOURCE_POLICY, logger));
-        responseResourceModel.setNamespaceResourcePolicy(Translator.convertStringToJson(NEW_NAMESPACE_RESOURCE_POLICY, logger));
+        requestResourceModel.setNamespaceResourcePolicy(ResourcePolicyCodec.decode(NEW_NAMESPACE_RESOURCE_POLICY).getValue());
+        responseResourceModel.setNamespaceResourcePolicy(ResourcePolicyCodec.decode(NEW_NAMESPACE_RESOURCE_POLICY).getValue());
 
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
                 .desiredResourceState(requestResourceModel)
@@ -170,11 +198,12 @@ public class UpdateHandlerTest extends AbstractTestBase {
         when(redshiftProxyClient.client().putResourcePolicy(any(PutResourcePolicyRequest.class))).thenReturn(PutResourcePolicyResponse.builder()
                 .resourcePolicy(newResourcePolicy)
                 .build());
-        when(redshiftProxyClient.client().getResourcePolicy(any(GetResourcePolicyRequest.class))).thenReturn(GetResourcePolicyResponse.builder()
+        when(redshiftProxyClient.client().getResourcePolicy(any(GetResourcePolicyRequest.class))).thenReturn(getResourcePolicyResponseSdk(), GetResourcePolicyResponse.builder()
                 .resourcePolicy(newResourcePolicy)
                 .build());
 
         final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, redshiftProxyClient, logger);
+        verify(redshiftProxyClient.client()).putResourcePolicy(any(PutResourcePolicyRequest.class));
 
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -185,6 +214,117 @@ public class UpdateHandlerTest extends AbstractTestBase {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    public void testUnchangedNamespaceResourcePolicyIsNotPut() {
+        final UpdateHandler handler = new UpdateHandler();
+        // Same policy as the live one, with keys reordered, whitespace added and Action written as a list
+        final String REORDERED_NAMESPACE_RESOURCE_POLICY = "{ \"Statement\": [ { \"Action\": [\"test:test\"], \"Resource\": \"*\", \"Effect\": \"Allow\" } ], \"Version\": \"2012-10-17\" }";
+
+        final ResourceModel requestResourceModel = getUpdateRequestResourceModel();
+        final ResourceModel responseResourceModel = getUpdateResponseResourceModel();
+        ResourceModel prevModel = ResourceModel.builder()
+                .namespaceName(NAMESPACE_NAME)
+                .namespaceResourcePolicy(ResourcePolicyCodec.decode(NAMESPACE_RESOURCE_POLICY_DOCUMENT).getValue())
+                .build();
+
+        requestResourceModel.setNamespaceResourcePolicy(ResourcePolicyCodec.decode(REORDERED_NAMESPACE_RESOURCE_POLICY).getValue());
+        responseResourceModel.setNamespaceResourcePolicy(ResourcePolicyCodec.decode(NAMESPACE_RESOURCE_POLICY_DOCUMENT).getValue());
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestResourceModel)
+                .previousResourceState(prevModel)
+                .build();
+
+        when(proxyClient.client().listSnapshotCopyConfigurations(any(ListSnapshotCopyConfigurationsRequest.class))).thenReturn(getSnapshotCopyConfigurationsResponseSdk());
+        when(proxyClient.client().updateNamespace(any(UpdateNamespaceRequest.class))).thenReturn(getUpdateResponseSdk());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
+        when(redshiftProxyClient.client().getResourcePolicy(any(GetResourcePolicyRequest.class))).thenReturn(getResourcePolicyResponseSdk());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, redshiftProxyClient, logger);
+
+        verify(redshiftProxyClient.client(), times(2)).getResourcePolicy(any(GetResourcePolicyRequest.class));
+        verify(redshiftProxyClient.client(), never()).putResourcePolicy(any(PutResourcePolicyRequest.class));
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(responseResourceModel);
+        assertThat(response.getErrorCode()).isNull();
+    }
+
+    @Test
+    public void testFailedLiveResourcePolicyReadIsRetried() {
+        final UpdateHandler handler = new UpdateHandler();
+
+        final ResourceModel requestResourceModel = getUpdateRequestResourceModel();
+        ResourceModel prevModel = ResourceModel.builder()
+                .namespaceName(NAMESPACE_NAME)
+                .namespaceResourcePolicy(ResourcePolicyCodec.decode(NAMESPACE_RESOURCE_POLICY_DOCUMENT).getValue())
+                .build();
+
+        requestResourceModel.setNamespaceResourcePolicy(ResourcePolicyCodec.decode(NAMESPACE_RESOURCE_POLICY_DOCUMENT).getValue());
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestResourceModel)
+                .previousResourceState(prevModel)
+                .build();
+
+        when(proxyClient.client().listSnapshotCopyConfigurations(any(ListSnapshotCopyConfigurationsRequest.class))).thenReturn(getSnapshotCopyConfigurationsResponseSdk());
+        when(proxyClient.client().updateNamespace(any(UpdateNamespaceRequest.class))).thenReturn(getUpdateResponseSdk());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
+        when(redshiftProxyClient.client().getResourcePolicy(any(GetResourcePolicyRequest.class)))
+                .thenThrow(RedshiftException.builder().statusCode(503).build())
+                .thenReturn(getResourcePolicyResponseSdk());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, redshiftProxyClient, logger);
+
+        // The retried read finds the policy unchanged, so it is not put again
+        verify(redshiftProxyClient.client(), times(3)).getResourcePolicy(any(GetResourcePolicyRequest.class));
+        verify(redshiftProxyClient.client(), never()).putResourcePolicy(any(PutResourcePolicyRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+    }
+
+    @Test
+    public void testPolicyOnlyUpdateSkipsUpdateNamespace() {
+        final UpdateHandler handler = new UpdateHandler();
+        final String NEW_NAMESPACE_RESOURCE_POLICY = "{\"Version\":\"2012-10-17\"}";
+
+        final ResourceModel requestResourceModel = getUpdateRequestResourceModel();
+        final ResourceModel responseResourceModel = getUpdateResponseResourceModel();
+        final ResourceModel prevModel = requestResourceModel.toBuilder()
+                .namespaceResourcePolicy(ResourcePolicyCodec.decode(NAMESPACE_RESOURCE_POLICY_DOCUMENT).getValue())
+                .build();
+
+        requestResourceModel.setNamespaceResourcePolicy(ResourcePolicyCodec.decode(NEW_NAMESPACE_RESOURCE_POLICY).getValue());
+        responseResourceModel.setNamespaceResourcePolicy(ResourcePolicyCodec.decode(NEW_NAMESPACE_RESOURCE_POLICY).getValue());
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestResourceModel)
+                .previousResourceState(prevModel)
+                .build();
+
+        ResourcePolicy newResourcePolicy = ResourcePolicy.builder()
+                .resourceArn("DummyNamespaceArn")
+                .policy(NEW_NAMESPACE_RESOURCE_POLICY)
+                .build();
+
+        when(proxyClient.client().listSnapshotCopyConfigurations(any(ListSnapshotCopyConfigurationsRequest.class))).thenReturn(getSnapshotCopyConfigurationsResponseSdk());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
+        when(redshiftProxyClient.client().putResourcePolicy(any(PutResourcePolicyRequest.class))).thenReturn(PutResourcePolicyResponse.builder()
+                .resourcePolicy(newResourcePolicy)
+                .build());
+        when(redshiftProxyClient.client().getResourcePolicy(any(GetResourcePolicyRequest.class))).thenReturn(getResourcePolicyResponseSdk(), GetResourcePolicyResponse.builder()
+                .resourcePolicy(newResourcePolicy)
+                .build());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, redshiftProxyClient, logger);
+
+        verify(proxyClient.client(), never()).updateNamespace(any(UpdateNamespaceRequest.class));
+        verify(redshiftProxyClient.client()).putResourcePolicy(any(PutResourcePolicyRequest.class));
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(responseResourceModel);
+        assertThat(response.getErrorCode()).isNull();
+    }
+
     @Test
     public void testUpdate_OptInManagedAdminPassword() {
         final UpdateHandler handler = new UpdateHandler();
@@ -438,4 +578,74 @@ public class UpdateHandlerTest extends AbstractTestBase {
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
     }
+
+    @Test
+    public void handleRequest_ResumesAfterTheCompletedStepsOfTheLedger() {
+        final UpdateHandler handler = new UpdateHandler();
+
+        final ResourceModel requestResourceModel = getUpdateRequestResourceModel().toBuilder()
+                .snapshotCopyConfigurations(Collections.singletonList(software.amazon.redshiftserverless.namespace.SnapshotCopyConfiguration.builder()
+                        .destinationRegion("us-west-1")
+                        .build()))
+                .build();
+        final ResourceModel prevModel = ResourceModel.builder()
+                .namespaceName(NAMESPACE_NAME)
+                .snapshotCopyConfigurations(Collections.singletonList(software.amazon.redshiftserverless.namespace.SnapshotCopyConfiguration.builder()
+                        .destinationRegion("us-west-2")
+                        .build()))
+                .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .previousResourceState(prevModel)
+                .desiredResourceState(requestResourceModel)
+                .build();
+
+        final SnapshotCopyConfiguration oldSnapshotCopyConfiguration = SnapshotCopyConfiguration.builder()
+                .snapshotCopyConfigurationId("snap-id-1234")
+                .destinationRegion("us-west-2")
+                .namespaceName(requestResourceModel.getNamespaceName())
+                .destinationKmsKeyId("AWS_OWNED_KMS_KEY")
+                .snapshotRetentionPeriod(-1)
+                .build();
+        final SnapshotCopyConfiguration newSnapshotCopyConfiguration = SnapshotCopyConfiguration.builder()
+                .snapshotCopyConfigurationId("snap-id-5678")
+                .destinationRegion("us-west-1")
+                .namespaceName(requestResourceModel.getNamespaceName())
+                .destinationKmsKeyId("AWS_OWNED_KMS_KEY")
+                .snapshotRetentionPeriod(-1)
+                .build();
+
+        when(proxyClient.client().createSnapshotCopyConfiguration(any(CreateSnapshotCopyConfigurationRequest.class)))
+                .thenReturn(CreateSnapshotCopyConfigurationResponse.builder()
+                        .snapshotCopyConfiguration(newSnapshotCopyConfiguration)
+                        .build());
+        // The deleted configuration is still listed, its delete must not be issued again
+        when(proxyClient.client().listSnapshotCopyConfigurations(any(ListSnapshotCopyConfigurationsRequest.class)))
+                .thenReturn(ListSnapshotCopyConfigurationsResponse.builder()
+                        .snapshotCopyConfigurations(Collections.singletonList(oldSnapshotCopyConfiguration))
+                        .build())
+                .thenReturn(ListSnapshotCopyConfigurationsResponse.builder()
+                        .snapshotCopyConfigurations(Collections.singletonList(newSnapshotCopyConfiguration))
+                        .build());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
+        when(redshiftProxyClient.client().getResourcePolicy(any(GetResourcePolicyRequest.class))).thenReturn(getEmptyResourcePolicyResponseSdk());
+
+        // An earlier invocation got as far as deleting the old snapshot copy configuration
+        final CallbackContext callbackContext = new CallbackContext();
+        callbackContext.setNamespaceArn(NAMESPACE_ARN);
+        callbackContext.completeStep("UpdateNamespace", null);
+        callbackContext.completeStep("ResourcePolicy", null);
+        callbackContext.completeStep("DeleteSnapshotCopyConfiguration::us-west-2", null);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, callbackContext, proxyClient, redshiftProxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(proxyClient.client(), never()).updateNamespace(any(UpdateNamespaceRequest.class));
+        verify(proxyClient.client(), never()).deleteSnapshotCopyConfiguration(any(DeleteSnapshotCopyConfigurationRequest.class));
+        verify(proxyClient.client(), times(1)).createSnapshotCopyConfiguration(any(CreateSnapshotCopyConfigurationRequest.class));
+        verify(proxyClient.client(), times(2)).listSnapshotCopyConfigurations(any(ListSnapshotCopyConfigurationsRequest.class));
+        // The steps of the snapshot copy configurations are covered by theirs once it completes
+        assertThat(callbackContext.getCompletedSteps())
+                .containsOnlyKeys("UpdateNamespace", "ResourcePolicy", "SnapshotCopyConfigurations");
+    }
 }
@@ -1,6 +1,7 @@
 package software.amazon.redshiftserverless.workgroup;
 
 import software.amazon.awssdk.services.redshiftserverless.RedshiftServerlessClient;
+import software.amazon.awssdk.services.redshiftserverless.model.AccessDeniedException;
 import software.amazon.awssdk.services.redshiftserverless.model.ConflictException;
 import software.amazon.awssdk.services.redshiftserverless.model.CreateWorkgroupRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.CreateWorkgroupResponse;
@@ -10,52 +11,143 @@ import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceRequ
 import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupResponse;
+import software.amazon.awssdk.services.redshiftserverless.model.InsufficientCapacityException;
+import software.amazon.awssdk.services.redshiftserverless.model.InternalServerException;
+import software.amazon.awssdk.services.redshiftserverless.model.InvalidPaginationException;
 import software.amazon.awssdk.services.redshiftserverless.model.Namespace;
 import software.amazon.awssdk.services.redshiftserverless.model.NamespaceStatus;
 import software.amazon.awssdk.services.redshiftserverless.model.WorkgroupStatus;
-import software.amazon.awssdk.services.redshiftserverless.model.RedshiftServerlessResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.redshiftserverless.model.ServiceQuotaExceededException;
+import software.amazon.awssdk.services.redshiftserverless.model.ThrottlingException;
+import software.amazon.awssdk.services.redshiftserverless.model.TooManyTagsException;
 import software.amazon.awssdk.services.redshiftserverless.model.UpdateWorkgroupRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.UpdateWorkgroupResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.ValidationException;
-import software.amazon.awssdk.services.redshiftserverless.model.InternalServerException;
-import software.amazon.awssdk.services.redshiftserverless.model.InsufficientCapacityException;
-import software.amazon.awssdk.services.redshiftserverless.model.TooManyTagsException;
+import software.amazon.cloudformation.exceptions.CfnNotStabilizedException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.CallChain;
+import software.amazon.cloudformation.proxy.Delay;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
-import software.amazon.cloudformation.proxy.delay.Constant;
+import software.amazon.redshiftserverless.common.ApiRateLimiter;
+import software.amazon.redshiftserverless.common.DecorrelatedJitterRetry;
+import software.amazon.redshiftserverless.common.ExceptionClassifier;
+import software.amazon.redshiftserverless.common.HandlerLog;
+import software.amazon.redshiftserverless.common.HandlerMetrics;
+import software.amazon.redshiftserverless.common.Invocation;
+import software.amazon.redshiftserverless.common.JitteredExponentialDelay;
+import software.amazon.redshiftserverless.common.MemoizingProxyClient;
+import software.amazon.redshiftserverless.common.RetryAfterException;
+import software.amazon.redshiftserverless.common.TimeBudget;
 
-import java.util.regex.Pattern;
 import java.time.Duration;
+import java.util.function.BiFunction;
+import java.util.regex.Pattern;
 
 // Placeholder for the functionality that could be shared across Create/Read/Update/Delete/List Handlers
 
+/**
+ * Handlers keep no state of their own: one instance serves every invocation of its action, also concurrently. What
+ * belongs to an invocation travels alongside it: the state of the operation in the callback context, the log and the
+ * time budget in the {@link Invocation}.
+ */
 public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
-    protected Logger logger;
 
     public static final String BUSY_WORKGROUP_RETRY_EXCEPTION_MESSAGE =
             "There is an operation running on the existing workgroup";
 
     // This is for delete workgroup operation. We need AdminWF to finish the operation completely
-    // This is needed for CTV2 to work
-    public static final int EVENTUAL_CONSISTENCY_DELAY_SECONDS = 300;
+    // This is needed for CTV2 to work. The deletion has propagated once the namespace is available again
+    // and the workgroup is no longer listed, for a few probes in a row.
+    public static final int PROPAGATION_PROBE_INTERVAL_SECONDS = 15;
+    public static final int PROPAGATION_PROBE_SUCCESS_THRESHOLD = 3;
+    // Pages of ListWorkgroups a probe reads at most, a full page each, well above the workgroup quota of an account
+    public static final int PROPAGATION_PROBE_MAX_PAGES = 5;
+    public static final Duration DEFAULT_MAX_PROPAGATION_WAIT = Duration.ofSeconds(300L);
+
+    // Error codes of the service exceptions, and which of them are retried
+    private static final Pattern ALREADY_EXISTS = Pattern.compile("already exists", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WORKGROUP_BUSY = Pattern.compile(Pattern.quote(BUSY_WORKGROUP_RETRY_EXCEPTION_MESSAGE));
+
+    protected static final ExceptionClassifier.Rule SERVER_ERROR = new ExceptionClassifier.Rule(
+            HandlerErrorCode.InternalFailure, ExceptionClassifier.Retryability.TRANSIENT, Duration.ofSeconds(1L));
+    protected static final ExceptionClassifier.Rule WORKGROUP_BUSY_CONFLICT = new ExceptionClassifier.Rule(
+            HandlerErrorCode.ResourceConflict, ExceptionClassifier.Retryability.RESOURCE_BUSY, Duration.ofSeconds(10L));
+
+    protected static final ExceptionClassifier EXCEPTION_CLASSIFIER = ExceptionClassifier.builder(SERVER_ERROR)
+            .rule(ValidationException.class, ExceptionClassifier.fails(HandlerErrorCode.InvalidRequest))
+            .rule(TooManyTagsException.class, ExceptionClassifier.fails(HandlerErrorCode.InvalidRequest))
+            .rule(InvalidPaginationException.class, ExceptionClassifier.fails(HandlerErrorCode.InvalidRequest))
+            .rule(AccessDeniedException.class, ExceptionClassifier.fails(HandlerErrorCode.AccessDenied))
+            .rule(ResourceNotFoundException.class, ExceptionClassifier.fails(HandlerErrorCode.NotFound))
+            .rule(ServiceQuotaExceededException.class, ExceptionClassifier.fails(HandlerErrorCode.ServiceLimitExceeded))
+            .rule(ConflictException.class, ExceptionClassifier.fails(HandlerErrorCode.ResourceConflict))
+            .when(ConflictException.class, ALREADY_EXISTS, ExceptionClassifier.fails(HandlerErrorCode.AlreadyExists))
+            .when(ConflictException.class, WORKGROUP_BUSY, WORKGROUP_BUSY_CONFLICT)
+            .rule(InsufficientCapacityException.class, ExceptionClassifier.fails(HandlerErrorCode.ResourceConflict))
+            .when(InsufficientCapacityException.class, ALREADY_EXISTS, ExceptionClassifier.fails(HandlerErrorCode.AlreadyExists))
+            .rule(ThrottlingException.class, ExceptionClassifier.THROTTLED)
+            .rule(InternalServerException.class, SERVER_ERROR)
+            .build();
 
-    protected static boolean isRetriableWorkgroupException(ConflictException exception) {
-        return exception.getMessage().contains(BUSY_WORKGROUP_RETRY_EXCEPTION_MESSAGE);
-    }
+    // Calls back while another operation keeps the workgroup busy, for up to 15 minutes in total
+    protected static final Delay BUSY_WORKGROUP_RETRY_STRATEGY = JitteredExponentialDelay.of()
+            .initialDelay(WORKGROUP_BUSY_CONFLICT.getRetryDelay())
+            .maxDelay(Duration.ofSeconds(120L))
+            .multiplier(2.0)
+            .timeout(Duration.ofMinutes(15L))
+            .build();
+
+    // Stabilization polls start fast and back off, so that long operations do not eat into the account's API quota
+    protected static final Delay CREATE_BACKOFF_STRATEGY = JitteredExponentialDelay.of()
+            .initialDelay(Duration.ofSeconds(5L))
+            .maxDelay(Duration.ofSeconds(60L))
+            .timeout(Duration.ofMinutes(120L))
+            .build();
 
-    protected static final Constant BACKOFF_STRATEGY = Constant.of()
+    protected static final Delay UPDATE_BACKOFF_STRATEGY = JitteredExponentialDelay.of()
+            .initialDelay(Duration.ofSeconds(2L))
+            .maxDelay(Duration.ofSeconds(60L))
             .timeout(Duration.ofMinutes(120L))
-            .delay(Duration.ofSeconds(5L))
             .build();
 
-    protected static final Constant PREOPERATION_BACKOFF_STRATEGY = Constant.of()
+    protected static final Delay DELETE_BACKOFF_STRATEGY = JitteredExponentialDelay.of()
+            .initialDelay(Duration.ofSeconds(5L))
+            .maxDelay(Duration.ofSeconds(30L))
+            .timeout(Duration.ofMinutes(120L))
+            .build();
+
+    protected static final Delay PREOPERATION_BACKOFF_STRATEGY = JitteredExponentialDelay.of()
+            .initialDelay(Duration.ofSeconds(2L))
+            .maxDelay(Duration.ofSeconds(15L))
             .timeout(Duration.ofMinutes(5L))
-            .delay(Duration.ofSeconds(5L))
+            .build();
+
+    // CloudFormation does not pass the Lambda context on, so handlers call back once less than the margin of this
+    // budget is left
+    protected static final Duration INVOCATION_TIME_BUDGET = Duration.ofSeconds(60L);
+    protected static final Duration INVOCATION_SAFETY_MARGIN = Duration.ofSeconds(15L);
+
+    // Throttled and failed (5xx) service calls are retried; delays of up to 3 seconds are waited out in the Lambda
+    protected static final DecorrelatedJitterRetry SERVICE_CALL_RETRY_POLICY = DecorrelatedJitterRetry.of()
+            .baseDelay(Duration.ofSeconds(1L))
+            .maxDelay(Duration.ofSeconds(60L))
+            .maxAttempts(8)
+            .maxInProcessDelay(Duration.ofSeconds(3L))
+            .classifier(EXCEPTION_CLASSIFIER)
+            .build();
+
+    // Creates are only retried when throttled, a create that failed on the service side may have been applied already
+    protected static final DecorrelatedJitterRetry CREATE_CALL_RETRY_POLICY = DecorrelatedJitterRetry.of()
+            .baseDelay(Duration.ofSeconds(1L))
+            .maxDelay(Duration.ofSeconds(60L))
+            .maxAttempts(8)
+            .maxInProcessDelay(Duration.ofSeconds(3L))
+            .classifier(EXCEPTION_CLASSIFIER.throttlingOnly())
             .build();
 
     @Override
@@ -65,13 +157,105 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
             final CallbackContext callbackContext,
             final Logger logger) {
 
-        return handleRequest(
-                proxy,
-                request,
-                callbackContext != null ? callbackContext : new CallbackContext(),
-                proxy.newProxy(ClientBuilder::getClient),
-                logger
-        );
+        final CallbackContext context = callbackContext != null ? callbackContext : new CallbackContext();
+        final HandlerMetrics metrics = new HandlerMetrics(logger, ResourceModel.TYPE_NAME);
+        final Invocation invocation = new Invocation(HandlerLog.of(logger),
+                canCallBack() ? TimeBudget.startingNow(INVOCATION_TIME_BUDGET, INVOCATION_SAFETY_MARGIN) : TimeBudget.UNLIMITED);
+        try {
+            return handleRequest(
+                    proxy,
+                    request,
+                    context,
+                    decorate(request, metrics, proxy.newProxy(ClientBuilder::getClient)),
+                    invocation
+            );
+        } catch (final RetryAfterException e) {
+            invocation.getLog().info("CallingBack", "reason", e.getMessage(), "delaySeconds", e.getRetryAfterSeconds());
+            return ProgressEvent.defaultInProgressHandler(context, e.getRetryAfterSeconds(), request.getDesiredResourceState());
+        } finally {
+            metrics.flush();
+        }
+    }
+
+    /**
+     * Whether the handler may return IN_PROGRESS and call back. Calls of handlers that may not are not rate limited.
+     */
+    protected boolean canCallBack() {
+        return true;
+    }
+
+    /**
+     * Service call that is retried under {@link #SERVICE_CALL_RETRY_POLICY} while it is throttled or fails on the service side,
+     * and put off to the next invocation if the time budget of this one is used up.
+     */
+    protected <RequestT, ResponseT> BiFunction<RequestT, ProxyClient<RedshiftServerlessClient>, ResponseT> retrying(
+            final Invocation invocation,
+            final CallbackContext context,
+            final BiFunction<RequestT, ProxyClient<RedshiftServerlessClient>, ResponseT> serviceCall) {
+        return retrying(SERVICE_CALL_RETRY_POLICY, invocation, context, serviceCall);
+    }
+
+    /**
+     * Same as {@link #retrying(Invocation, CallbackContext, BiFunction)}, for service calls that log through the log of the invocation.
+     */
+    protected <RequestT, ResponseT> BiFunction<RequestT, ProxyClient<RedshiftServerlessClient>, ResponseT> retrying(
+            final Invocation invocation,
+            final CallbackContext context,
+            final LoggingServiceCall<RequestT, ResponseT> serviceCall) {
+        return retrying(invocation, context, (awsRequest, client) -> serviceCall.invoke(awsRequest, client, invocation.getLog()));
+    }
+
+    /**
+     * Create call that is retried under {@link #CREATE_CALL_RETRY_POLICY}, that is only while it is throttled, and put off
+     * to the next invocation if the time budget of this one is used up.
+     */
+    protected <RequestT, ResponseT> BiFunction<RequestT, ProxyClient<RedshiftServerlessClient>, ResponseT> retryingCreate(
+            final Invocation invocation,
+            final CallbackContext context,
+            final LoggingServiceCall<RequestT, ResponseT> serviceCall) {
+        return retrying(CREATE_CALL_RETRY_POLICY, invocation, context,
+                (RequestT awsRequest, ProxyClient<RedshiftServerlessClient> client) -> serviceCall.invoke(awsRequest, client, invocation.getLog()));
+    }
+
+    private <RequestT, ResponseT> BiFunction<RequestT, ProxyClient<RedshiftServerlessClient>, ResponseT> retrying(
+            final DecorrelatedJitterRetry policy,
+            final Invocation invocation,
+            final CallbackContext context,
+            final BiFunction<RequestT, ProxyClient<RedshiftServerlessClient>, ResponseT> serviceCall) {
+        return (awsRequest, client) -> {
+            invocation.getTimeBudget().check(awsRequest.getClass().getSimpleName());
+            return policy.call(context, canCallBack(), invocation.getTimeBudget(), invocation.getLog(),
+                    () -> serviceCall.apply(awsRequest, client));
+        };
+    }
+
+    /**
+     * Service call of a handler that logs what it does.
+     */
+    @FunctionalInterface
+    protected interface LoggingServiceCall<RequestT, ResponseT> {
+        ResponseT invoke(RequestT awsRequest, ProxyClient<RedshiftServerlessClient> client, HandlerLog log);
+    }
+
+    private ProxyClient<RedshiftServerlessClient> decorate(final ResourceHandlerRequest<ResourceModel> request,
+                                                           final HandlerMetrics metrics,
+                                                           final ProxyClient<RedshiftServerlessClient> proxyClient) {
+        final ProxyClient<RedshiftServerlessClient> instrumented = metrics.instrument(proxyClient);
+        return MemoizingProxyClient.memoize(canCallBack()
+                ? ApiRateLimiter.SHARED.limit(request.getAwsAccountId(), request.getRegion(), instrumented)
+                : instrumented);
+    }
+
+    /**
+     * Same as the handler, for an invocation without a deadline, such as in unit tests.
+     */
+    protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
+            final AmazonWebServicesClientProxy proxy,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext callbackContext,
+            final ProxyClient<RedshiftServerlessClient> proxyClient,
+            final Logger logger) {
+        return handleRequest(proxy, request, callbackContext, proxyClient, Invocation.of(logger));
     }
 
     protected abstract ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -79,125 +263,211 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
             final ResourceHandlerRequest<ResourceModel> request,
             final CallbackContext callbackContext,
             final ProxyClient<RedshiftServerlessClient> proxyClient,
-            final Logger logger);
+            final Invocation invocation);
+
+    /**
+     * Stabilizer whose polls are measured under the given stage and always read fresh state, even through a
+     * memoizing client. A poll that is throttled or fails on the service side counts as not stable yet, so the next
+     * poll tries again. No poll starts once the time budget of the invocation is used up.
+     *
+     * The wait between polls is left to the proxy, which polls in the Lambda when it was built for that. Meant for
+     * short waits; long ones should use {@link #callbackStabilizer}.
+     */
+    protected <RequestT, ResponseT> CallChain.Callback<RequestT, ResponseT, RedshiftServerlessClient, ResourceModel, CallbackContext, Boolean> stabilizer(
+            final Invocation invocation,
+            final String stage,
+            final CallChain.Callback<RequestT, ResponseT, RedshiftServerlessClient, ResourceModel, CallbackContext, Boolean> stabilizer) {
+        return MemoizingProxyClient.polling(HandlerMetrics.stabilization(stage, (awsRequest, awsResponse, client, model, context) -> {
+            invocation.getTimeBudget().check(stage);
+            try {
+                return stabilizer.invoke(awsRequest, awsResponse, client, model, context);
+            } catch (final RuntimeException e) {
+                if (!EXCEPTION_CLASSIFIER.classify(e).isTransient()) {
+                    throw e;
+                }
+                invocation.getLog().warn("StabilizationPollFailed", "stage", stage, "error", e.getMessage());
+                return false;
+            }
+        }));
+    }
+
+    /**
+     * Stabilizer that polls once per invocation: while the workgroup is not stable the handler calls back after the
+     * next delay of the given schedule, instead of waiting in the Lambda. The proxy replays the step up to its
+     * stabilization from the callback context, so the next invocation goes straight to the next poll. The number of
+     * polls is kept in the callback context, and the step fails as not stabilized once the schedule runs out.
+     *
+     * @param invocation the current invocation
+     * @param stage stabilization stage, also the name the polls of the step are counted under
+     * @param delays delays between polls
+     * @param stabilizer poll of the workgroup
+     */
+    protected <RequestT, ResponseT> CallChain.Callback<RequestT, ResponseT, RedshiftServerlessClient, ResourceModel, CallbackContext, Boolean> callbackStabilizer(
+            final Invocation invocation,
+            final String stage,
+            final Delay delays,
+            final CallChain.Callback<RequestT, ResponseT, RedshiftServerlessClient, ResourceModel, CallbackContext, Boolean> stabilizer) {
+        final CallChain.Callback<RequestT, ResponseT, RedshiftServerlessClient, ResourceModel, CallbackContext, Boolean> poll = stabilizer(invocation, stage, stabilizer);
+        return (awsRequest, awsResponse, client, model, context) -> {
+            if (!stage.equals(context.getStabilizingStage())) {
+                context.setStabilizingStage(stage);
+                context.setStabilizationPolls(0);
+            }
+            if (poll.invoke(awsRequest, awsResponse, client, model, context)) {
+                context.setStabilizingStage(null);
+                context.setStabilizationPolls(0);
+                return true;
+            }
+            final int polls = context.getStabilizationPolls() + 1;
+            final Duration delay = delays.nextDelay(polls);
+            if (delay.isZero()) {
+                throw new CfnNotStabilizedException(ResourceModel.TYPE_NAME, model.getWorkgroupName());
+            }
+            context.setStabilizationPolls(polls);
+            throw new RetryAfterException(String.format("%s %s is not stable yet after %d polls.", stage, model.getWorkgroupName(), polls),
+                    null, HandlerErrorCode.NotStabilized, delay);
+        };
+    }
+
+    /**
+     * Wraps an error handler so that a conflict with another operation running on the workgroup calls back after an
+     * exponentially growing delay instead of failing the stack. The number of retries is kept in the callback context
+     * per step, so that each step of a handler gets the full budget, and once {@link #BUSY_WORKGROUP_RETRY_STRATEGY}
+     * gives up the conflict goes to the error handler like any other.
+     *
+     * @param invocation the current invocation
+     * @param step name of the step, unique within the handler
+     * @param callbackModel model to call back with, which becomes the desired state of the next invocation
+     * @param errorHandler handler for every other exception
+     */
+    protected <RequestT> CallChain.ExceptionPropagate<RequestT, Exception, RedshiftServerlessClient, ResourceModel, CallbackContext, ProgressEvent<ResourceModel, CallbackContext>> retryWhenBusy(
+            final Invocation invocation,
+            final String step,
+            final ResourceModel callbackModel,
+            final CallChain.ExceptionPropagate<RequestT, Exception, RedshiftServerlessClient, ResourceModel, CallbackContext, ProgressEvent<ResourceModel, CallbackContext>> errorHandler) {
+        return (awsRequest, exception, client, model, context) -> {
+            if (EXCEPTION_CLASSIFIER.classify(exception).getRetryability() == ExceptionClassifier.Retryability.RESOURCE_BUSY) {
+                if (!step.equals(context.getBusyStep())) {
+                    context.setBusyStep(step);
+                    context.setBusyWorkgroupRetries(0);
+                }
+                final int retry = context.getBusyWorkgroupRetries() + 1;
+                final Duration delay = BUSY_WORKGROUP_RETRY_STRATEGY.nextDelay(retry);
+                if (!delay.isZero()) {
+                    context.setBusyWorkgroupRetries(retry);
+                    invocation.getLog().info("WorkgroupBusy", "workgroup", callbackModel.getWorkgroupName(), "step", step, "retry", retry,
+                            "delaySeconds", delay.getSeconds());
+                    return ProgressEvent.defaultInProgressHandler(context, (int) delay.getSeconds(), callbackModel);
+                }
+                invocation.getLog().warn("WorkgroupStillBusy", "workgroup", callbackModel.getWorkgroupName(), "step", step,
+                        "retries", context.getBusyWorkgroupRetries());
+            }
+            return errorHandler.invoke(awsRequest, exception, client, model, context);
+        };
+    }
 
     protected GetNamespaceResponse readNamespace(final GetNamespaceRequest getNamespaceRequest,
-                                                 final ProxyClient<RedshiftServerlessClient> proxyClient) {
+                                                 final ProxyClient<RedshiftServerlessClient> proxyClient,
+                                                 final HandlerLog log) {
 
         GetNamespaceResponse awsResponse = proxyClient.injectCredentialsAndInvokeV2(
                 getNamespaceRequest, proxyClient.client()::getNamespace);
 
-        logger.log(String.format("Namespace : %s has successfully been read.", awsResponse.namespace().namespaceName()));
-        logger.log(awsResponse.toString());
+        log.info("NamespaceRead", "namespace", awsResponse.namespace().namespaceName(), "status", awsResponse.namespace().statusAsString());
+        log.debug("NamespaceRead", "response", awsResponse);
 
         return awsResponse;
     }
 
     protected GetWorkgroupResponse readWorkgroup(final GetWorkgroupRequest awsRequest,
-                                                 final ProxyClient<RedshiftServerlessClient> proxyClient) {
+                                                 final ProxyClient<RedshiftServerlessClient> proxyClient,
+                                                 final HandlerLog log) {
 
         GetWorkgroupResponse awsResponse = proxyClient.injectCredentialsAndInvokeV2(
                 awsRequest, proxyClient.client()::getWorkgroup);
 
-        logger.log(String.format("Workgroup : %s has successfully been read.", awsResponse.workgroup().workgroupName()));
-        logger.log(awsResponse.toString());
+        log.info("WorkgroupRead", "workgroup", awsResponse.workgroup().workgroupName(), "status", awsResponse.workgroup().statusAsString());
+        log.debug("WorkgroupRead", "response", awsResponse);
 
         return awsResponse;
     }
 
     protected CreateWorkgroupResponse createWorkgroup(final CreateWorkgroupRequest awsRequest,
-                                                      final ProxyClient<RedshiftServerlessClient> proxyClient) {
+                                                      final ProxyClient<RedshiftServerlessClient> proxyClient,
+                                                      final HandlerLog log) {
 
         CreateWorkgroupResponse awsResponse = proxyClient.injectCredentialsAndInvokeV2(
                 awsRequest, proxyClient.client()::createWorkgroup);
 
-        logger.log(String.format("Workgroup : %s has successfully been created.", awsResponse.workgroup().workgroupName()));
-        logger.log(awsResponse.toString());
+        log.info("WorkgroupCreated", "workgroup", awsResponse.workgroup().workgroupName(), "status", awsResponse.workgroup().statusAsString());
+        log.debug("WorkgroupCreated", "response", awsResponse);
 
         return awsResponse;
     }
 
     protected UpdateWorkgroupResponse updateWorkgroup(final UpdateWorkgroupRequest awsRequest,
-                                                      final ProxyClient<RedshiftServerlessClient> proxyClient) {
+                                                      final ProxyClient<RedshiftServerlessClient> proxyClient,
+                                                      final HandlerLog log) {
 
         UpdateWorkgroupResponse awsResponse = proxyClient.injectCredentialsAndInvokeV2(
                 awsRequest, proxyClient.client()::updateWorkgroup);
 
-        logger.log(String.format("Workgroup : %s has successfully been updated.", awsResponse.workgroup().workgroupName()));
-        logger.log(awsResponse.toString());
+        log.info("WorkgroupUpdated", "workgroup", awsResponse.workgroup().workgroupName(), "status", awsResponse.workgroup().statusAsString());
+        log.debug("WorkgroupUpdated", "response", awsResponse);
 
         return awsResponse;
 
     }
 
     protected DeleteWorkgroupResponse deleteWorkgroup(final DeleteWorkgroupRequest awsRequest,
-                                                      final ProxyClient<RedshiftServerlessClient> proxyClient) {
+                                                      final ProxyClient<RedshiftServerlessClient> proxyClient,
+                                                      final HandlerLog log) {
 
         DeleteWorkgroupResponse awsResponse = proxyClient.injectCredentialsAndInvokeV2(
                 awsRequest, proxyClient.client()::deleteWorkgroup);
 
-        logger.log(String.format("Workgroup : %s has successfully been deleted.", awsResponse.workgroup().workgroupName()));
-        logger.log(awsResponse.toString());
+        log.info("WorkgroupDeleted", "workgroup", awsResponse.workgroup().workgroupName(), "status", awsResponse.workgroup().statusAsString());
+        log.debug("WorkgroupDeleted", "response", awsResponse);
 
         return awsResponse;
     }
 
-    protected boolean isWorkgroupStable(final Object awsRequest,
-                                        final RedshiftServerlessResponse awsResponse,
-                                        final ProxyClient<RedshiftServerlessClient> proxyClient,
+    protected boolean isWorkgroupStable(final ProxyClient<RedshiftServerlessClient> proxyClient,
                                         final ResourceModel model,
-                                        final CallbackContext context) {
+                                        final HandlerLog log) {
 
         GetWorkgroupRequest getWorkgroupStatusRequest = GetWorkgroupRequest.builder()
                 .workgroupName(model.getWorkgroupName())
                 .build();
 
-        GetWorkgroupResponse getWorkgroupResponse = this.readWorkgroup(getWorkgroupStatusRequest, proxyClient);
-
-        logger.log(String.format("Workgroup: %s has successfully been read.", getWorkgroupResponse.workgroup().workgroupName()));
-
-        logger.log(getWorkgroupResponse.toString());
+        GetWorkgroupResponse getWorkgroupResponse = this.readWorkgroup(getWorkgroupStatusRequest, proxyClient, log);
 
         return getWorkgroupResponse.workgroup().status().equals(WorkgroupStatus.AVAILABLE);
     }
 
-    protected boolean isNamespaceStable(final Object awsRequest,
-                                        final RedshiftServerlessResponse awsResponse,
-                                        final ProxyClient<RedshiftServerlessClient> proxyClient,
+    protected boolean isNamespaceStable(final ProxyClient<RedshiftServerlessClient> proxyClient,
                                         final ResourceModel model,
-                                        final CallbackContext context) {
+                                        final HandlerLog log) {
 
         GetNamespaceRequest getNamespaceRequest = GetNamespaceRequest.builder()
                 .namespaceName(model.getNamespaceName())
                 .build();
 
-        GetNamespaceResponse getNamespaceResponse = this.readNamespace(getNamespaceRequest, proxyClient);
-
-        logger.log(String.format("%s : Namespace: %s has successfully been read.",
-                ResourceModel.TYPE_NAME, getNamespaceResponse.namespace().namespaceName()));
-
-        logger.log(getNamespaceResponse.toString());
+        GetNamespaceResponse getNamespaceResponse = this.readNamespace(getNamespaceRequest, proxyClient, log);
 
         return getNamespaceResponse.namespace().status().equals(NamespaceStatus.AVAILABLE);
     }
 
-    protected boolean isWorkgroupDeleted(final Object awsRequest,
-                                         final RedshiftServerlessResponse awsResponse,
-                                         final ProxyClient<RedshiftServerlessClient> proxyClient,
+    protected boolean isWorkgroupDeleted(final ProxyClient<RedshiftServerlessClient> proxyClient,
                                          final ResourceModel model,
-                                         final CallbackContext context) {
+                                         final HandlerLog log) {
 
         GetWorkgroupRequest getWorkgroupStatusRequest = GetWorkgroupRequest.builder()
                 .workgroupName(model.getWorkgroupName())
                 .build();
 
         try {
-            GetWorkgroupResponse getWorkgroupResponse = this.readWorkgroup(getWorkgroupStatusRequest, proxyClient);
-
-            logger.log(String.format("%s : Workgroup: %s has successfully been read.",
-                    ResourceModel.TYPE_NAME, getWorkgroupResponse.workgroup().workgroupName()));
-
-            logger.log(getWorkgroupResponse.toString());
+            this.readWorkgroup(getWorkgroupStatusRequest, proxyClient, log);
         } catch (ResourceNotFoundException e) {
             return true;
         }
@@ -211,28 +481,6 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
                                                                                          final ResourceModel model,
                                                                                          final CallbackContext context) {
 
-        if (exception instanceof ValidationException || exception instanceof TooManyTagsException) {
-            return ProgressEvent.defaultFailureHandler(exception, HandlerErrorCode.InvalidRequest);
-
-        } else if (exception instanceof ConflictException || exception instanceof InsufficientCapacityException) {
-            Pattern pattern = Pattern.compile(".*already exists.*", Pattern.CASE_INSENSITIVE);
-            HandlerErrorCode handlerErrorCode = pattern.matcher(exception.getMessage()).matches() ?
-                    HandlerErrorCode.AlreadyExists :
-                    HandlerErrorCode.ResourceConflict;
-
-            return ProgressEvent.defaultFailureHandler(exception, handlerErrorCode);
-
-        } else if (exception instanceof ResourceNotFoundException) {
-            return ProgressEvent.defaultFailureHandler(exception, HandlerErrorCode.NotFound);
-
-        } else if (exception instanceof InternalServerException) {
-            return ProgressEvent.defaultFailureHandler(exception, HandlerErrorCode.InternalFailure);
-
-        } else if (exception instanceof ValidationException) {
-            return ProgressEvent.defaultFailureHandler(exception, HandlerErrorCode.InvalidRequest);
-
-        } else {
-            return ProgressEvent.defaultFailureHandler(exception, HandlerErrorCode.GeneralServiceException);
-        }
+        return ProgressEvent.defaultFailureHandler(exception, EXCEPTION_CLASSIFIER.classify(exception).getErrorCode());
     }
 }
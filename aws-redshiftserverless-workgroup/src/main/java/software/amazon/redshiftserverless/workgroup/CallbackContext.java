@@ -1,12 +1,41 @@
 package software.amazon.redshiftserverless.workgroup;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import software.amazon.cloudformation.proxy.StdCallbackContext;
+import software.amazon.redshiftserverless.common.CallGraphCompactor;
+import software.amazon.redshiftserverless.common.DecorrelatedJitterRetry;
+
+import java.util.Map;
 
 @lombok.Getter
 @lombok.Setter
 @lombok.ToString
 @lombok.EqualsAndHashCode(callSuper = true)
-public class CallbackContext extends StdCallbackContext {
+// Fields at their defaults are left out of the callback payload
+@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+public class CallbackContext extends StdCallbackContext implements DecorrelatedJitterRetry.State {
     int retryOnResourceNotFound = 5;
-    boolean propagationDelay = false;
+    // Consecutive and total probes confirming that a workgroup deletion has propagated to its namespace
+    int propagationProbes = 0;
+    int propagationProbeAttempts = 0;
+    // Step that another operation kept the workgroup busy for, and the callbacks made for it so far
+    String busyStep = null;
+    int busyWorkgroupRetries = 0;
+    // Retries of the current service call after throttling or service errors, and the delay before the last one
+    int serviceCallRetries = 0;
+    long serviceCallRetryDelayMillis = 0L;
+    // Stabilization that calls back between polls, and the polls it made so far
+    String stabilizingStage = null;
+    int stabilizationPolls = 0;
+
+    /**
+     * Call graph written to the callback payload instead of the full one, see {@link CallGraphCompactor}.
+     */
+    @JsonProperty("callGraphs")
+    @JsonSerialize(using = StdCallbackContext.Serializer.class)
+    Map<String, Object> compactCallGraphs() {
+        return CallGraphCompactor.compact(callGraphs());
+    }
 }
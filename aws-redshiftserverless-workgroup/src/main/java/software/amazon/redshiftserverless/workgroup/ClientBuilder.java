@@ -1,13 +1,24 @@
 package software.amazon.redshiftserverless.workgroup;
 
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.services.redshiftserverless.RedshiftServerlessClient;
 import software.amazon.cloudformation.LambdaWrapper;
+import software.amazon.redshiftserverless.common.ClientCache;
+import software.amazon.redshiftserverless.common.HandlerMetrics;
 
 public class ClientBuilder {
+    // Workgroup handlers use one service
+    private static final int MAX_CACHED_CLIENTS = 1;
+    private static final ClientCache CLIENT_CACHE = new ClientCache(MAX_CACHED_CLIENTS);
+    private static final ClientOverrideConfiguration CLIENT_CONFIGURATION = ClientOverrideConfiguration.builder()
+            .addExecutionInterceptor(HandlerMetrics.ATTEMPT_COUNTER)
+            .build();
 
     public static RedshiftServerlessClient getClient() {
-        return RedshiftServerlessClient.builder()
-                .httpClient(LambdaWrapper.HTTP_CLIENT)
-                .build();
+        return CLIENT_CACHE.getOrCreate(RedshiftServerlessClient.SERVICE_NAME, RedshiftServerlessClient.class,
+                () -> RedshiftServerlessClient.builder()
+                        .httpClient(LambdaWrapper.HTTP_CLIENT)
+                        .overrideConfiguration(CLIENT_CONFIGURATION)
+                        .build());
     }
 }
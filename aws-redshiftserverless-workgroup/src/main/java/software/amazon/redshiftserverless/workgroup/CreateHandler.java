@@ -10,38 +10,41 @@ import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceRequ
 import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.InsufficientCapacityException;
 import software.amazon.awssdk.services.redshiftserverless.model.InternalServerException;
-import software.amazon.awssdk.services.redshiftserverless.model.RedshiftServerlessResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.ResourceNotFoundException;
 import software.amazon.awssdk.services.redshiftserverless.model.TooManyTagsException;
 import software.amazon.awssdk.services.redshiftserverless.model.ValidationException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
-import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.redshiftserverless.common.HandlerLog;
+import software.amazon.redshiftserverless.common.Invocation;
 
 import java.util.regex.Pattern;
 
 public class CreateHandler extends BaseHandlerStd {
+    private static final ReadHandler READ_HANDLER = new ReadHandler();
+
 
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
             final AmazonWebServicesClientProxy proxy,
             final ResourceHandlerRequest<ResourceModel> request,
             final CallbackContext callbackContext,
             final ProxyClient<RedshiftServerlessClient> proxyClient,
-            final Logger logger) {
+            final Invocation invocation) {
 
-        this.logger = logger;
+        final HandlerLog log = invocation.getLog();
 
         return ProgressEvent.progress(request.getDesiredResourceState(), callbackContext)
                 .then(progress ->
                         proxy.initiate("AWS-RedshiftServerless-Workgroup::Create", proxyClient, progress.getResourceModel(), progress.getCallbackContext())
                                 .translateToServiceRequest(Translator::translateToCreateRequest)
-                                .backoffDelay(BACKOFF_STRATEGY)
-                                .makeServiceCall(this::createWorkgroup)
-                                .stabilize(this::isWorkgroupStable)
-                                .handleError(this::createWorkgroupErrorHandler)
+                                .backoffDelay(CREATE_BACKOFF_STRATEGY)
+                                .makeServiceCall(retryingCreate(invocation, progress.getCallbackContext(), this::createWorkgroup))
+                                .stabilize(callbackStabilizer(invocation, "CreateWorkgroup", CREATE_BACKOFF_STRATEGY, (_awsRequest, _awsResponse, _client, _model, _context) -> isWorkgroupStable(_client, _model, log)))
+                                .handleError((_awsRequest, _exception, _client, _model, _context) ->
+                                        createWorkgroupErrorHandler(_awsRequest, _exception, _client, _model, _context, log))
                                 .done(awsResponse -> {
                                     return ProgressEvent.progress(Translator.translateFromCreateResponse(awsResponse), callbackContext);
                                 })
@@ -49,24 +52,25 @@ public class CreateHandler extends BaseHandlerStd {
                 .then(progress ->
                         proxy.initiate("AWS-RedshiftServerless-Workgroup::ReadNameSpace", proxyClient, progress.getResourceModel(), progress.getCallbackContext())
                                 .translateToServiceRequest(Translator::translateToReadNamespaceRequest)
-                                .backoffDelay(BACKOFF_STRATEGY)
-                                .makeServiceCall(this::readNamespace)
-                                .stabilize(this::isNamespaceStable)
-                                .handleError(this::createWorkgroupErrorHandler)
+                                .backoffDelay(CREATE_BACKOFF_STRATEGY)
+                                .makeServiceCall(retrying(invocation, progress.getCallbackContext(), this::readNamespace))
+                                .stabilize(stabilizer(invocation, "CreateWorkgroup::Namespace", (_awsRequest, _awsResponse, _client, _model, _context) -> isNamespaceStable(_client, _model, log)))
+                                .handleError((_awsRequest, _exception, _client, _model, _context) ->
+                                        createWorkgroupErrorHandler(_awsRequest, _exception, _client, _model, _context, log))
                                 .progress()
                 )
-                .then(progress -> new ReadHandler().handleRequest(proxy, request, callbackContext, proxyClient, logger));
+                .then(progress -> READ_HANDLER.handleRequest(proxy, request, callbackContext, proxyClient, invocation));
     }
 
     private ProgressEvent<ResourceModel, CallbackContext> createWorkgroupErrorHandler(final Object awsRequest,
                                                                                       final Exception exception,
                                                                                       final ProxyClient<RedshiftServerlessClient> client,
                                                                                       final ResourceModel model,
-                                                                                      final CallbackContext context) {
+                                                                                      final CallbackContext context,
+                                                                                      final HandlerLog log) {
 
-        logger.log(String.format("Operation: %s : encountered exception for model: %s",
-                awsRequest.getClass().getName(), ResourceModel.TYPE_NAME));
-        logger.log(awsRequest.toString());
+        log.warn("ServiceCallFailed", "operation", awsRequest.getClass().getSimpleName(), "error", exception.getMessage(),
+                "request", awsRequest);
 
         return this.defaultWorkgroupErrorHandler(awsRequest, exception, client, model, context);
     }
@@ -4,74 +4,173 @@ import software.amazon.awssdk.services.redshiftserverless.RedshiftServerlessClie
 import software.amazon.awssdk.services.redshiftserverless.model.ConflictException;
 import software.amazon.awssdk.services.redshiftserverless.model.DeleteWorkgroupRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.DeleteWorkgroupResponse;
-import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.InternalServerException;
+import software.amazon.awssdk.services.redshiftserverless.model.ListWorkgroupsResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.NamespaceStatus;
-import software.amazon.awssdk.services.redshiftserverless.model.RedshiftServerlessResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.ResourceNotFoundException;
 import software.amazon.awssdk.services.redshiftserverless.model.ValidationException;
+import software.amazon.cloudformation.exceptions.BaseHandlerException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
-import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.redshiftserverless.common.HandlerLog;
+import software.amazon.redshiftserverless.common.Invocation;
+import software.amazon.redshiftserverless.common.ListPager;
+
+import java.time.Duration;
 
 public class DeleteHandler extends BaseHandlerStd {
+    // With MAX_PROPAGATION_WAIT_SECONDS in the environment of the handler, the deletion is probed for that long instead
+    // of the default
+    private static final Duration MAX_PROPAGATION_WAIT = maxPropagationWait(System.getenv("MAX_PROPAGATION_WAIT_SECONDS"));
+
+    private final Duration maxPropagationWait;
+
+    public DeleteHandler() {
+        this(MAX_PROPAGATION_WAIT);
+    }
+
+    /**
+     * @param maxPropagationWait how long to keep probing for the deletion to propagate before moving on regardless
+     */
+    DeleteHandler(final Duration maxPropagationWait) {
+        this.maxPropagationWait = maxPropagationWait;
+    }
+
+    /**
+     * @param seconds number of seconds, as set in the environment
+     * @return the wait, or the default if it is missing, not a number or negative
+     */
+    static Duration maxPropagationWait(final String seconds) {
+        if (seconds == null) {
+            return DEFAULT_MAX_PROPAGATION_WAIT;
+        }
+        try {
+            final long parsed = Long.parseLong(seconds.trim());
+            return parsed >= 0L ? Duration.ofSeconds(parsed) : DEFAULT_MAX_PROPAGATION_WAIT;
+        } catch (final NumberFormatException e) {
+            return DEFAULT_MAX_PROPAGATION_WAIT;
+        }
+    }
 
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(final AmazonWebServicesClientProxy proxy,
                                                                           final ResourceHandlerRequest<ResourceModel> request,
                                                                           final CallbackContext callbackContext,
                                                                           final ProxyClient<RedshiftServerlessClient> proxyClient,
-                                                                          final Logger logger) {
+                                                                          final Invocation invocation) {
 
-        this.logger = logger;
+        final HandlerLog log = invocation.getLog();
 
         return ProgressEvent.progress(request.getDesiredResourceState(), callbackContext)
                 .then(progress ->
                         proxy.initiate("AWS-RedshiftServerless-Workgroup::Delete", proxyClient, progress.getResourceModel(), progress.getCallbackContext())
                                 .translateToServiceRequest(Translator::translateToDeleteRequest)
-                                .backoffDelay(BACKOFF_STRATEGY)
-                                .makeServiceCall(this::deleteWorkgroup)
-                                .stabilize(this::isWorkgroupDeleted)
-                                .handleError(this::deleteWorkgroupErrorHandler)
+                                .backoffDelay(DELETE_BACKOFF_STRATEGY)
+                                .makeServiceCall(retrying(invocation, progress.getCallbackContext(), this::deleteWorkgroup))
+                                .stabilize(callbackStabilizer(invocation, "DeleteWorkgroup", DELETE_BACKOFF_STRATEGY, (_awsRequest, _awsResponse, _client, _model, _context) -> isWorkgroupDeleted(_client, _model, log)))
+                                .handleError(retryWhenBusy(invocation, "DeleteWorkgroup", request.getDesiredResourceState(), (_awsRequest, _exception, _client, _model, _context) ->
+                                        deleteWorkgroupErrorHandler(_awsRequest, _exception, _client, _model, _context, log)))
                                 .done(awsResponse -> {
                                     return ProgressEvent.progress(Translator.translateFromDeleteResponse(awsResponse), callbackContext);
                                 })
                 )
-                .then(progress -> {
-                    if (progress.getCallbackContext().isPropagationDelay()) {
-                        logger.log("Propagation delay completed");
-                        return ProgressEvent.progress(progress.getResourceModel(), progress.getCallbackContext());
-                    }
-                    progress.getCallbackContext().setPropagationDelay(true);
-                    logger.log("Setting propagation delay");
-                    return ProgressEvent.defaultInProgressHandler(progress.getCallbackContext(),
-                            EVENTUAL_CONSISTENCY_DELAY_SECONDS, progress.getResourceModel());
-                })
+                .then(progress -> probeDeletePropagation(proxyClient, progress.getResourceModel(), progress.getCallbackContext(), log))
                 .then(progress ->
                         proxy.initiate("AWS-RedshiftServerless-Workgroup::ReadNameSpaceAfterDelete", proxyClient, progress.getResourceModel(), progress.getCallbackContext())
                                 .translateToServiceRequest(Translator::translateToReadNamespaceRequest)
-                                .backoffDelay(BACKOFF_STRATEGY)
-                                .makeServiceCall(this::readNamespace)
-                                .stabilize(this::isNamespaceStable)
-                                .handleError(this::deleteWorkgroupErrorHandler)
+                                .backoffDelay(DELETE_BACKOFF_STRATEGY)
+                                .makeServiceCall(retrying(invocation, progress.getCallbackContext(), this::readNamespace))
+                                .stabilize(stabilizer(invocation, "DeleteWorkgroup::Namespace", (_awsRequest, _awsResponse, _client, _model, _context) -> isNamespaceStable(_client, _model, log)))
+                                .handleError((_awsRequest, _exception, _client, _model, _context) ->
+                                        deleteWorkgroupErrorHandler(_awsRequest, _exception, _client, _model, _context, log))
                                 .progress()
                 )
                 .then(progress -> ProgressEvent.defaultSuccessHandler(null));
     }
 
+    /**
+     * Probes once per invocation whether the deleted workgroup is gone from the namespace's point of view, and calls back
+     * after a short interval until enough probes in a row agree or the maximum propagation wait is used up. The workgroup
+     * is already deleted, so a probe that fails only counts as not propagated yet and the next probe tries again.
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> probeDeletePropagation(final ProxyClient<RedshiftServerlessClient> proxyClient,
+                                                                                 final ResourceModel model,
+                                                                                 final CallbackContext callbackContext,
+                                                                                 final HandlerLog log) {
+        if (callbackContext.getPropagationProbes() >= PROPAGATION_PROBE_SUCCESS_THRESHOLD) {
+            return ProgressEvent.progress(model, callbackContext);
+        }
+
+        boolean propagated;
+        try {
+            propagated = isDeletePropagated(proxyClient, model, callbackContext, log);
+        } catch (final BaseHandlerException e) {
+            throw e;
+        } catch (final Exception e) {
+            log.warn("PropagationProbeFailed", "error", e.getMessage());
+            propagated = false;
+        }
+
+        callbackContext.setPropagationProbes(propagated ? callbackContext.getPropagationProbes() + 1 : 0);
+        callbackContext.setPropagationProbeAttempts(callbackContext.getPropagationProbeAttempts() + 1);
+
+        if (callbackContext.getPropagationProbes() >= PROPAGATION_PROBE_SUCCESS_THRESHOLD) {
+            log.info("PropagationConfirmed", "probes", callbackContext.getPropagationProbeAttempts());
+            return ProgressEvent.progress(model, callbackContext);
+        }
+        if ((long) callbackContext.getPropagationProbeAttempts() * PROPAGATION_PROBE_INTERVAL_SECONDS >= maxPropagationWait.getSeconds()) {
+            log.warn("PropagationUnconfirmed", "probes", callbackContext.getPropagationProbeAttempts());
+            return ProgressEvent.progress(model, callbackContext);
+        }
+        return ProgressEvent.defaultInProgressHandler(callbackContext, PROPAGATION_PROBE_INTERVAL_SECONDS, model);
+    }
+
+    /**
+     * @return true if the namespace is available again and none of the first {@link #PROPAGATION_PROBE_MAX_PAGES} pages
+     * of workgroups lists the deleted one; a listing that goes on past them is inconclusive and counts as not propagated
+     */
+    private boolean isDeletePropagated(final ProxyClient<RedshiftServerlessClient> proxyClient,
+                                       final ResourceModel model,
+                                       final CallbackContext callbackContext,
+                                       final HandlerLog log) {
+        final boolean namespaceAvailable = NamespaceStatus.AVAILABLE.equals(proxyClient.injectCredentialsAndInvokeV2(
+                Translator.translateToReadNamespaceRequest(model), proxyClient.client()::getNamespace).namespace().status());
+
+        String nextToken = null;
+        boolean workgroupListed = false;
+        int pages = 0;
+        while (namespaceAvailable && !workgroupListed && pages < PROPAGATION_PROBE_MAX_PAGES) {
+            final ListWorkgroupsResponse listWorkgroupsResponse = proxyClient.injectCredentialsAndInvokeV2(
+                    Translator.translateToListRequest(nextToken, ListPager.MAX_PAGE_SIZE), proxyClient.client()::listWorkgroups);
+            pages++;
+            workgroupListed = listWorkgroupsResponse.workgroups().stream()
+                    .anyMatch(workgroup -> model.getWorkgroupName().equals(workgroup.workgroupName()));
+            nextToken = listWorkgroupsResponse.nextToken();
+            if (nextToken == null) {
+                break;
+            }
+        }
+        final boolean listedCompletely = nextToken == null;
+
+        log.info("PropagationProbe", "probe", callbackContext.getPropagationProbeAttempts() + 1,
+                "namespaceAvailable", namespaceAvailable, "workgroupListed", workgroupListed, "pages", pages,
+                "listedCompletely", listedCompletely);
+        return namespaceAvailable && !workgroupListed && listedCompletely;
+    }
+
     private ProgressEvent<ResourceModel, CallbackContext> deleteWorkgroupErrorHandler(final Object awsRequest,
                                                                                       final Exception exception,
                                                                                       final ProxyClient<RedshiftServerlessClient> client,
                                                                                       final ResourceModel model,
-                                                                                      final CallbackContext context) {
-        logger.log(String.format("Operation: %s : encountered exception for model : %s",
-                awsRequest.getClass().getName(), ResourceModel.TYPE_NAME));
-        logger.log(awsRequest.toString());
+                                                                                      final CallbackContext context,
+                                                                                      final HandlerLog log) {
+        log.warn("ServiceCallFailed", "operation", awsRequest.getClass().getSimpleName(), "error", exception.getMessage(),
+                "request", awsRequest);
 
         return this.defaultWorkgroupErrorHandler(awsRequest, exception, client, model, context);
     }
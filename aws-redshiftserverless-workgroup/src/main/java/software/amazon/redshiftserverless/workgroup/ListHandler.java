@@ -13,11 +13,27 @@ import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.redshiftserverless.common.HandlerLog;
+import software.amazon.redshiftserverless.common.ListPager;
 
 import java.util.List;
 
 public class ListHandler extends BaseHandler<CallbackContext> {
-    private Logger logger;
+    // Page size, set through the environment of the handler
+    private static final ListPager PAGER = ListPager.fromEnvironment();
+    // With LIST_FULL_MODELS=true in the environment of the handler, workgroups are listed with all the details read
+    // returns, which the list response carries anyway
+    private static final boolean FULL_MODELS = Boolean.parseBoolean(System.getenv("LIST_FULL_MODELS"));
+
+    private final boolean fullModels;
+
+    public ListHandler() {
+        this(FULL_MODELS);
+    }
+
+    ListHandler(final boolean fullModels) {
+        this.fullModels = fullModels;
+    }
 
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -26,11 +42,13 @@ public class ListHandler extends BaseHandler<CallbackContext> {
             final CallbackContext callbackContext,
             final Logger logger) {
 
-        this.logger = logger;
-        ListWorkgroupsRequest awsRequest = Translator.translateToListRequest(request.getNextToken());
+        ListWorkgroupsRequest awsRequest = Translator.translateToListRequest(request.getNextToken(), PAGER.getPageSize());
         ListWorkgroupsResponse awsResponse = listWorkgroups(awsRequest, proxy);
-        List<ResourceModel> models = Translator.translateFromListResponse(awsResponse);
+        List<ResourceModel> models = fullModels
+                ? Translator.translateFromListResponseWithDetails(awsResponse)
+                : Translator.translateFromListResponse(awsResponse);
 
+        HandlerLog.of(logger).info("WorkgroupsListed", "workgroups", awsResponse.workgroups().size(), "more", awsResponse.nextToken() != null);
         return ProgressEvent.<ResourceModel, CallbackContext>builder()
                 .resourceModels(models)
                 .nextToken(awsResponse.nextToken())
@@ -40,9 +58,8 @@ public class ListHandler extends BaseHandler<CallbackContext> {
 
     private ListWorkgroupsResponse listWorkgroups(final ListWorkgroupsRequest awsRequest,
                                                   final AmazonWebServicesClientProxy proxy) {
-        ListWorkgroupsResponse awsResponse;
         try {
-            awsResponse = proxy.injectCredentialsAndInvokeV2(awsRequest, ClientBuilder.getClient()::listWorkgroups);
+            return proxy.injectCredentialsAndInvokeV2(awsRequest, ClientBuilder.getClient()::listWorkgroups);
 
         } catch (final ValidationException e) {
             throw new CfnInvalidRequestException(e);
@@ -53,8 +70,5 @@ public class ListHandler extends BaseHandler<CallbackContext> {
         } catch (final AwsServiceException e) {
             throw new CfnGeneralServiceException(e);
         }
-
-        logger.log(String.format("%s has successfully been listed.", ResourceModel.TYPE_NAME));
-        return awsResponse;
     }
 }
@@ -5,11 +5,12 @@ import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupRequ
 import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupResponse;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
-import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.redshiftserverless.common.HandlerLog;
+import software.amazon.redshiftserverless.common.Invocation;
 
 import java.util.Arrays;
 import java.util.List;
@@ -18,21 +19,27 @@ import static software.amazon.cloudformation.proxy.ProgressEvent.progress;
 
 public class ReadHandler extends BaseHandlerStd {
 
+    @Override
+    protected boolean canCallBack() {
+        // Read must finish in one invocation
+        return false;
+    }
+
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
             final AmazonWebServicesClientProxy proxy,
             final ResourceHandlerRequest<ResourceModel> request,
             final CallbackContext callbackContext,
             final ProxyClient<RedshiftServerlessClient> proxyClient,
-            final Logger logger) {
+            final Invocation invocation) {
 
-        this.logger = logger;
+        final HandlerLog log = invocation.getLog();
 
         return proxy.initiate("AWS-RedshiftServerless-Workgroup::Read", proxyClient, request.getDesiredResourceState(), callbackContext)
                 .translateToServiceRequest(Translator::translateToReadRequest)
-                .makeServiceCall(this::readWorkgroup)
+                .makeServiceCall(retrying(invocation, callbackContext, this::readWorkgroup))
                 .handleError((awsRequest, exception, client, resourceModel, cxt) -> {
-                    logger.log(String.format("Operation: %s : encountered exception for model: %s", awsRequest.getClass().getName(), ResourceModel.TYPE_NAME));
-                    logger.log(awsRequest.toString());
+                    log.warn("ServiceCallFailed", "operation", awsRequest.getClass().getSimpleName(), "error", exception.getMessage(),
+                            "request", awsRequest);
                     return this.defaultWorkgroupErrorHandler(awsRequest, exception, client, resourceModel, cxt);
                 })
                 .done(awsResponse -> ProgressEvent.defaultSuccessHandler(Translator.translateFromReadResponse(awsResponse)));
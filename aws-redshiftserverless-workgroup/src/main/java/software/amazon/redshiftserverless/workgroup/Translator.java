@@ -1,7 +1,5 @@
 package software.amazon.redshiftserverless.workgroup;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import software.amazon.awssdk.services.redshiftserverless.model.CreateWorkgroupRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.CreateWorkgroupResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.DeleteWorkgroupRequest;
@@ -32,7 +30,6 @@ import java.util.stream.Collectors;
  */
 
 public class Translator {
-    private static final Gson GSON = new GsonBuilder().create();
 
     /**
      * Request to create a resource
@@ -75,32 +72,42 @@ public class Translator {
      * @return model resource model
      */
     static ResourceModel translateFromReadResponse(final GetWorkgroupResponse awsResponse) {
+        return translateFromWorkgroup(awsResponse.workgroup());
+    }
+
+    /**
+     * Translates a workgroup from sdk into a fully populated resource model, as read returns it
+     *
+     * @param workgroup workgroup of a get or list workgroups response
+     * @return model resource model
+     */
+    static ResourceModel translateFromWorkgroup(final software.amazon.awssdk.services.redshiftserverless.model.Workgroup workgroup) {
         return ResourceModel.builder()
-                .workgroupName(awsResponse.workgroup().workgroupName())
-                .namespaceName(awsResponse.workgroup().namespaceName())
-                .baseCapacity(awsResponse.workgroup().baseCapacity())
-                .maxCapacity(awsResponse.workgroup().maxCapacity())
-                .enhancedVpcRouting(awsResponse.workgroup().enhancedVpcRouting())
-                .configParameters(translateToModelConfigParameters(awsResponse.workgroup().configParameters()))
-                .securityGroupIds(awsResponse.workgroup().securityGroupIds())
-                .subnetIds(awsResponse.workgroup().subnetIds())
-                .publiclyAccessible(awsResponse.workgroup().publiclyAccessible())
-                .port(awsResponse.workgroup().endpoint().port())
+                .workgroupName(workgroup.workgroupName())
+                .namespaceName(workgroup.namespaceName())
+                .baseCapacity(workgroup.baseCapacity())
+                .maxCapacity(workgroup.maxCapacity())
+                .enhancedVpcRouting(workgroup.enhancedVpcRouting())
+                .configParameters(translateToModelConfigParameters(workgroup.configParameters()))
+                .securityGroupIds(workgroup.securityGroupIds())
+                .subnetIds(workgroup.subnetIds())
+                .publiclyAccessible(workgroup.publiclyAccessible())
+                .port(workgroup.endpoint() == null ? null : workgroup.endpoint().port())
                 .workgroup(Workgroup.builder()
-                        .workgroupId(awsResponse.workgroup().workgroupId())
-                        .workgroupArn(awsResponse.workgroup().workgroupArn())
-                        .workgroupName(awsResponse.workgroup().workgroupName())
-                        .namespaceName(awsResponse.workgroup().namespaceName())
-                        .baseCapacity(awsResponse.workgroup().baseCapacity())
-                        .maxCapacity(awsResponse.workgroup().maxCapacity())
-                        .enhancedVpcRouting(awsResponse.workgroup().enhancedVpcRouting())
-                        .configParameters(translateToModelConfigParameters(awsResponse.workgroup().configParameters()))
-                        .securityGroupIds(awsResponse.workgroup().securityGroupIds())
-                        .subnetIds(awsResponse.workgroup().subnetIds())
-                        .status(awsResponse.workgroup().statusAsString())
-                        .endpoint(translateToModelEndpoint(awsResponse.workgroup().endpoint()))
-                        .publiclyAccessible(awsResponse.workgroup().publiclyAccessible())
-                        .creationDate(Objects.toString(awsResponse.workgroup().creationDate()))
+                        .workgroupId(workgroup.workgroupId())
+                        .workgroupArn(workgroup.workgroupArn())
+                        .workgroupName(workgroup.workgroupName())
+                        .namespaceName(workgroup.namespaceName())
+                        .baseCapacity(workgroup.baseCapacity())
+                        .maxCapacity(workgroup.maxCapacity())
+                        .enhancedVpcRouting(workgroup.enhancedVpcRouting())
+                        .configParameters(translateToModelConfigParameters(workgroup.configParameters()))
+                        .securityGroupIds(workgroup.securityGroupIds())
+                        .subnetIds(workgroup.subnetIds())
+                        .status(workgroup.statusAsString())
+                        .endpoint(translateToModelEndpoint(workgroup.endpoint()))
+                        .publiclyAccessible(workgroup.publiclyAccessible())
+                        .creationDate(Objects.toString(workgroup.creationDate()))
                         .build())
                 .build();
     }
@@ -186,11 +193,13 @@ public class Translator {
      * Request to list resources
      *
      * @param nextToken token passed to the aws service list resources request
+     * @param maxResults number of resources per page
      * @return awsRequest the aws service request to list resources within aws account
      */
-    static ListWorkgroupsRequest translateToListRequest(final String nextToken) {
+    static ListWorkgroupsRequest translateToListRequest(final String nextToken, final int maxResults) {
         return ListWorkgroupsRequest.builder()
                 .nextToken(nextToken)
+                .maxResults(maxResults)
                 .build();
     }
 
@@ -209,6 +218,20 @@ public class Translator {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Translates resource objects from sdk into fully populated resource models, the same as read does. The list
+     * response already holds every workgroup in full, so this costs no further calls.
+     *
+     * @param awsResponse the aws service list resources response
+     * @return list of resource models
+     */
+    static List<ResourceModel> translateFromListResponseWithDetails(final ListWorkgroupsResponse awsResponse) {
+        return awsResponse.workgroups()
+                .stream()
+                .map(Translator::translateFromWorkgroup)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Request to read tags for a resource
      *
@@ -272,7 +295,10 @@ public class Translator {
     }
 
     private static software.amazon.awssdk.services.redshiftserverless.model.Tag translateToSdkTag(Tag tag) {
-        return GSON.fromJson(GSON.toJson(tag), software.amazon.awssdk.services.redshiftserverless.model.Tag.class);
+        return tag == null ? null : software.amazon.awssdk.services.redshiftserverless.model.Tag.builder()
+                .key(tag.getKey())
+                .value(tag.getValue())
+                .build();
     }
 
     private static List<software.amazon.awssdk.services.redshiftserverless.model.Tag> translateToSdkTags(final List<Tag> tags) {
@@ -283,7 +309,10 @@ public class Translator {
     }
 
     private static Tag translateToModelTag(software.amazon.awssdk.services.redshiftserverless.model.Tag tag) {
-        return GSON.fromJson(GSON.toJson(tag), Tag.class);
+        return tag == null ? null : Tag.builder()
+                .key(tag.key())
+                .value(tag.value())
+                .build();
     }
 
     private static List<Tag> translateToModelTags(Collection<software.amazon.awssdk.services.redshiftserverless.model.Tag> tags) {
@@ -294,7 +323,10 @@ public class Translator {
     }
 
     private static software.amazon.awssdk.services.redshiftserverless.model.ConfigParameter translateToSdkConfigParameter(ConfigParameter configParameter) {
-        return GSON.fromJson(GSON.toJson(configParameter), software.amazon.awssdk.services.redshiftserverless.model.ConfigParameter.class);
+        return configParameter == null ? null : software.amazon.awssdk.services.redshiftserverless.model.ConfigParameter.builder()
+                .parameterKey(configParameter.getParameterKey())
+                .parameterValue(configParameter.getParameterValue())
+                .build();
     }
 
     private static List<software.amazon.awssdk.services.redshiftserverless.model.ConfigParameter> translateToSdkConfigParameters(Collection<ConfigParameter> configParameters) {
@@ -305,7 +337,10 @@ public class Translator {
     }
 
     private static ConfigParameter translateToModelConfigParameter(software.amazon.awssdk.services.redshiftserverless.model.ConfigParameter configParameter) {
-        return GSON.fromJson(GSON.toJson(configParameter), ConfigParameter.class);
+        return configParameter == null ? null : ConfigParameter.builder()
+                .parameterKey(configParameter.parameterKey())
+                .parameterValue(configParameter.parameterValue())
+                .build();
     }
 
     private static Set<ConfigParameter> translateToModelConfigParameters(Collection<software.amazon.awssdk.services.redshiftserverless.model.ConfigParameter> configParameters) {
@@ -316,6 +351,41 @@ public class Translator {
     }
 
     private static Endpoint translateToModelEndpoint(software.amazon.awssdk.services.redshiftserverless.model.Endpoint endpoint) {
-        return GSON.fromJson(GSON.toJson(endpoint), Endpoint.class);
+        return endpoint == null ? null : Endpoint.builder()
+                .address(endpoint.address())
+                .port(endpoint.port())
+                .vpcEndpoints(translateToModelVpcEndpoints(endpoint.vpcEndpoints()))
+                .build();
+    }
+
+    private static VpcEndpoint translateToModelVpcEndpoint(software.amazon.awssdk.services.redshiftserverless.model.VpcEndpoint vpcEndpoint) {
+        return vpcEndpoint == null ? null : VpcEndpoint.builder()
+                .vpcEndpointId(vpcEndpoint.vpcEndpointId())
+                .vpcId(vpcEndpoint.vpcId())
+                .networkInterfaces(translateToModelNetworkInterfaces(vpcEndpoint.networkInterfaces()))
+                .build();
+    }
+
+    private static List<VpcEndpoint> translateToModelVpcEndpoints(Collection<software.amazon.awssdk.services.redshiftserverless.model.VpcEndpoint> vpcEndpoints) {
+        return vpcEndpoints == null ? null : vpcEndpoints
+                .stream()
+                .map(Translator::translateToModelVpcEndpoint)
+                .collect(Collectors.toList());
+    }
+
+    private static NetworkInterface translateToModelNetworkInterface(software.amazon.awssdk.services.redshiftserverless.model.NetworkInterface networkInterface) {
+        return networkInterface == null ? null : NetworkInterface.builder()
+                .networkInterfaceId(networkInterface.networkInterfaceId())
+                .subnetId(networkInterface.subnetId())
+                .privateIpAddress(networkInterface.privateIpAddress())
+                .availabilityZone(networkInterface.availabilityZone())
+                .build();
+    }
+
+    private static List<NetworkInterface> translateToModelNetworkInterfaces(Collection<software.amazon.awssdk.services.redshiftserverless.model.NetworkInterface> networkInterfaces) {
+        return networkInterfaces == null ? null : networkInterfaces
+                .stream()
+                .map(Translator::translateToModelNetworkInterface)
+                .collect(Collectors.toList());
     }
 }
@@ -10,21 +10,20 @@ import software.amazon.awssdk.services.redshiftserverless.model.InternalServerEx
 import software.amazon.awssdk.services.redshiftserverless.model.ListTagsForResourceRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.ListTagsForResourceResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.ResourceNotFoundException;
-import software.amazon.awssdk.services.redshiftserverless.model.RedshiftServerlessResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.TagResourceResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.ThrottlingException;
 import software.amazon.awssdk.services.redshiftserverless.model.TooManyTagsException;
 import software.amazon.awssdk.services.redshiftserverless.model.UpdateWorkgroupRequest;
-import software.amazon.awssdk.services.redshiftserverless.model.UpdateWorkgroupResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.ValidationException;
 import software.amazon.awssdk.services.redshiftserverless.model.WorkgroupStatus;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
-import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.redshiftserverless.common.HandlerLog;
+import software.amazon.redshiftserverless.common.Invocation;
 
 import java.util.Collection;
 import java.util.List;
@@ -33,24 +32,27 @@ import java.util.Set;
 import java.util.function.BiFunction;
 
 public class UpdateHandler extends BaseHandlerStd {
+    private static final ReadHandler READ_HANDLER = new ReadHandler();
+
 
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
             final AmazonWebServicesClientProxy proxy,
             final ResourceHandlerRequest<ResourceModel> request,
             final CallbackContext callbackContext,
             final ProxyClient<RedshiftServerlessClient> proxyClient,
-            final Logger logger) {
+            final Invocation invocation) {
 
-        this.logger = logger;
+        final HandlerLog log = invocation.getLog();
 
         return ProgressEvent.progress(request.getDesiredResourceState(), callbackContext)
                 .then(progress ->
                         proxy.initiate("AWS-RedshiftServerless-Workgroup::Update::ReadInstance", proxyClient, progress.getResourceModel(), progress.getCallbackContext())
                                 .translateToServiceRequest(Translator::translateToReadRequest)
                                 .backoffDelay(PREOPERATION_BACKOFF_STRATEGY)// We wait for max of 5mins here
-                                .makeServiceCall(this::readWorkgroup)
-                                .stabilize(this::isWorkgroupStable) // This basically checks for workgroup to be stabilized before we perform the update operation
-                                .handleError(this::updateWorkgroupErrorHandler)
+                                .makeServiceCall(retrying(invocation, progress.getCallbackContext(), this::readWorkgroup))
+                                .stabilize(stabilizer(invocation, "UpdateWorkgroup::Preoperation", (_awsRequest, _awsResponse, _client, _model, _context) -> isWorkgroupStable(_client, _model, log))) // This basically checks for workgroup to be stabilized before we perform the update operation
+                                .handleError((_awsRequest, _exception, _client, _model, _context) ->
+                                        updateWorkgroupErrorHandler(_awsRequest, _exception, _client, _model, _context, log))
                                 .done((readRequest, readResponse, client, model, context) -> ProgressEvent.<ResourceModel, CallbackContext>builder()
                                         .callbackContext(context)
                                         .callbackDelaySeconds(0)
@@ -60,8 +62,9 @@ public class UpdateHandler extends BaseHandlerStd {
                 .then(progress ->
                         proxy.initiate("AWS-RedshiftServerless-Workgroup::Update::ReadTags", proxyClient, progress.getResourceModel(), progress.getCallbackContext())
                                 .translateToServiceRequest(Translator::translateToReadTagsRequest)
-                                .makeServiceCall(this::readTags)
-                                .handleError(this::updateWorkgroupErrorHandler)
+                                .makeServiceCall(retrying(invocation, progress.getCallbackContext(), this::readTags))
+                                .handleError((_awsRequest, _exception, _client, _model, _context) ->
+                                        updateWorkgroupErrorHandler(_awsRequest, _exception, _client, _model, _context, log))
                                 .done((tagsRequest, tagsResponse, client, model, context) -> ProgressEvent.<ResourceModel, CallbackContext>builder()
                                         .callbackContext(context)
                                         .callbackDelaySeconds(0)
@@ -69,32 +72,38 @@ public class UpdateHandler extends BaseHandlerStd {
                                         .status(OperationStatus.IN_PROGRESS)
                                         .build()))
 
-                .then(progress ->
-                        proxy.initiate("AWS-RedshiftServerless-Workgroup::Update::UpdateTags", proxyClient, progress.getResourceModel(), progress.getCallbackContext())
-                                .translateToServiceRequest(resourceModel -> Translator.translateToUpdateTagsRequest(request.getDesiredResourceState(), resourceModel))
-                                .backoffDelay(BACKOFF_STRATEGY)
-                                .makeServiceCall(this::updateTags)
-                                .stabilize(this::isWorkgroupStable)
-                                .handleError(this::updateWorkgroupErrorHandler)
-                                .progress())
-
-                .then(progress ->
-                        proxy.initiate("AWS-RedshiftServerless-Workgroup::Update::UpdateInstance", proxyClient, progress.getResourceModel(), progress.getCallbackContext())
-                                .translateToServiceRequest(Translator::translateToUpdateRequest)
-                                .backoffDelay(BACKOFF_STRATEGY)
-                                .makeServiceCall((awsRequest, sdkProxyClient) -> {
-                                    UpdateWorkgroupResponse awsResponse = this.updateWorkgroup(awsRequest, sdkProxyClient);
-
-                                    logger.log(String.format("%s : %s has successfully been updated.", ResourceModel.TYPE_NAME, awsRequest.workgroupName()));
-                                    logger.log(awsResponse.toString());
-
-                                    return awsResponse;
-                                })
-                                .stabilize(this::isWorkgroupStable)
-                                .handleError(this::updateWorkgroupErrorHandler)
-                                .progress())
-
-                .then(progress -> new ReadHandler().handleRequest(proxy, request, callbackContext, proxyClient, logger));
+                .then(progress -> {
+                    final UpdateTagsRequest updateTagsRequest = Translator.translateToUpdateTagsRequest(request.getDesiredResourceState(), progress.getResourceModel());
+                    if (!hasTagChanges(updateTagsRequest)) {
+                        log.info("UpdateTagsSkipped", "reason", "unchanged");
+                        return progress;
+                    }
+                    // Tagging does not change the workgroup status, so there is nothing to stabilize
+                    return proxy.initiate("AWS-RedshiftServerless-Workgroup::Update::UpdateTags", proxyClient, progress.getResourceModel(), progress.getCallbackContext())
+                            .translateToServiceRequest(resourceModel -> updateTagsRequest)
+                            .backoffDelay(UPDATE_BACKOFF_STRATEGY)
+                            .makeServiceCall(retrying(invocation, progress.getCallbackContext(), this::updateTags))
+                            .handleError(retryWhenBusy(invocation, "UpdateTags", request.getDesiredResourceState(), (_awsRequest, _exception, _client, _model, _context) ->
+                                        updateWorkgroupErrorHandler(_awsRequest, _exception, _client, _model, _context, log)))
+                            .progress();
+                })
+
+                .then(progress -> {
+                    if (!hasWorkgroupChanges(progress.getResourceModel())) {
+                        log.info("UpdateWorkgroupSkipped", "workgroup", progress.getResourceModel().getWorkgroupName(), "reason", "unchanged");
+                        return progress;
+                    }
+                    return proxy.initiate("AWS-RedshiftServerless-Workgroup::Update::UpdateInstance", proxyClient, progress.getResourceModel(), progress.getCallbackContext())
+                            .translateToServiceRequest(Translator::translateToUpdateRequest)
+                            .backoffDelay(UPDATE_BACKOFF_STRATEGY)
+                            .makeServiceCall(retrying(invocation, progress.getCallbackContext(), this::updateWorkgroup))
+                            .stabilize(callbackStabilizer(invocation, "UpdateWorkgroup", UPDATE_BACKOFF_STRATEGY, (_awsRequest, _awsResponse, _client, _model, _context) -> isWorkgroupStable(_client, _model, log)))
+                            .handleError(retryWhenBusy(invocation, "UpdateWorkgroup", request.getDesiredResourceState(), (_awsRequest, _exception, _client, _model, _context) ->
+                                        updateWorkgroupErrorHandler(_awsRequest, _exception, _client, _model, _context, log)))
+                            .progress();
+                })
+
+                .then(progress -> READ_HANDLER.handleRequest(proxy, request, callbackContext, proxyClient, invocation));
     }
 
     @SuppressWarnings("unchecked")
@@ -122,33 +131,55 @@ public class UpdateHandler extends BaseHandlerStd {
                 .build();
     }
 
+    /**
+     * @param delta resource model holding only the properties that differ from the live workgroup
+     * @return true if an UpdateWorkgroup call would change anything
+     */
+    private static boolean hasWorkgroupChanges(final ResourceModel delta) {
+        return delta.getBaseCapacity() != null
+                || delta.getMaxCapacity() != null
+                || delta.getEnhancedVpcRouting() != null
+                || delta.getConfigParameters() != null
+                || delta.getPubliclyAccessible() != null
+                || delta.getSubnetIds() != null
+                || delta.getSecurityGroupIds() != null
+                || delta.getPort() != null;
+    }
+
+    private static boolean hasTagChanges(final UpdateTagsRequest updateTagsRequest) {
+        return !updateTagsRequest.getCreateNewTagsRequest().tags().isEmpty()
+                || !updateTagsRequest.getDeleteOldTagsRequest().tagKeys().isEmpty();
+    }
+
     private ListTagsForResourceResponse readTags(final ListTagsForResourceRequest awsRequest,
-                                                 final ProxyClient<RedshiftServerlessClient> proxyClient) {
+                                                 final ProxyClient<RedshiftServerlessClient> proxyClient,
+                                                 final HandlerLog log) {
         ListTagsForResourceResponse awsResponse;
         awsResponse = proxyClient.injectCredentialsAndInvokeV2(awsRequest, proxyClient.client()::listTagsForResource);
 
-        logger.log(String.format("%s's tags have successfully been read.", ResourceModel.TYPE_NAME));
+        log.info("TagsRead", "tags", awsResponse.hasTags() ? awsResponse.tags().size() : 0);
         return awsResponse;
     }
 
     private TagResourceResponse updateTags(final UpdateTagsRequest awsRequest,
-                                           final ProxyClient<RedshiftServerlessClient> proxyClient) {
+                                           final ProxyClient<RedshiftServerlessClient> proxyClient,
+                                           final HandlerLog log) {
         TagResourceResponse awsResponse = null;
 
         if (awsRequest.getDeleteOldTagsRequest().tagKeys().isEmpty()) {
-            logger.log(String.format("No tags would be deleted for the resource: %s.", ResourceModel.TYPE_NAME));
+            log.debug("UntagSkipped", "reason", "noRemovedTags");
 
         } else {
             proxyClient.injectCredentialsAndInvokeV2(awsRequest.getDeleteOldTagsRequest(), proxyClient.client()::untagResource);
-            logger.log(String.format("Delete tags for the resource: %s.", ResourceModel.TYPE_NAME));
+            log.info("TagsRemoved", "tags", awsRequest.getDeleteOldTagsRequest().tagKeys().size());
         }
 
         if (awsRequest.getCreateNewTagsRequest().tags().isEmpty()) {
-            logger.log(String.format("No tags would be created for the resource: %s.", ResourceModel.TYPE_NAME));
+            log.debug("TagSkipped", "reason", "noAddedTags");
 
         } else {
             awsResponse = proxyClient.injectCredentialsAndInvokeV2(awsRequest.getCreateNewTagsRequest(), proxyClient.client()::tagResource);
-            logger.log(String.format("Create tags for the resource: %s.", ResourceModel.TYPE_NAME));
+            log.info("TagsAdded", "tags", awsRequest.getCreateNewTagsRequest().tags().size());
         }
 
         return awsResponse;
@@ -158,10 +189,10 @@ public class UpdateHandler extends BaseHandlerStd {
                                                                                       final Exception exception,
                                                                                       final ProxyClient<RedshiftServerlessClient> client,
                                                                                       final ResourceModel model,
-                                                                                      final CallbackContext context) {
-        logger.log(String.format("Operation: %s : encountered exception for model : %s",
-                awsRequest.getClass().getName(), ResourceModel.TYPE_NAME));
-        logger.log(awsRequest.toString());
+                                                                                      final CallbackContext context,
+                                                                                      final HandlerLog log) {
+        log.warn("ServiceCallFailed", "operation", awsRequest.getClass().getSimpleName(), "error", exception.getMessage(),
+                "request", awsRequest);
         return this.defaultWorkgroupErrorHandler(awsRequest, exception, client, model, context);
     }
 }
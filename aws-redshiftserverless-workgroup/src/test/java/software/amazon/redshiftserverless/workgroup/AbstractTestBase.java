@@ -229,7 +229,9 @@ public class AbstractTestBase {
     }
 
     public static ResourceModel updateRequestResourceModel() {
-        return createRequestResourceModel();
+        return createRequestResourceModel().toBuilder()
+                .maxCapacity(UPDATED_MAX_CAPACITY)
+                .build();
     }
 
     public static UpdateWorkgroupResponse updateResponseSdk() {
@@ -0,0 +1,68 @@
+package software.amazon.redshiftserverless.workgroup;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.proxy.Delay;
+import software.amazon.cloudformation.proxy.delay.Constant;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BackoffStrategyTest {
+
+    @Test
+    public void profiles_PollLessThanConstantDelay() {
+        final Delay previousStrategy = Constant.of().timeout(Duration.ofMinutes(120L)).delay(Duration.ofSeconds(5L)).build();
+
+        // A workgroup that is already available before the update is noticed right away
+        final SimulatedService quickPreoperation = new SimulatedService(Duration.ofSeconds(1L));
+        assertThat(quickPreoperation.pollUntilStable(BaseHandlerStd.PREOPERATION_BACKOFF_STRATEGY)).isTrue();
+        assertThat(quickPreoperation.polls).isEqualTo(2);
+
+        // A workgroup creation that takes 20 minutes
+        final SimulatedService previousCreate = new SimulatedService(Duration.ofMinutes(20L));
+        final SimulatedService create = new SimulatedService(Duration.ofMinutes(20L));
+        assertThat(previousCreate.pollUntilStable(previousStrategy)).isTrue();
+        assertThat(create.pollUntilStable(BaseHandlerStd.CREATE_BACKOFF_STRATEGY)).isTrue();
+        assertThat(previousCreate.polls).isEqualTo(241);
+        assertThat(create.polls).isLessThan(35);
+        // The state change is noticed at most one maximum delay late
+        assertThat(create.elapsed).isLessThan(Duration.ofMinutes(20L).plusSeconds(73L));
+
+        // A workgroup deletion that takes 10 minutes
+        final SimulatedService previousDelete = new SimulatedService(Duration.ofMinutes(10L));
+        final SimulatedService delete = new SimulatedService(Duration.ofMinutes(10L));
+        assertThat(previousDelete.pollUntilStable(previousStrategy)).isTrue();
+        assertThat(delete.pollUntilStable(BaseHandlerStd.DELETE_BACKOFF_STRATEGY)).isTrue();
+        assertThat(previousDelete.polls).isEqualTo(121);
+        assertThat(delete.polls).isLessThan(35);
+    }
+
+    /**
+     * Service that reaches its target state a fixed time after the operation started, polled the way the call chain
+     * does: once right away, then again after every delay until it is stable or the delay gives up.
+     */
+    private static class SimulatedService {
+        private final Duration stableAfter;
+        private Duration elapsed = Duration.ZERO;
+        private int polls = 0;
+
+        private SimulatedService(final Duration stableAfter) {
+            this.stableAfter = stableAfter;
+        }
+
+        private boolean pollUntilStable(final Delay delay) {
+            for (int attempt = 1; ; attempt++) {
+                polls++;
+                if (elapsed.compareTo(stableAfter) >= 0) {
+                    return true;
+                }
+                final Duration nextDelay = delay.nextDelay(attempt);
+                if (nextDelay.isZero()) {
+                    return false;
+                }
+                elapsed = elapsed.plus(nextDelay);
+            }
+        }
+    }
+}
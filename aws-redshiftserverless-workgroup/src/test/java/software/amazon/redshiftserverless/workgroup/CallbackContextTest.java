@@ -0,0 +1,138 @@
+package software.amazon.redshiftserverless.workgroup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.redshiftserverless.model.ConfigParameter;
+import software.amazon.awssdk.services.redshiftserverless.model.CreateWorkgroupRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.CreateWorkgroupResponse;
+import software.amazon.awssdk.services.redshiftserverless.model.Endpoint;
+import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupResponse;
+import software.amazon.awssdk.services.redshiftserverless.model.NetworkInterface;
+import software.amazon.awssdk.services.redshiftserverless.model.VpcEndpoint;
+import software.amazon.awssdk.services.redshiftserverless.model.Workgroup;
+import software.amazon.awssdk.services.redshiftserverless.model.WorkgroupStatus;
+import software.amazon.cloudformation.proxy.StdCallbackContext;
+import software.amazon.cloudformation.resource.Serializer;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CallbackContextTest {
+    private static final String CREATE = "AWS-RedshiftServerless-Workgroup::Create";
+    private static final String READ = "AWS-RedshiftServerless-Workgroup::Read";
+    private static final int RUNS = 200;
+
+    private final Serializer serializer = new Serializer();
+
+    @Test
+    public void serialize_KeepsOnlyWhatTheNextInvocationNeeds() throws Exception {
+        final CallbackContext context = record(new CallbackContext());
+        context.setBusyStep("DeleteWorkgroup");
+        context.setBusyWorkgroupRetries(2);
+        context.setStabilizingStage("CreateWorkgroup");
+        context.setStabilizationPolls(3);
+
+        final CallbackContext restored = serializer.deserialize(serializer.serialize(context), new TypeReference<CallbackContext>() {});
+
+        assertThat(restored.callGraphs()).containsOnlyKeys(CREATE + ".response", CREATE + ".attempts");
+        final Workgroup workgroup = ((CreateWorkgroupResponse) restored.callGraphs().get(CREATE + ".response")).workgroup();
+        assertThat(workgroup.workgroupArn()).isEqualTo(fullWorkgroup().workgroupArn());
+        assertThat(workgroup.status()).isEqualTo(WorkgroupStatus.AVAILABLE);
+        assertThat(workgroup.endpoint().port()).isEqualTo(5439);
+        assertThat(workgroup.configParameters()).isEmpty();
+        assertThat(workgroup.endpoint().vpcEndpoints()).isEmpty();
+        assertThat(restored.getBusyStep()).isEqualTo("DeleteWorkgroup");
+        assertThat(restored.getBusyWorkgroupRetries()).isEqualTo(2);
+        assertThat(restored.getStabilizingStage()).isEqualTo("CreateWorkgroup");
+        assertThat(restored.getStabilizationPolls()).isEqualTo(3);
+        assertThat(restored.getRetryOnResourceNotFound()).isEqualTo(5);
+    }
+
+    @Test
+    public void serialize_ShrinksThePayloadOfAFullyPopulatedWorkgroup() throws Exception {
+        final StdCallbackContext full = record(new StdCallbackContext());
+        final CallbackContext compact = record(new CallbackContext());
+
+        final long fullNanos = timeSerialization(full);
+        final long compactNanos = timeSerialization(compact);
+        final int fullSize = serializer.serialize(full).length();
+        final int compactSize = serializer.serialize(compact).length();
+
+        assertThat(compactSize).isLessThan(fullSize / 4);
+        assertThat(serializer.serialize(new CallbackContext())).isEqualTo("{}");
+        // Generous bound, the point is that copying the mutation responses does not outweigh writing less
+        assertThat(compactNanos).isLessThan(fullNanos * 2);
+    }
+
+    private <T extends StdCallbackContext> T record(final T context) {
+        context.request(CREATE, model -> CreateWorkgroupRequest.builder()
+                .workgroupName("workgroup")
+                .namespaceName("namespace")
+                .configParameters(fullWorkgroup().configParameters())
+                .securityGroupIds(fullWorkgroup().securityGroupIds())
+                .subnetIds(fullWorkgroup().subnetIds())
+                .build()).apply(null);
+        context.response(CREATE, (request, client) -> CreateWorkgroupResponse.builder().workgroup(fullWorkgroup()).build()).apply(null, null);
+        context.attempts(CREATE, 4);
+        context.request(READ, model -> GetWorkgroupRequest.builder().workgroupName("workgroup").build()).apply(null);
+        context.response(READ, (request, client) -> GetWorkgroupResponse.builder().workgroup(fullWorkgroup()).build()).apply(null, null);
+        return context;
+    }
+
+    private long timeSerialization(final Object context) throws Exception {
+        // Warm up the serializers before measuring
+        for (int i = 0; i < RUNS; i++) {
+            serializer.serialize(context);
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            serializer.serialize(context);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static Workgroup fullWorkgroup() {
+        return Workgroup.builder()
+                .workgroupName("workgroup")
+                .workgroupId("4e5b2a44-6b2f-4d7e-8f0c-9a1b2c3d4e5f")
+                .workgroupArn("arn:aws:redshift-serverless:us-east-1:123456789012:workgroup/4e5b2a44-6b2f-4d7e-8f0c-9a1b2c3d4e5f")
+                .namespaceName("namespace")
+                .status(WorkgroupStatus.AVAILABLE)
+                .baseCapacity(128)
+                .maxCapacity(512)
+                .enhancedVpcRouting(true)
+                .publiclyAccessible(false)
+                .configParameters(IntStream.range(0, 8)
+                        .mapToObj(i -> ConfigParameter.builder().parameterKey("parameter_" + i).parameterValue("value_" + i).build())
+                        .collect(Collectors.toList()))
+                .securityGroupIds(ids("sg-", 5))
+                .subnetIds(ids("subnet-", 6))
+                .endpoint(Endpoint.builder()
+                        .address("workgroup.123456789012.us-east-1.redshift-serverless.amazonaws.com")
+                        .port(5439)
+                        .vpcEndpoints(IntStream.range(0, 3)
+                                .mapToObj(i -> VpcEndpoint.builder()
+                                        .vpcEndpointId("vpce-0" + i)
+                                        .vpcId("vpc-0" + i)
+                                        .networkInterfaces(IntStream.range(0, 3)
+                                                .mapToObj(j -> NetworkInterface.builder()
+                                                        .networkInterfaceId("eni-0" + i + j)
+                                                        .subnetId("subnet-0" + j)
+                                                        .privateIpAddress("10.0." + i + "." + j)
+                                                        .availabilityZone("us-east-1" + (char) ('a' + j))
+                                                        .build())
+                                                .collect(Collectors.toList()))
+                                        .build())
+                                .collect(Collectors.toList()))
+                        .build())
+                .build();
+    }
+
+    private static List<String> ids(final String prefix, final int count) {
+        return IntStream.range(0, count).mapToObj(i -> prefix + "0123456789abcdef" + i).collect(Collectors.toList());
+    }
+}
@@ -6,22 +6,33 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
 import software.amazon.awssdk.services.redshiftserverless.RedshiftServerlessClient;
+import software.amazon.awssdk.services.redshiftserverless.model.ConflictException;
 import software.amazon.awssdk.services.redshiftserverless.model.CreateWorkgroupRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupResponse;
+import software.amazon.awssdk.services.redshiftserverless.model.InternalServerException;
+import software.amazon.awssdk.services.redshiftserverless.model.ThrottlingException;
+import software.amazon.awssdk.services.redshiftserverless.model.WorkgroupStatus;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.redshiftserverless.common.MemoizingProxyClient;
+import software.amazon.redshiftserverless.common.RetryAfterException;
 
 import java.time.Duration;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -74,4 +85,97 @@ public class CreateHandlerTest extends AbstractTestBase {
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
     }
+
+    @Test
+    public void handleRequest_MemoizedClientReusesStabilizerRead() {
+        final CreateHandler handler = new CreateHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(createRequestResourceModel())
+                .build();
+
+        when(proxyClient.client().createWorkgroup(any(CreateWorkgroupRequest.class))).thenReturn(createResponseSdk());
+        when(proxyClient.client().getWorkgroup(any(GetWorkgroupRequest.class))).thenReturn(getReadResponseSdk());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(),
+                MemoizingProxyClient.memoize(proxyClient), logger);
+
+        // The read that ends Create is served by the workgroup stabilizer's poll
+        verify(proxyClient.client()).getWorkgroup(any(GetWorkgroupRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(getReadResponseResourceModel());
+    }
+
+    @Test
+    public void handleRequest_CallsBackWhileWorkgroupIsCreatingAndResumesWithoutCreatingAgain() {
+        final CreateHandler handler = new CreateHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(createRequestResourceModel())
+                .build();
+
+        final GetWorkgroupResponse creating = getReadResponseSdk().toBuilder()
+                .workgroup(getReadResponseSdk().workgroup().toBuilder().status(WorkgroupStatus.CREATING).build())
+                .build();
+        when(proxyClient.client().createWorkgroup(any(CreateWorkgroupRequest.class))).thenReturn(createResponseSdk());
+        when(proxyClient.client().getWorkgroup(any(GetWorkgroupRequest.class))).thenReturn(creating).thenReturn(getReadResponseSdk());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
+
+        final CallbackContext callbackContext = new CallbackContext();
+        assertThatThrownBy(() -> handler.handleRequest(proxy, request, callbackContext, proxyClient, logger))
+                .isInstanceOf(RetryAfterException.class)
+                .satisfies(e -> assertThat(((RetryAfterException) e).getErrorCode()).isEqualTo(HandlerErrorCode.NotStabilized));
+        assertThat(callbackContext.getStabilizingStage()).isEqualTo("CreateWorkgroup");
+        assertThat(callbackContext.getStabilizationPolls()).isEqualTo(1);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, callbackContext, proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(getReadResponseResourceModel());
+        assertThat(callbackContext.getStabilizationPolls()).isZero();
+        verify(proxyClient.client(), times(1)).createWorkgroup(any(CreateWorkgroupRequest.class));
+    }
+
+    @Test
+    public void handleRequest_CreateThatFailedOnTheServiceSideIsNotRetried() {
+        final CreateHandler handler = new CreateHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(createRequestResourceModel())
+                .build();
+
+        // A retry would find the workgroup that the failed call created
+        when(proxyClient.client().createWorkgroup(any(CreateWorkgroupRequest.class)))
+                .thenThrow(InternalServerException.builder().statusCode(500).build())
+                .thenThrow(ConflictException.builder().statusCode(409).message("Workgroup already exists").build());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        verify(proxyClient.client(), times(1)).createWorkgroup(any(CreateWorkgroupRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.InternalFailure);
+    }
+
+    @Test
+    public void handleRequest_ThrottledCreateIsRetried() {
+        final CreateHandler handler = new CreateHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(createRequestResourceModel())
+                .build();
+
+        when(proxyClient.client().createWorkgroup(any(CreateWorkgroupRequest.class)))
+                .thenThrow(ThrottlingException.builder().statusCode(400)
+                        .awsErrorDetails(AwsErrorDetails.builder().errorCode("ThrottlingException").build())
+                        .build())
+                .thenReturn(createResponseSdk());
+        when(proxyClient.client().getWorkgroup(any(GetWorkgroupRequest.class))).thenReturn(getReadResponseSdk());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        verify(proxyClient.client(), times(2)).createWorkgroup(any(CreateWorkgroupRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+    }
 }
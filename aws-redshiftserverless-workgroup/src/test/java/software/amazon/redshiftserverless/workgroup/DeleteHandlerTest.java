@@ -7,10 +7,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.services.redshiftserverless.RedshiftServerlessClient;
+import software.amazon.awssdk.services.redshiftserverless.model.ConflictException;
 import software.amazon.awssdk.services.redshiftserverless.model.DeleteWorkgroupRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.ListWorkgroupsRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.ListWorkgroupsResponse;
 import software.amazon.awssdk.services.redshiftserverless.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.redshiftserverless.model.ThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -66,25 +70,168 @@ public class DeleteHandlerTest extends AbstractTestBase {
         when(proxyClient.client().getWorkgroup(any(GetWorkgroupRequest.class)))
                 .thenThrow(ResourceNotFoundException.builder().build());
         when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
-        
-        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+        when(proxyClient.client().listWorkgroups(any(ListWorkgroupsRequest.class))).thenReturn(ListWorkgroupsResponse.builder().build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        // Every probe but the last one calls back after the probe interval
+        for (int probe = 1; probe < BaseHandlerStd.PROPAGATION_PROBE_SUCCESS_THRESHOLD; probe++) {
+            assertThat(response).isNotNull();
+            assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+            assertThat(response.getCallbackDelaySeconds()).isEqualTo(BaseHandlerStd.PROPAGATION_PROBE_INTERVAL_SECONDS);
+            assertThat(response.getCallbackContext().getPropagationProbes()).isEqualTo(probe);
+            assertThat(response.getResourceModel()).isNotNull();
+            assertThat(response.getMessage()).isNull();
+            assertThat(response.getErrorCode()).isNull();
+
+            response = handler.handleRequest(proxy, request, response.getCallbackContext(), proxyClient, logger);
+        }
 
         assertThat(response).isNotNull();
-        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(300);
-        assertThat(response.getResourceModel()).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
+        assertThat(response.getResourceModel()).isNull();
+        assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
+        verify(proxyClient.client(), times(BaseHandlerStd.PROPAGATION_PROBE_SUCCESS_THRESHOLD)).listWorkgroups(any(ListWorkgroupsRequest.class));
+    }
+
+    @Test
+    public void handleRequest_BusyWorkgroupCallsBackAndRetriesDelete() {
+        final DeleteHandler handler = new DeleteHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(deleteRequestResourceModel())
+                .build();
+
+        when(proxyClient.client().deleteWorkgroup(any(DeleteWorkgroupRequest.class)))
+                .thenThrow(ConflictException.builder().message(BaseHandlerStd.BUSY_WORKGROUP_RETRY_EXCEPTION_MESSAGE).build())
+                .thenReturn(deleteResponseSdk());
+        when(proxyClient.client().getWorkgroup(any(GetWorkgroupRequest.class)))
+                .thenThrow(ResourceNotFoundException.builder().build());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
+        when(proxyClient.client().listWorkgroups(any(ListWorkgroupsRequest.class))).thenReturn(ListWorkgroupsResponse.builder().build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isGreaterThan(0);
+        assertThat(response.getCallbackContext().getBusyWorkgroupRetries()).isEqualTo(1);
+        assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
+        assertThat(response.getErrorCode()).isNull();
 
-        final ProgressEvent<ResourceModel, CallbackContext> response2 =
-                handler.handleRequest(proxy, request,response.getCallbackContext(), proxyClient, logger);
+        response = handler.handleRequest(proxy, request, response.getCallbackContext(), proxyClient, logger);
 
-        assertThat(response2).isNotNull();
-        assertThat(response2.getStatus()).isEqualTo(OperationStatus.SUCCESS);
-        assertThat(response2.getCallbackDelaySeconds()).isEqualTo(0);
-        assertThat(response2.getResourceModel()).isNull();
-        assertThat(response2.getResourceModels()).isNull();
-        assertThat(response2.getMessage()).isNull();
-        assertThat(response2.getErrorCode()).isNull();
+        // The retried delete went through and the handler moved on to probing the propagation
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getPropagationProbes()).isEqualTo(1);
+        verify(proxyClient.client(), times(2)).deleteWorkgroup(any(DeleteWorkgroupRequest.class));
+    }
+
+    @Test
+    public void handleRequest_ListedWorkgroupResetsPropagationProbes() {
+        final DeleteHandler handler = new DeleteHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(deleteRequestResourceModel())
+                .build();
+
+        when(proxyClient.client().deleteWorkgroup(any(DeleteWorkgroupRequest.class))).thenReturn(deleteResponseSdk());
+        when(proxyClient.client().getWorkgroup(any(GetWorkgroupRequest.class)))
+                .thenThrow(ResourceNotFoundException.builder().build());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
+        when(proxyClient.client().listWorkgroups(any(ListWorkgroupsRequest.class)))
+                .thenReturn(ListWorkgroupsResponse.builder().build())
+                .thenReturn(ListWorkgroupsResponse.builder().nextToken("page-2").build())
+                .thenReturn(getListResponsesSdk());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+        assertThat(response.getCallbackContext().getPropagationProbes()).isEqualTo(1);
+
+        // The workgroup shows up again on the second page of the next probe
+        final ProgressEvent<ResourceModel, CallbackContext> response2 = handler.handleRequest(proxy, request, response.getCallbackContext(), proxyClient, logger);
+
+        assertThat(response2.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response2.getCallbackDelaySeconds()).isEqualTo(BaseHandlerStd.PROPAGATION_PROBE_INTERVAL_SECONDS);
+        assertThat(response2.getCallbackContext().getPropagationProbes()).isEqualTo(0);
+        assertThat(response2.getCallbackContext().getPropagationProbeAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    public void handleRequest_ProceedsAfterMaxPropagationWait() {
+        assertThat(DeleteHandler.maxPropagationWait(null)).isEqualTo(BaseHandlerStd.DEFAULT_MAX_PROPAGATION_WAIT);
+        assertThat(DeleteHandler.maxPropagationWait("soon")).isEqualTo(BaseHandlerStd.DEFAULT_MAX_PROPAGATION_WAIT);
+        assertThat(DeleteHandler.maxPropagationWait("-1")).isEqualTo(BaseHandlerStd.DEFAULT_MAX_PROPAGATION_WAIT);
+        assertThat(DeleteHandler.maxPropagationWait("0")).isEqualTo(Duration.ZERO);
+
+        final DeleteHandler handler = new DeleteHandler(
+                DeleteHandler.maxPropagationWait(" " + BaseHandlerStd.PROPAGATION_PROBE_INTERVAL_SECONDS + " "));
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(deleteRequestResourceModel())
+                .build();
+
+        when(proxyClient.client().deleteWorkgroup(any(DeleteWorkgroupRequest.class))).thenReturn(deleteResponseSdk());
+        when(proxyClient.client().getWorkgroup(any(GetWorkgroupRequest.class)))
+                .thenThrow(ResourceNotFoundException.builder().build());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
+        when(proxyClient.client().listWorkgroups(any(ListWorkgroupsRequest.class))).thenReturn(getListResponsesSdk());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(proxyClient.client(), times(1)).listWorkgroups(any(ListWorkgroupsRequest.class));
+    }
+
+    @Test
+    public void handleRequest_FailedPropagationProbeIsNotPropagated() {
+        final DeleteHandler handler = new DeleteHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(deleteRequestResourceModel())
+                .build();
+
+        when(proxyClient.client().deleteWorkgroup(any(DeleteWorkgroupRequest.class))).thenReturn(deleteResponseSdk());
+        when(proxyClient.client().getWorkgroup(any(GetWorkgroupRequest.class)))
+                .thenThrow(ResourceNotFoundException.builder().build());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class)))
+                .thenThrow(ThrottlingException.builder().message("Rate exceeded").build())
+                .thenReturn(getNamespaceResponseSdk());
+        when(proxyClient.client().listWorkgroups(any(ListWorkgroupsRequest.class))).thenReturn(ListWorkgroupsResponse.builder().build());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(BaseHandlerStd.PROPAGATION_PROBE_INTERVAL_SECONDS);
+        assertThat(response.getCallbackContext().getPropagationProbes()).isEqualTo(0);
+        assertThat(response.getCallbackContext().getPropagationProbeAttempts()).isEqualTo(1);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response2 = handler.handleRequest(proxy, request, response.getCallbackContext(), proxyClient, logger);
+
+        assertThat(response2.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response2.getCallbackContext().getPropagationProbes()).isEqualTo(1);
+    }
+
+    @Test
+    public void handleRequest_PropagationProbeReadsAtMostMaxPages() {
+        final DeleteHandler handler = new DeleteHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(deleteRequestResourceModel())
+                .build();
+
+        when(proxyClient.client().deleteWorkgroup(any(DeleteWorkgroupRequest.class))).thenReturn(deleteResponseSdk());
+        when(proxyClient.client().getWorkgroup(any(GetWorkgroupRequest.class)))
+                .thenThrow(ResourceNotFoundException.builder().build());
+        when(proxyClient.client().getNamespace(any(GetNamespaceRequest.class))).thenReturn(getNamespaceResponseSdk());
+        when(proxyClient.client().listWorkgroups(any(ListWorkgroupsRequest.class)))
+                .thenReturn(ListWorkgroupsResponse.builder().nextToken("next-page").build());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getPropagationProbes()).isEqualTo(0);
+        verify(proxyClient.client(), times(BaseHandlerStd.PROPAGATION_PROBE_MAX_PAGES)).listWorkgroups(any(ListWorkgroupsRequest.class));
     }
 }
@@ -0,0 +1,66 @@
+package software.amazon.redshiftserverless.workgroup;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.redshiftserverless.model.AccessDeniedException;
+import software.amazon.awssdk.services.redshiftserverless.model.ConflictException;
+import software.amazon.awssdk.services.redshiftserverless.model.InsufficientCapacityException;
+import software.amazon.awssdk.services.redshiftserverless.model.InternalServerException;
+import software.amazon.awssdk.services.redshiftserverless.model.InvalidPaginationException;
+import software.amazon.awssdk.services.redshiftserverless.model.RedshiftServerlessException;
+import software.amazon.awssdk.services.redshiftserverless.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.redshiftserverless.model.ServiceQuotaExceededException;
+import software.amazon.awssdk.services.redshiftserverless.model.ThrottlingException;
+import software.amazon.awssdk.services.redshiftserverless.model.TooManyTagsException;
+import software.amazon.awssdk.services.redshiftserverless.model.ValidationException;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.redshiftserverless.common.ExceptionClassifier;
+import software.amazon.redshiftserverless.common.ExceptionClassifier.Retryability;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExceptionClassifierTest {
+
+    private static Stream<Arguments> exceptions() {
+        return Stream.of(
+                Arguments.of(ValidationException.builder().message("Invalid").build(), HandlerErrorCode.InvalidRequest, Retryability.NONE),
+                Arguments.of(TooManyTagsException.builder().build(), HandlerErrorCode.InvalidRequest, Retryability.NONE),
+                Arguments.of(InvalidPaginationException.builder().build(), HandlerErrorCode.InvalidRequest, Retryability.NONE),
+                Arguments.of(AccessDeniedException.builder().build(), HandlerErrorCode.AccessDenied, Retryability.NONE),
+                Arguments.of(ResourceNotFoundException.builder().build(), HandlerErrorCode.NotFound, Retryability.NONE),
+                Arguments.of(ServiceQuotaExceededException.builder().build(), HandlerErrorCode.ServiceLimitExceeded, Retryability.NONE),
+                Arguments.of(ConflictException.builder().message("Workgroup already exists").build(), HandlerErrorCode.AlreadyExists, Retryability.NONE),
+                Arguments.of(ConflictException.builder().message("Workgroup ALREADY EXISTS").build(), HandlerErrorCode.AlreadyExists, Retryability.NONE),
+                Arguments.of(ConflictException.builder().message(BaseHandlerStd.BUSY_WORKGROUP_RETRY_EXCEPTION_MESSAGE + ", try again later").build(),
+                        HandlerErrorCode.ResourceConflict, Retryability.RESOURCE_BUSY),
+                Arguments.of(ConflictException.builder().message("Namespace is being modified").build(), HandlerErrorCode.ResourceConflict, Retryability.NONE),
+                Arguments.of(ConflictException.builder().build(), HandlerErrorCode.ResourceConflict, Retryability.NONE),
+                Arguments.of(InsufficientCapacityException.builder().message("Insufficient capacity").build(), HandlerErrorCode.ResourceConflict, Retryability.NONE),
+                Arguments.of(InsufficientCapacityException.builder().message("Workgroup already exists").build(), HandlerErrorCode.AlreadyExists, Retryability.NONE),
+                Arguments.of(ThrottlingException.builder().build(), HandlerErrorCode.Throttling, Retryability.TRANSIENT),
+                Arguments.of(InternalServerException.builder().build(), HandlerErrorCode.InternalFailure, Retryability.TRANSIENT),
+                Arguments.of(RedshiftServerlessException.builder().statusCode(400).build(), HandlerErrorCode.GeneralServiceException, Retryability.NONE),
+                Arguments.of(RedshiftServerlessException.builder().statusCode(503).build(), HandlerErrorCode.InternalFailure, Retryability.TRANSIENT),
+                Arguments.of(AwsServiceException.builder().statusCode(500).build(), HandlerErrorCode.InternalFailure, Retryability.TRANSIENT),
+                Arguments.of(new IllegalStateException(), HandlerErrorCode.GeneralServiceException, Retryability.NONE)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("exceptions")
+    public void classify_MapsEveryExceptionToItsRule(final Exception exception,
+                                                      final HandlerErrorCode errorCode,
+                                                      final Retryability retryability) {
+        final ExceptionClassifier.Rule rule = BaseHandlerStd.EXCEPTION_CLASSIFIER.classify(exception);
+
+        assertThat(rule.getErrorCode()).isEqualTo(errorCode);
+        assertThat(rule.getRetryability()).isEqualTo(retryability);
+        assertThat(rule.getRetryDelay()).isEqualTo(retryability == Retryability.NONE ? Duration.ZERO
+                : retryability == Retryability.TRANSIENT ? Duration.ofSeconds(1L) : Duration.ofSeconds(10L));
+    }
+}
@@ -3,13 +3,18 @@ package software.amazon.redshiftserverless.workgroup;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.redshiftserverless.model.ListWorkgroupsRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.ListWorkgroupsResponse;
+import software.amazon.awssdk.services.redshiftserverless.model.Workgroup;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.redshiftserverless.common.ListPager;
 
 import java.util.List;
 
@@ -17,6 +22,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 public class ListHandlerTest extends AbstractTestBase {
@@ -60,4 +66,44 @@ public class ListHandlerTest extends AbstractTestBase {
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
     }
+
+    @Test
+    public void handleRequest_ListsPagesOfTheConfiguredSize() {
+        final ListHandler handler = new ListHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+        .nextToken("token-1")
+        .build();
+
+        doReturn(getListResponsesSdk()).when(proxy).injectCredentialsAndInvokeV2(any(), any());
+
+        handler.handleRequest(proxy, request, null, logger);
+
+        final ArgumentCaptor<ListWorkgroupsRequest> listRequest = ArgumentCaptor.forClass(ListWorkgroupsRequest.class);
+        verify(proxy).injectCredentialsAndInvokeV2(listRequest.capture(), any());
+        assertThat(listRequest.getValue().nextToken()).isEqualTo("token-1");
+        assertThat(listRequest.getValue().maxResults()).isEqualTo(ListPager.pageSize(System.getenv("LIST_PAGE_SIZE"), ListPager.MAX_PAGE_SIZE));
+    }
+
+    @Test
+    public void handleRequest_FullModels() {
+        final ListHandler handler = new ListHandler(true);
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(listRequestResourceModel())
+                .build();
+
+        doReturn(ListWorkgroupsResponse.builder()
+                .workgroups(getReadResponseSdk().workgroup(), Workgroup.builder().workgroupName("creating").build())
+                .build()).when(proxy).injectCredentialsAndInvokeV2(any(), any());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModels()).hasSize(2);
+        assertThat(response.getResourceModels().get(0)).isEqualTo(Translator.translateFromReadResponse(getReadResponseSdk()));
+        assertThat(response.getResourceModels().get(1).getWorkgroupName()).isEqualTo("creating");
+        assertThat(response.getResourceModels().get(1).getPort()).isNull();
+    }
 }
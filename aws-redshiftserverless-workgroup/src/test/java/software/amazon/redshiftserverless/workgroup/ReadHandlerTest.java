@@ -8,6 +8,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.services.redshiftserverless.RedshiftServerlessClient;
 import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupResponse;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -15,6 +16,14 @@ import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.any;
@@ -72,4 +81,100 @@ public class ReadHandlerTest extends AbstractTestBase {
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
     }
+
+    @Test
+    public void handleRequest_TranslatesVpcEndpoints() {
+        final ReadHandler handler = new ReadHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(getReadRequestResourceModel())
+                .build();
+
+        final GetWorkgroupResponse readResponseSdk = getReadResponseSdk();
+        when(proxyClient.client().getWorkgroup(any(GetWorkgroupRequest.class))).thenReturn(readResponseSdk.toBuilder()
+                .workgroup(readResponseSdk.workgroup().toBuilder()
+                        .endpoint(software.amazon.awssdk.services.redshiftserverless.model.Endpoint.builder()
+                                .address("dummyWorkgroup.123456789012.us-east-1.redshift-serverless.amazonaws.com")
+                                .port(5439)
+                                .vpcEndpoints(software.amazon.awssdk.services.redshiftserverless.model.VpcEndpoint.builder()
+                                        .vpcEndpointId("vpce-1234")
+                                        .vpcId("vpc-1234")
+                                        .networkInterfaces(software.amazon.awssdk.services.redshiftserverless.model.NetworkInterface.builder()
+                                                .networkInterfaceId("eni-1234")
+                                                .subnetId("subnet-1234")
+                                                .privateIpAddress("10.0.0.1")
+                                                .availabilityZone("us-east-1a")
+                                                .build())
+                                        .build())
+                                .build())
+                        .build())
+                .build());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        verify(proxyClient.client(), times(1)).getWorkgroup(any(GetWorkgroupRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getWorkgroup().getEndpoint()).isEqualTo(Endpoint.builder()
+                .address("dummyWorkgroup.123456789012.us-east-1.redshift-serverless.amazonaws.com")
+                .port(5439)
+                .vpcEndpoints(Collections.singletonList(VpcEndpoint.builder()
+                        .vpcEndpointId("vpce-1234")
+                        .vpcId("vpc-1234")
+                        .networkInterfaces(Collections.singletonList(NetworkInterface.builder()
+                                .networkInterfaceId("eni-1234")
+                                .subnetId("subnet-1234")
+                                .privateIpAddress("10.0.0.1")
+                                .availabilityZone("us-east-1a")
+                                .build()))
+                        .build()))
+                .build());
+    }
+
+    @Test
+    public void handleRequest_SharedInstanceKeepsConcurrentInvocationsApart() throws Exception {
+        final ReadHandler handler = new ReadHandler();
+        final int invocations = 32;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        when(proxyClient.client().getWorkgroup(any(GetWorkgroupRequest.class))).thenAnswer(invocation -> {
+            final String workgroupName = invocation.getArgument(0, GetWorkgroupRequest.class).workgroupName();
+            final GetWorkgroupResponse readResponseSdk = getReadResponseSdk();
+            return readResponseSdk.toBuilder().workgroup(readResponseSdk.workgroup().toBuilder().workgroupName(workgroupName).build()).build();
+        });
+
+        // Every invocation logs to a logger of its own, which must only hear about its own workgroup
+        final List<List<String>> logs = new ArrayList<>();
+        final List<Future<ProgressEvent<ResourceModel, CallbackContext>>> responses = new ArrayList<>();
+        for (int i = 0; i < invocations; i++) {
+            final List<String> log = Collections.synchronizedList(new ArrayList<>());
+            logs.add(log);
+            final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                    .desiredResourceState(getReadRequestResourceModel().toBuilder().workgroupName("workgroup-" + i).build())
+                    .build();
+            responses.add(executor.submit(() -> {
+                start.await();
+                return handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, log::add);
+            }));
+        }
+        start.countDown();
+
+        try {
+            for (int i = 0; i < invocations; i++) {
+                final String workgroup = "workgroup-" + i + " ";
+                final ProgressEvent<ResourceModel, CallbackContext> response = responses.get(i).get(10, TimeUnit.SECONDS);
+                assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+                assertThat(response.getResourceModel().getWorkgroupName()).isEqualTo("workgroup-" + i);
+                assertThat(logs.get(i)).anyMatch(line -> line.contains(workgroup));
+                for (int j = 0; j < invocations; j++) {
+                    final String otherWorkgroup = "workgroup-" + j + " ";
+                    if (j != i) {
+                        assertThat(logs.get(i)).noneMatch(line -> line.contains(otherWorkgroup));
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
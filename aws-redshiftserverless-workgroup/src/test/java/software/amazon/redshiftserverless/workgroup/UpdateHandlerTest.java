@@ -7,23 +7,36 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.services.redshiftserverless.RedshiftServerlessClient;
+import software.amazon.awssdk.services.redshiftserverless.model.ConflictException;
 import software.amazon.awssdk.services.redshiftserverless.model.GetWorkgroupRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.GetNamespaceRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.ListTagsForResourceRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.ListTagsForResourceResponse;
+import software.amazon.awssdk.services.redshiftserverless.model.TagResourceRequest;
+import software.amazon.awssdk.services.redshiftserverless.model.TagResourceResponse;
+import software.amazon.awssdk.services.redshiftserverless.model.UntagResourceRequest;
 import software.amazon.awssdk.services.redshiftserverless.model.UpdateWorkgroupRequest;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.redshiftserverless.common.HandlerLog;
+import software.amazon.redshiftserverless.common.Invocation;
+import software.amazon.redshiftserverless.common.MemoizingProxyClient;
+import software.amazon.redshiftserverless.common.TimeBudget;
 
 import java.time.Duration;
+import java.util.Collections;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -76,4 +89,185 @@ public class UpdateHandlerTest extends AbstractTestBase {
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
     }
+
+    @Test
+    public void handleRequest_MemoizedClientReusesStabilizerRead() {
+        final UpdateHandler handler = new UpdateHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .previousResourceState(createRequestResourceModel())
+                .desiredResourceState(updateRequestResourceModel())
+                .build();
+
+        when(proxyClient.client().listTagsForResource(any(ListTagsForResourceRequest.class))).thenReturn(ListTagsForResourceResponse.builder().build());
+        when(proxyClient.client().updateWorkgroup(any(UpdateWorkgroupRequest.class))).thenReturn(updateResponseSdk());
+        when(proxyClient.client().getWorkgroup(any(GetWorkgroupRequest.class))).thenReturn(getReadResponseSdk());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(),
+                MemoizingProxyClient.memoize(proxyClient), logger);
+
+        // Pre-operation read and one poll per stabilizer; the read that ends Update is served by the last poll
+        verify(proxyClient.client(), times(3)).getWorkgroup(any(GetWorkgroupRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(updateResponseResourceModel());
+    }
+
+    @Test
+    public void handleRequest_YieldsWhenTimeBudgetRunsOutAndResumesWithoutRepeatingUpdate() {
+        final long[] now = {0L};
+        final UpdateHandler handler = new UpdateHandler();
+        final CallbackContext context = new CallbackContext();
+        final Invocation invocation = new Invocation(HandlerLog.of(logger),
+                new TimeBudget(Duration.ofSeconds(60L), Duration.ofSeconds(15L), () -> now[0]));
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .previousResourceState(createRequestResourceModel())
+                .desiredResourceState(updateRequestResourceModel())
+                .build();
+
+        when(proxyClient.client().listTagsForResource(any(ListTagsForResourceRequest.class))).thenReturn(ListTagsForResourceResponse.builder().build());
+        when(proxyClient.client().updateWorkgroup(any(UpdateWorkgroupRequest.class))).thenAnswer(answer -> {
+            now[0] += Duration.ofSeconds(50L).toNanos();
+            return updateResponseSdk();
+        });
+        when(proxyClient.client().getWorkgroup(any(GetWorkgroupRequest.class))).thenReturn(getReadResponseSdk());
+
+        assertThatThrownBy(() -> handler.handleRequest(proxy, request, context, proxyClient, invocation))
+                .isInstanceOf(TimeBudget.Exhausted.class)
+                .hasMessageContaining("UpdateWorkgroup put off to the next invocation");
+
+        // The next invocation starts with a budget of its own
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, context, proxyClient, Invocation.of(logger));
+
+        verify(proxyClient.client(), times(1)).updateWorkgroup(any(UpdateWorkgroupRequest.class));
+        verify(proxyClient.client(), times(1)).listTagsForResource(any(ListTagsForResourceRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(updateResponseResourceModel());
+    }
+
+    @Test
+    public void handleRequest_TagOnlyChangeSkipsUpdateWorkgroup() {
+        final UpdateHandler handler = new UpdateHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .previousResourceState(createRequestResourceModel())
+                .desiredResourceState(createRequestResourceModel().toBuilder()
+                        .tags(Collections.singletonList(Tag.builder().key("team").value("analytics").build()))
+                        .build())
+                .build();
+
+        when(proxyClient.client().listTagsForResource(any(ListTagsForResourceRequest.class))).thenReturn(ListTagsForResourceResponse.builder().build());
+        when(proxyClient.client().tagResource(any(TagResourceRequest.class))).thenReturn(TagResourceResponse.builder().build());
+        when(proxyClient.client().getWorkgroup(any(GetWorkgroupRequest.class))).thenReturn(getReadResponseSdk());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        // Pre-operation read and poll and the read that ends Update; tagging neither updates nor waits on the workgroup
+        verify(proxyClient.client(), times(3)).getWorkgroup(any(GetWorkgroupRequest.class));
+        verify(proxyClient.client()).tagResource(any(TagResourceRequest.class));
+        verify(proxyClient.client(), never()).updateWorkgroup(any(UpdateWorkgroupRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+    }
+
+    @Test
+    public void handleRequest_NoChangesSkipsUpdateSteps() {
+        final UpdateHandler handler = new UpdateHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .previousResourceState(createRequestResourceModel())
+                .desiredResourceState(createRequestResourceModel())
+                .build();
+
+        when(proxyClient.client().listTagsForResource(any(ListTagsForResourceRequest.class))).thenReturn(ListTagsForResourceResponse.builder().build());
+        when(proxyClient.client().getWorkgroup(any(GetWorkgroupRequest.class))).thenReturn(getReadResponseSdk());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        verify(proxyClient.client(), times(3)).getWorkgroup(any(GetWorkgroupRequest.class));
+        verify(proxyClient.client(), never()).tagResource(any(TagResourceRequest.class));
+        verify(proxyClient.client(), never()).untagResource(any(UntagResourceRequest.class));
+        verify(proxyClient.client(), never()).updateWorkgroup(any(UpdateWorkgroupRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(updateResponseResourceModel());
+    }
+
+    @Test
+    public void handleRequest_BusyWorkgroupCallsBackWithDesiredState() {
+        final UpdateHandler handler = new UpdateHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .previousResourceState(createRequestResourceModel())
+                .desiredResourceState(updateRequestResourceModel())
+                .build();
+
+        when(proxyClient.client().listTagsForResource(any(ListTagsForResourceRequest.class))).thenReturn(ListTagsForResourceResponse.builder().build());
+        when(proxyClient.client().updateWorkgroup(any(UpdateWorkgroupRequest.class)))
+                .thenThrow(ConflictException.builder().message(BaseHandlerStd.BUSY_WORKGROUP_RETRY_EXCEPTION_MESSAGE).build());
+        when(proxyClient.client().getWorkgroup(any(GetWorkgroupRequest.class))).thenReturn(getReadResponseSdk());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isGreaterThan(0);
+        assertThat(response.getCallbackContext().getBusyWorkgroupRetries()).isEqualTo(1);
+        assertThat(response.getResourceModel()).isEqualTo(updateRequestResourceModel());
+        assertThat(response.getErrorCode()).isNull();
+    }
+
+    @Test
+    public void handleRequest_BusyWorkgroupFailsOnceRetriesAreUsedUp() {
+        final UpdateHandler handler = new UpdateHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .previousResourceState(createRequestResourceModel())
+                .desiredResourceState(updateRequestResourceModel())
+                .build();
+        final CallbackContext callbackContext = new CallbackContext();
+        int retries = 0;
+        while (!BaseHandlerStd.BUSY_WORKGROUP_RETRY_STRATEGY.nextDelay(retries + 1).isZero()) {
+            retries++;
+        }
+        callbackContext.setBusyStep("UpdateWorkgroup");
+        callbackContext.setBusyWorkgroupRetries(retries);
+
+        when(proxyClient.client().listTagsForResource(any(ListTagsForResourceRequest.class))).thenReturn(ListTagsForResourceResponse.builder().build());
+        when(proxyClient.client().updateWorkgroup(any(UpdateWorkgroupRequest.class)))
+                .thenThrow(ConflictException.builder().message(BaseHandlerStd.BUSY_WORKGROUP_RETRY_EXCEPTION_MESSAGE).build());
+        when(proxyClient.client().getWorkgroup(any(GetWorkgroupRequest.class))).thenReturn(getReadResponseSdk());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, callbackContext, proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ResourceConflict);
+        assertThat(callbackContext.getBusyWorkgroupRetries()).isEqualTo(retries);
+    }
+
+    @Test
+    public void handleRequest_BusyWorkgroupRetriesAreKeptPerStep() {
+        final UpdateHandler handler = new UpdateHandler();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .previousResourceState(createRequestResourceModel())
+                .desiredResourceState(updateRequestResourceModel())
+                .build();
+        final CallbackContext callbackContext = new CallbackContext();
+        int retries = 0;
+        while (!BaseHandlerStd.BUSY_WORKGROUP_RETRY_STRATEGY.nextDelay(retries + 1).isZero()) {
+            retries++;
+        }
+        // Retries the tag step used up do not count against UpdateWorkgroup
+        callbackContext.setBusyStep("UpdateTags");
+        callbackContext.setBusyWorkgroupRetries(retries);
+
+        when(proxyClient.client().listTagsForResource(any(ListTagsForResourceRequest.class))).thenReturn(ListTagsForResourceResponse.builder().build());
+        when(proxyClient.client().updateWorkgroup(any(UpdateWorkgroupRequest.class)))
+                .thenThrow(ConflictException.builder().message(BaseHandlerStd.BUSY_WORKGROUP_RETRY_EXCEPTION_MESSAGE).build());
+        when(proxyClient.client().getWorkgroup(any(GetWorkgroupRequest.class))).thenReturn(getReadResponseSdk());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, callbackContext, proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getBusyStep()).isEqualTo("UpdateWorkgroup");
+        assertThat(response.getCallbackContext().getBusyWorkgroupRetries()).isEqualTo(1);
+    }
 }